@@ -43,6 +43,16 @@ public class Liquibase {
 
     public static final String SHOULD_RUN_SYSTEM_PROPERTY = "liquibase.should.run";
 
+    /**
+     * Set to "true" to make {@link #update(String)} skip up-to-date databases using a {@link ChangeLogFingerprint}.
+     */
+    public static final String USE_FINGERPRINT_SYSTEM_PROPERTY = "liquibase.use.fingerprint";
+
+    /**
+     * Set to "true" to make {@link #update(String)} stream the changelog, see {@link #setStreamingUpdate(boolean)}.
+     */
+    public static final String STREAMING_UPDATE_SYSTEM_PROPERTY = "liquibase.streaming.update";
+
     private String changeLogFile;
     private ResourceAccessor resourceAccessor;
 
@@ -51,6 +61,9 @@ public class Liquibase {
 
     private ChangeLogParameters changeLogParameters;
 
+    private boolean useChangeLogFingerprint = Boolean.valueOf(System.getProperty(USE_FINGERPRINT_SYSTEM_PROPERTY, "false"));
+    private boolean streamingUpdate = Boolean.valueOf(System.getProperty(STREAMING_UPDATE_SYSTEM_PROPERTY, "false"));
+
     public Liquibase(String changeLogFile, ResourceAccessor resourceAccessor, DatabaseConnection conn) throws LiquibaseException {
         this(changeLogFile, resourceAccessor, DatabaseFactory.getInstance().findCorrectDatabaseImplementation(conn));
     }
@@ -99,22 +112,77 @@ public class Liquibase {
         }
     }
 
+    public boolean isUseChangeLogFingerprint() {
+        return useChangeLogFingerprint;
+    }
+
+    /**
+     * If true, {@link #update(String)} stores a {@link ChangeLogFingerprint} after an update that left no change sets pending,
+     * and returns before locking the database if the changelog still has the stored fingerprint.
+     * Defaults to the value of the {@value #USE_FINGERPRINT_SYSTEM_PROPERTY} system property.
+     */
+    public void setUseChangeLogFingerprint(boolean useChangeLogFingerprint) {
+        this.useChangeLogFingerprint = useChangeLogFingerprint;
+    }
+
+    public boolean isStreamingUpdate() {
+        return streamingUpdate;
+    }
+
+    /**
+     * If true, {@link #update(String)} uses a {@link StreamingChangeLogIterator}: the changelog is parsed once to validate
+     * it and once more to execute the change sets as they are read, so only one change set with its changes is held in
+     * memory at a time.  Use for very large changelogs, such as generated data changelogs.
+     * A {@link ChangeLogFingerprint} is only checked once the lock is held.
+     * Defaults to the value of the {@value #STREAMING_UPDATE_SYSTEM_PROPERTY} system property.
+     */
+    public void setStreamingUpdate(boolean streamingUpdate) {
+        this.streamingUpdate = streamingUpdate;
+    }
+
     public void update(String contexts) throws LiquibaseException {
         contexts = StringUtils.trimToNull(contexts);
+        changeLogParameters.setContexts(StringUtils.splitAndTrim(contexts, ","));
+
+        if (streamingUpdate) {
+            updateStreaming(contexts);
+            return;
+        }
+
+        DatabaseChangeLog changeLog = null;
+        String fingerprint = null;
+        if (useChangeLogFingerprint && ExecutorService.getInstance().getExecutor(database).updatesDatabase()) {
+            changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor).parse(changeLogFile, changeLogParameters, resourceAccessor);
+            fingerprint = ChangeLogFingerprint.compute(changeLog, database, contexts);
+            if (ChangeLogFingerprint.isUpToDate(database, fingerprint)) {
+                log.info("Database is up to date with " + changeLogFile + ", no change sets to execute");
+                return;
+            }
+        }
+
         LockService lockService = LockService.getInstance(database);
         lockService.waitForLock();
 
-        changeLogParameters.setContexts(StringUtils.splitAndTrim(contexts, ","));
-
         try {
-            DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor).parse(changeLogFile, changeLogParameters, resourceAccessor);
+            if (changeLog == null) {
+                changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor).parse(changeLogFile, changeLogParameters, resourceAccessor);
+            }
 
             checkDatabaseChangeLogTable(true, changeLog, contexts);
 
             changeLog.validate(database, contexts);
             ChangeLogIterator changeLogIterator = getStandardChangelogIterator(contexts, changeLog);
 
-            changeLogIterator.run(new UpdateVisitor(database), database);
+            UpdateVisitor updateVisitor = new UpdateVisitor(database);
+            changeLogIterator.run(updateVisitor, database);
+
+            if (fingerprint != null) {
+                if (updateVisitor.hasChangeSetsLeftPending()) {
+                    ChangeLogFingerprint.clear(database);
+                } else {
+                    ChangeLogFingerprint.store(database, fingerprint);
+                }
+            }
         } finally {
             try {
                 lockService.releaseLock();
@@ -124,8 +192,65 @@ public class Liquibase {
         }
     }
 
-    private ChangeLogIterator getStandardChangelogIterator(String contexts, DatabaseChangeLog changeLog) throws DatabaseException {
-        return new ChangeLogIterator(changeLog,
+    private void updateStreaming(String contexts) throws LiquibaseException {
+        LockService lockService = LockService.getInstance(database);
+        lockService.waitForLock();
+
+        try {
+            checkDatabaseChangeLogTable(false, null, contexts);
+
+            final DatabaseChangeLog changeLog = new StreamingChangeLogIterator(changeLogFile, changeLogParameters, resourceAccessor)
+                    .validate(database, contexts);
+            checkDatabaseChangeLogTable(true, changeLog, contexts);
+
+            String fingerprint = null;
+            if (useChangeLogFingerprint && ExecutorService.getInstance().getExecutor(database).updatesDatabase()) {
+                fingerprint = ChangeLogFingerprint.compute(changeLog, database, contexts);
+                if (ChangeLogFingerprint.isUpToDate(database, fingerprint)) {
+                    log.info("Database is up to date with " + changeLogFile + ", no change sets to execute");
+                    return;
+                }
+            }
+
+            StreamingChangeLogIterator changeLogIterator = new StreamingChangeLogIterator(changeLogFile, changeLogParameters, resourceAccessor,
+                    new ShouldRunChangeSetFilter(database),
+                    new ContextChangeSetFilter(contexts),
+                    new DbmsChangeSetFilter(database));
+
+            UpdateVisitor updateVisitor = new UpdateVisitor(database) {
+                @Override
+                public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
+                    ChangeSet validatedChangeSet = changeLog.getChangeSet(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId());
+                    if (validatedChangeSet != null && validatedChangeSet.isValidationFailed()) {
+                        changeSet.setValidationFailed(true);
+                    }
+                    super.visit(changeSet, databaseChangeLog, database);
+                }
+            };
+            changeLogIterator.run(updateVisitor, database);
+
+            if (fingerprint != null) {
+                if (updateVisitor.hasChangeSetsLeftPending()) {
+                    ChangeLogFingerprint.clear(database);
+                } else {
+                    ChangeLogFingerprint.store(database, fingerprint);
+                }
+            }
+        } finally {
+            try {
+                lockService.releaseLock();
+            } catch (LockException e) {
+                log.severe("Could not release lock", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the iterator over the change sets that should run, which visits independent change sets of an update in
+     * parallel if enabled (see {@link ParallelChangeLogIterator}).
+     */
+    protected ChangeLogIterator getStandardChangelogIterator(String contexts, DatabaseChangeLog changeLog) throws DatabaseException {
+        return new ParallelChangeLogIterator(changeLog,
                 new ShouldRunChangeSetFilter(database),
                 new ContextChangeSetFilter(contexts),
                 new DbmsChangeSetFilter(database));
@@ -683,6 +808,8 @@ public class Liquibase {
             updateStatement.addNewColumnValue("MD5SUM", null);
             ExecutorService.getInstance().getExecutor(database).execute(updateStatement);
             getDatabase().commit();
+
+            ChangeLogFingerprint.clear(database);
         } finally {
             lockService.releaseLock();
         }
@@ -132,7 +132,7 @@ public abstract class AbstractChange implements Change {
      * If the change queries the database, it cannot be used in updateSql type operations
      */
     public boolean queriesDatabase(Database database) {
-        for (SqlStatement statement : generateStatements(database)) {
+        for (SqlStatement statement : generateStatementsForValidation(database)) {
             if (SqlGeneratorFactory.getInstance().queriesDatabase(statement, database)) {
                 return true;
             }
@@ -141,7 +141,7 @@ public abstract class AbstractChange implements Change {
     }
 
     public boolean supports(Database database) {
-        for (SqlStatement statement : generateStatements(database)) {
+        for (SqlStatement statement : generateStatementsForValidation(database)) {
             if (!SqlGeneratorFactory.getInstance().supports(statement, database)) {
                 return false;
             }
@@ -151,7 +151,7 @@ public abstract class AbstractChange implements Change {
 
     public Warnings warn(Database database) {
         Warnings warnings = new Warnings();
-        for (SqlStatement statement : generateStatements(database)) {
+        for (SqlStatement statement : generateStatementsForValidation(database)) {
             if (SqlGeneratorFactory.getInstance().supports(statement, database)) {
                 warnings.addAll(SqlGeneratorFactory.getInstance().warn(statement, database));
             }
@@ -172,7 +172,7 @@ public abstract class AbstractChange implements Change {
             return changeValidationErrors;
         }
 
-        for (SqlStatement statement : generateStatements(database)) {
+        for (SqlStatement statement : generateStatementsForValidation(database)) {
             boolean supported = SqlGeneratorFactory.getInstance().supports(statement, database);
             if (!supported) {
                 if (statement.skipOnUnsupported()) {
@@ -188,6 +188,14 @@ public abstract class AbstractChange implements Change {
         return changeValidationErrors;
     }
 
+    /**
+     * Returns the statements the checks of this class (validation, warnings, support and affected objects) are done
+     * against.  Defaults to all statements of the change.
+     */
+    protected SqlStatement[] generateStatementsForValidation(Database database) {
+        return generateStatements(database);
+    }
+
     public SqlStatement[] generateRollbackStatements(Database database) throws UnsupportedChangeException, RollbackImpossibleException {
         return generateRollbackStatementsFromInverse(database);
     }
@@ -197,7 +205,7 @@ public abstract class AbstractChange implements Change {
     }
 
     public CheckSum generateCheckSum() {
-        return CheckSum.compute(new StringChangeLogSerializer().serialize(this));
+        return new StringChangeLogSerializer().generateCheckSum(this);
     }
 
     /*
@@ -254,7 +262,7 @@ public abstract class AbstractChange implements Change {
 
     public Set<DatabaseObject> getAffectedDatabaseObjects(Database database) {
         Set<DatabaseObject> affectedObjects = new HashSet<DatabaseObject>();
-        for (SqlStatement statement : generateStatements(database)) {
+        for (SqlStatement statement : generateStatementsForValidation(database)) {
             affectedObjects.addAll(SqlGeneratorFactory.getInstance().getAffectedDatabaseObjects(statement, database));
         }
 
@@ -2,10 +2,15 @@ package liquibase.change;
 
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.MD5Writer;
+import liquibase.util.NewlineNormalizingWriter;
 import liquibase.util.StringUtils;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -95,10 +100,18 @@ public abstract class AbstractSQLChange extends AbstractChange {
         if (sql == null) {
             sql = "";
         }
-        return CheckSum.compute(this.endDelimiter+":"+
-                this.isSplittingStatements()+":"+
-                this.isStrippingComments()+":"+
-                sql.replaceAll("\r\n", "\n").replaceAll("\r", "\n")); //normalize line endings
+        MD5Writer writer = new MD5Writer();
+        try {
+            writer.write(this.endDelimiter+":"+
+                    this.isSplittingStatements()+":"+
+                    this.isStrippingComments()+":");
+            Writer normalized = new NewlineNormalizingWriter(writer); //normalize line endings
+            normalized.write(sql);
+            normalized.flush();
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return CheckSum.compute(writer);
     }
 
 
@@ -81,7 +81,9 @@ public interface Change {
     public Set<DatabaseObject> getAffectedDatabaseObjects(Database database);
     
     /**
-     * Calculates the checksum (currently MD5 hash) for the current configuration of this change.
+     * Calculates the checksum (currently MD5 hash) for the current configuration of this change.  The change set the change
+     * belongs to caches the result, so changing the configuration afterwards requires
+     * {@link liquibase.changelog.ChangeSet#clearCheckSumCache()}.
      */
     public CheckSum generateCheckSum();
 
@@ -1,6 +1,7 @@
 package liquibase.change;
 
 import liquibase.util.MD5Util;
+import liquibase.util.MD5Writer;
 
 import java.io.InputStream;
 
@@ -36,6 +37,13 @@ public class CheckSum {
         return new CheckSum(MD5Util.computeMD5(stream), getCurrentVersion());
     }
 
+    /**
+     * Computes the checksum of the text written to the given writer.  Same result as {@link #compute(String)} on that text.
+     */
+    public static CheckSum compute(MD5Writer writtenValue) {
+        return new CheckSum(writtenValue.getMD5(), getCurrentVersion());
+    }
+
     @Override
     public String toString() {
         return version+":"+this.checksum;
@@ -0,0 +1,298 @@
+package liquibase.change;
+
+import liquibase.logging.LogFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.MD5Util;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional on-disk cache of computed checksums, so checksums of changelog files that have not changed since the last
+ * run do not need to be serialized and hashed again.  Enabled by setting the {@value #DIRECTORY_PROPERTY} system property
+ * to a writable directory.
+ * <p>
+ * Entries are grouped in one file per resource path and are only valid for the resource fingerprint (see
+ * {@link #getResourceFingerprint(ResourceAccessor, String)}) they were stored with.  Callers include everything else the
+ * checksum depends on in the key.
+ * <p>
+ * Several JVMs may share the directory: new entries are appended to the file under an exclusive file lock as single
+ * lines, incomplete or unreadable lines are ignored, and files are only rewritten through a rename.  Losing an entry
+ * only means it is computed again.
+ */
+public class CheckSumCache {
+
+    /**
+     * Directory of the cache files.  Local files are fingerprinted by path, size and modification time, so an edit that
+     * keeps the size and lands within the file system's timestamp granularity of the previous write (up to two seconds on
+     * FAT, one second on older ext3 and HFS+) can return the checksum of the previous content.  Leave the cache
+     * disabled where files are generated and rewritten in quick succession.
+     */
+    public static final String DIRECTORY_PROPERTY = "liquibase.checkSumCacheDirectory";
+
+    private static final int RENAME_ATTEMPTS = 5;
+
+    private static final String FILE_EXTENSION = ".checksums";
+
+    private static CheckSumCache instance;
+
+    private File directory;
+
+    /**
+     * Loaded entries by resource path, for the fingerprint in {@link ResourceEntries#fingerprint}.
+     */
+    private Map<String, ResourceEntries> resources = new ConcurrentHashMap<String, ResourceEntries>();
+
+    public static synchronized CheckSumCache getInstance() {
+        if (instance == null) {
+            String directory = System.getProperty(DIRECTORY_PROPERTY);
+            if (directory == null || directory.trim().length() == 0) {
+                instance = new CheckSumCache(null);
+            } else {
+                instance = new CheckSumCache(new File(directory.trim()));
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Discards the shared instance so the next {@link #getInstance()} call reads {@value #DIRECTORY_PROPERTY} again.
+     */
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    /**
+     * Creates a cache storing its files in the given directory.  A null directory creates a disabled cache.
+     */
+    public CheckSumCache(File directory) {
+        this.directory = directory;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Returns the checksum stored for the key, or null if there is none for the given resource fingerprint.
+     */
+    public CheckSum get(String resourcePath, String resourceFingerprint, String key) {
+        if (!isEnabled() || resourcePath == null || resourceFingerprint == null) {
+            return null;
+        }
+        return getEntries(resourcePath, resourceFingerprint).checkSums.get(MD5Util.computeMD5(key));
+    }
+
+    public void put(String resourcePath, String resourceFingerprint, String key, CheckSum checkSum) {
+        if (!isEnabled() || resourcePath == null || resourceFingerprint == null || checkSum == null) {
+            return;
+        }
+        ResourceEntries entries = getEntries(resourcePath, resourceFingerprint);
+        String keyHash = MD5Util.computeMD5(key);
+        if (checkSum.equals(entries.checkSums.put(keyHash, checkSum))) {
+            return;
+        }
+        synchronized (entries) {
+            append(getFile(resourcePath), entries.fingerprintHash + " " + keyHash + " " + checkSum + "\n");
+        }
+    }
+
+    private ResourceEntries getEntries(String resourcePath, String resourceFingerprint) {
+        ResourceEntries entries = resources.get(resourcePath);
+        if (entries == null || !entries.fingerprint.equals(resourceFingerprint)) {
+            synchronized (this) {
+                entries = resources.get(resourcePath);
+                if (entries == null || !entries.fingerprint.equals(resourceFingerprint)) {
+                    entries = load(resourcePath, resourceFingerprint);
+                    resources.put(resourcePath, entries);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the entries stored for the given fingerprint.  If the file also holds entries for other fingerprints, the
+     * resource changed since they were written and the file is rewritten without them.
+     */
+    private ResourceEntries load(String resourcePath, String resourceFingerprint) {
+        ResourceEntries entries = new ResourceEntries(resourceFingerprint);
+        File file = getFile(resourcePath);
+        if (!file.exists()) {
+            return entries;
+        }
+
+        boolean hasStaleEntries = false;
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length != 3 || !parts[2].matches("\\d:[0-9a-f]{32}")) {
+                    continue;
+                }
+                if (parts[0].equals(entries.fingerprintHash)) {
+                    entries.checkSums.put(parts[1], CheckSum.parse(parts[2]));
+                } else {
+                    hasStaleEntries = true;
+                }
+            }
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot read checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignore) {
+                    // ok
+                }
+            }
+        }
+
+        if (hasStaleEntries) {
+            rewrite(file, entries);
+        }
+        return entries;
+    }
+
+    private void rewrite(File file, ResourceEntries entries) {
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, CheckSum> entry : entries.checkSums.entrySet()) {
+            content.append(entries.fingerprintHash).append(" ").append(entry.getKey()).append(" ").append(entry.getValue()).append("\n");
+        }
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            OutputStream out = new FileOutputStream(tempFile);
+            try {
+                out.write(content.toString().getBytes("UTF-8"));
+            } finally {
+                out.close();
+            }
+            if (!rename(tempFile, file)) {
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot write checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Renames the file over the target, retrying for a short while in case another process has the target open.  The
+     * target is never deleted first, so readers always find either the old or the new content.  If the rename keeps
+     * failing (File.renameTo does not replace existing files on Windows) the old file stays, and its stale entries are
+     * skipped on every load.
+     */
+    private boolean rename(File from, File to) {
+        for (int attempt = 0; attempt < RENAME_ATTEMPTS; attempt++) {
+            if (from.renameTo(to)) {
+                return true;
+            }
+            try {
+                Thread.sleep(20 * (attempt + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void append(File file, String line) {
+        FileOutputStream out = null;
+        try {
+            if (!directory.exists()) {
+                directory.mkdirs();
+            }
+            out = new FileOutputStream(file, true);
+            FileChannel channel = out.getChannel();
+            FileLock lock = channel.lock();
+            try {
+                out.write(line.getBytes("UTF-8"));
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot write checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignore) {
+                    // ok
+                }
+            }
+        }
+    }
+
+    private File getFile(String resourcePath) {
+        return new File(directory, MD5Util.computeMD5(resourcePath.replace('\\', '/')) + FILE_EXTENSION);
+    }
+
+    /**
+     * Returns a value that changes whenever the content of the given resource changes, or null if the resource cannot be
+     * read.  Resources that resolve to a local file use its location, size and modification time so the file is not
+     * read; other resources use an md5-sum of their content.
+     * <p>
+     * Compute the fingerprint before reading the resource, so a concurrent modification leads to a cache miss rather
+     * than a stale entry.
+     */
+    public static String getResourceFingerprint(ResourceAccessor resourceAccessor, String path) {
+        if (resourceAccessor == null || path == null) {
+            return null;
+        }
+        try {
+            File file = null;
+            if (resourceAccessor instanceof FileSystemResourceAccessor) {
+                file = ((FileSystemResourceAccessor) resourceAccessor).getFile(path);
+            } else if (resourceAccessor instanceof ClassLoaderResourceAccessor) {
+                URL url = resourceAccessor.toClassLoader().getResource(path);
+                if (url != null && "file".equals(url.getProtocol())) {
+                    try {
+                        file = new File(new URI(url.toExternalForm()));
+                    } catch (Exception e) {
+                        file = null;
+                    }
+                }
+            }
+            if (file != null) {
+                return "file:" + file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+            }
+
+            InputStream stream = resourceAccessor.getResourceAsStream(path);
+            if (stream == null) {
+                return null;
+            }
+            try {
+                return "md5:" + MD5Util.computeMD5(stream);
+            } finally {
+                stream.close();
+            }
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot fingerprint " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static class ResourceEntries {
+        private String fingerprint;
+        private String fingerprintHash;
+        private Map<String, CheckSum> checkSums = new ConcurrentHashMap<String, CheckSum>();
+
+        private ResourceEntries(String fingerprint) {
+            this.fingerprint = fingerprint;
+            this.fingerprintHash = MD5Util.computeMD5(fingerprint);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package liquibase.change;
+
+/**
+ * A change whose checksum depends on a file it reads, such as a sql or data file.
+ */
+public interface ResourceChange extends Change {
+
+    /**
+     * Returns the fingerprint of the file, see {@link CheckSumCache#getResourceFingerprint(liquibase.resource.ResourceAccessor, String)}.
+     * Null if the file cannot be fingerprinted, in which case the checksum of the change set is not cached.
+     */
+    String getResourceFingerprint();
+}
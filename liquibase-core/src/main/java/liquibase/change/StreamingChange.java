@@ -0,0 +1,24 @@
+package liquibase.change;
+
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.sql.visitor.SqlVisitor;
+
+import java.util.List;
+
+/**
+ * A change that can execute its statements as it generates them instead of generating all of them up front, for changes
+ * with more statements than should be held in memory.
+ */
+public interface StreamingChange extends Change {
+
+    /**
+     * Returns true if {@link #executeStreaming(Database, List)} should be used to execute the change against the database.
+     */
+    boolean isStreaming(Database database);
+
+    /**
+     * Generates and executes the statements of the change with the executor of the database.
+     */
+    void executeStreaming(Database database, List<SqlVisitor> sqlVisitors) throws LiquibaseException;
+}
@@ -7,6 +7,7 @@ import liquibase.exception.DatabaseException;
 import liquibase.statement.ExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.PreparedInsertStatement;
 
 import java.io.*;
 import java.math.BigDecimal;
@@ -92,7 +93,7 @@ public class InsertDataChange extends AbstractChange implements ChangeWithColumn
         }
 
 
-        InsertStatement statement = new InsertStatement(getCatalogName(), getSchemaName(), getTableName());
+        InsertStatement statement = new PreparedInsertStatement(getCatalogName(), getSchemaName(), getTableName());
 
         for (ColumnConfig column : columns) {
 
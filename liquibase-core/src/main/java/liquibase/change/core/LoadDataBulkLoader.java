@@ -0,0 +1,182 @@
+package liquibase.change.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.logging.LogFactory;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.BulkLoadDataGeneratorHsql;
+import liquibase.sqlgenerator.core.InsertGenerator;
+import liquibase.statement.core.BulkLoadDataStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.util.csv.CSVReader;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes a {@link LoadDataChange} with the bulk loader of the database: the converted rows are written to a temporary
+ * file in the format of {@link BulkLoadDataStatement}, which is then loaded with one statement.
+ * <p>
+ * Values that cannot be written to the file, such as computed values, make the change fall back to inserts.  As with
+ * inserts, values that are the word NULL are loaded as NULL.
+ */
+class LoadDataBulkLoader {
+
+    static final String BULK_LOAD_SYSTEM_PROPERTY = "liquibase.loadData.bulkLoad";
+
+    private LoadDataChange change;
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private InsertGenerator insertGenerator = new InsertGenerator();
+
+    LoadDataBulkLoader(LoadDataChange change) {
+        this(change, change.getCatalogName(), change.getSchemaName(), change.getTableName());
+    }
+
+    /**
+     * Loads the data of the change into the given table instead of the table of the change.
+     */
+    LoadDataBulkLoader(LoadDataChange change, String catalogName, String schemaName, String tableName) {
+        this.change = change;
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Returns true if bulk loading is enabled with the liquibase.loadData.bulkLoad system property and the database has a
+     * bulk loader.  Not used when the sql is only written out, since the data file is temporary.
+     */
+    static boolean isEnabled(LoadDataChange change, Database database) {
+        if (!Boolean.valueOf(System.getProperty(BULK_LOAD_SYSTEM_PROPERTY, "false"))) {
+            return false;
+        }
+        if (!(ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor)) {
+            return false;
+        }
+        return SqlGeneratorFactory.getInstance().supports(new BulkLoadDataStatement(change.getCatalogName(), change.getSchemaName(), change.getTableName(), new ArrayList<String>(), null), database);
+    }
+
+    /**
+     * Loads the data file.
+     * @return false if the data cannot be bulk loaded and nothing was executed
+     */
+    public boolean execute(Database database, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        if (sqlVisitors != null && sqlVisitors.size() > 0) {
+            return false;
+        }
+
+        File dataFile;
+        try {
+            dataFile = File.createTempFile("liquibase_loadData", ".csv", getDataDirectory(database));
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        try {
+            List<String> columnNames;
+            try {
+                columnNames = writeDataFile(database, dataFile);
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            if (columnNames == null) {
+                LogFactory.getLogger().debug("Data file " + change.getFile() + " has values that cannot be bulk loaded, using inserts");
+                return false;
+            }
+            if (columnNames.size() > 0) {
+                ExecutorService.getInstance().getExecutor(database).execute(new BulkLoadDataStatement(catalogName,
+                        schemaName, tableName, columnNames, dataFile.getAbsolutePath()));
+            }
+            return true;
+        } finally {
+            dataFile.delete();
+        }
+    }
+
+    /**
+     * Writes the converted lines of the data file of the change.
+     * @return the names of the loaded columns, empty if there were no rows, or null if a value cannot be bulk loaded
+     */
+    private List<String> writeDataFile(Database database, File dataFile) throws IOException {
+        CSVReader reader = change.getCSVReader();
+        Writer writer = null;
+        try {
+            String[] headers = reader.readNext();
+            if (headers == null) {
+                throw new UnexpectedLiquibaseException("Data file " + change.getFile() + " was empty");
+            }
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(dataFile), BulkLoadDataStatement.ENCODING));
+
+            List<String> columnNames = new ArrayList<String>();
+            String[] line;
+            int lineNumber = 0;
+            while ((line = reader.readNext()) != null) {
+                lineNumber++;
+                InsertStatement statement = change.createStatement(headers, line, lineNumber);
+                if (statement == null) {
+                    continue;
+                }
+                Map<String, Object> values = statement.getColumnValues();
+                if (columnNames.isEmpty()) {
+                    columnNames.addAll(values.keySet());
+                }
+                for (int i = 0; i < columnNames.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    String value = toText(values.get(columnNames.get(i)), database);
+                    if (value == null) {
+                        return null;
+                    }
+                    writer.write(value);
+                }
+                writer.write('\n');
+            }
+            return columnNames;
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the value as written to the data file, or null if it cannot be written.
+     */
+    private String toText(Object value, Database database) {
+        if (value == null || (value instanceof String && ((String) value).equalsIgnoreCase("NULL"))) {
+            return "NULL";
+        }
+        String text;
+        if (value instanceof Boolean) {
+            text = (Boolean) value ? DataTypeFactory.getInstance().getTrueBooleanValue(database) : DataTypeFactory.getInstance().getFalseBooleanValue(database);
+        } else if (insertGenerator.isParameterValue(value, database)) {
+            text = value.toString();
+        } else {
+            return null;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    private File getDataDirectory(Database database) {
+        if (database instanceof HsqlDatabase) {
+            return BulkLoadDataGeneratorHsql.getDatabaseDirectory(database);
+        }
+        return null;
+    }
+}
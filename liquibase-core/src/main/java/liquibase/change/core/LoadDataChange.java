@@ -2,24 +2,37 @@ package liquibase.change.core;
 
 import liquibase.change.*;
 import liquibase.database.Database;
+import liquibase.database.structure.DatabaseObject;
+import liquibase.database.structure.Schema;
+import liquibase.database.structure.Table;
+import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.resource.ResourceAccessor;
+import liquibase.sql.visitor.SqlVisitor;
 import liquibase.statement.SqlStatement;
+import liquibase.sqlgenerator.core.InsertSetGenerator;
+import liquibase.statement.core.InsertSetStatement;
 import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.PreparedInsertStatement;
 import liquibase.util.StringUtils;
 import liquibase.util.csv.CSVReader;
+import liquibase.util.csv.FastCSVReader;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 
 @DatabaseChange(name="loadData", description = "Load Data", priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "table")
-public class LoadDataChange extends AbstractChange implements ChangeWithColumns<LoadDataColumnConfig> {
+public class LoadDataChange extends AbstractChange implements ChangeWithColumns<LoadDataColumnConfig>, StreamingChange, ResourceChange {
 
     private String catalogName;
     private String schemaName;
@@ -100,7 +113,44 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         return columns;
     }
 
+    /**
+     * Returns true if the change should be executed with {@link #executeStreaming(Database, List)} rather than with the
+     * statements of {@link #generateStatements(Database)}.  Defaults to the value of the liquibase.loadData.streaming
+     * system property, or true if bulk loading is enabled with the liquibase.loadData.bulkLoad system property and the
+     * database has a bulk loader.
+     */
+    public boolean isStreaming(Database database) {
+        return Boolean.valueOf(System.getProperty(LoadDataPipeline.STREAMING_SYSTEM_PROPERTY, "false"))
+                || LoadDataBulkLoader.isEnabled(this, database);
+    }
+
+    /**
+     * Executes the change while the data file is read, keeping only a bounded number of lines in memory.  If enabled,
+     * the data is loaded with the bulk loader of the database, otherwise with batches of inserts.
+     */
+    public void executeStreaming(Database database, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        if (LoadDataBulkLoader.isEnabled(this, database) && new LoadDataBulkLoader(this).execute(database, sqlVisitors)) {
+            return;
+        }
+        new LoadDataPipeline(this).execute(database, sqlVisitors);
+    }
+
     public SqlStatement[] generateStatements(Database database) {
+        return generateStatements(database, -1);
+    }
+
+    /**
+     * When streaming, only the statement of the first line is checked, so validation does not read the whole file.
+     */
+    @Override
+    protected SqlStatement[] generateStatementsForValidation(Database database) {
+        if (isStreaming(database)) {
+            return generateStatements(database, 1);
+        }
+        return super.generateStatementsForValidation(database);
+    }
+
+    private SqlStatement[] generateStatements(Database database, int maxStatements) {
         CSVReader reader = null;
         try {
             reader = getCSVReader();
@@ -114,60 +164,18 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
             String[] line;
             int lineNumber = 0;
 
-            while ((line = reader.readNext()) != null) {
+            while ((maxStatements < 0 || statements.size() < maxStatements) && (line = reader.readNext()) != null) {
                 lineNumber++;
 
-                if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)) {
-                    continue; //nothing on this line
-                }
-                InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
-                for (int i=0; i<headers.length; i++) {
-                    String columnName = null;
-                    if( i >= line.length ) {
-                      throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
-                    }
-
-                    Object value = line[i];
-
-                    ColumnConfig columnConfig = getColumnConfig(i, headers[i]);
-                    if (columnConfig != null) {
-                        columnName = columnConfig.getName();
-
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        if (value.toString().equalsIgnoreCase("NULL")) {
-                            value = "NULL";
-                        } else if (columnConfig.getType() != null) {
-                            ColumnConfig valueConfig = new ColumnConfig();
-                            if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
-                                valueConfig.setValueBoolean(Boolean.parseBoolean(value.toString().toLowerCase()));
-                            } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
-                                valueConfig.setValueNumeric(value.toString());
-                            } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
-                                valueConfig.setValueDate(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
-                                valueConfig.setValue(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
-                                valueConfig.setValue(value.toString());
-                            } else {
-                                throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
-                            }
-                            value = valueConfig.getValueObject();
-                        }
-                    }
-
-                    if (columnName == null) {
-                        columnName = headers[i];
-                    }
-
-
-                    insertStatement.addColumnValue(columnName, value);
+                InsertStatement insertStatement = createStatement(headers, line, lineNumber);
+                if (insertStatement != null) {
+                    statements.add(insertStatement);
                 }
-                statements.add(insertStatement);
             }
 
+            if (maxStatements < 0) {
+                statements = toInsertSets(statements, database, getChangeSet() == null ? null : getChangeSet().getSqlVisitors());
+            }
             return statements.toArray(new SqlStatement[statements.size()]);
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -189,6 +197,88 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 		}
     }
 
+    /**
+     * Converts a line of the data file to a statement, or returns null if the line is empty.
+     */
+    protected InsertStatement createStatement(String[] headers, String[] line, int lineNumber) {
+        if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)) {
+            return null; //nothing on this line
+        }
+        InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
+        for (int i=0; i<headers.length; i++) {
+            String columnName = null;
+            if( i >= line.length ) {
+              throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
+            }
+
+            Object value = line[i];
+
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i]);
+            if (columnConfig != null) {
+                columnName = columnConfig.getName();
+
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+
+                if (value.toString().equalsIgnoreCase("NULL")) {
+                    value = "NULL";
+                } else if (columnConfig.getType() != null) {
+                    ColumnConfig valueConfig = new ColumnConfig();
+                    if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
+                        valueConfig.setValueBoolean(Boolean.parseBoolean(value.toString().toLowerCase()));
+                    } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
+                        valueConfig.setValueNumeric(value.toString());
+                    } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
+                        valueConfig.setValueDate(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
+                        valueConfig.setValue(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
+                        valueConfig.setValue(value.toString());
+                    } else {
+                        throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
+                    }
+                    value = valueConfig.getValueObject();
+                }
+            }
+
+            if (columnName == null) {
+                columnName = headers[i];
+            }
+
+
+            insertStatement.addColumnValue(columnName, value);
+        }
+        return insertStatement;
+    }
+
+    /**
+     * Combines consecutive inserts into the same table into {@link InsertSetStatement}s if
+     * {@link InsertSetGenerator#isEnabled(Database, List)}.  Statements of other types, such as those of subclasses that
+     * override {@link #createStatement(String, String, String)}, are kept as they are.
+     */
+    List<SqlStatement> toInsertSets(List<SqlStatement> statements, Database database, List<SqlVisitor> sqlVisitors) {
+        if (!InsertSetGenerator.isEnabled(database, sqlVisitors)) {
+            return statements;
+        }
+        List<SqlStatement> result = new ArrayList<SqlStatement>();
+        InsertSetStatement insertSet = null;
+        for (SqlStatement statement : statements) {
+            if (statement.getClass() != PreparedInsertStatement.class) {
+                result.add(statement);
+                insertSet = null;
+                continue;
+            }
+            InsertStatement insert = (InsertStatement) statement;
+            if (insertSet == null || !insert.getTableName().equals(insertSet.getTableName())) {
+                insertSet = new InsertSetStatement(insert.getCatalogName(), insert.getSchemaName(), insert.getTableName());
+                result.add(insertSet);
+            }
+            insertSet.addInsertStatement(insert);
+        }
+        return result;
+    }
+
     protected CSVReader getCSVReader() throws IOException {
         ResourceAccessor opener = getResourceAccessor();
         if (opener == null) {
@@ -198,6 +288,9 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         if (stream == null) {
             throw new UnexpectedLiquibaseException("Data file "+getFile()+" was not found");
         }
+        if (getFile().toLowerCase().endsWith(".gz")) {
+            stream = new GZIPInputStream(new BufferedInputStream(stream, 64 * 1024));
+        }
 
         InputStreamReader streamReader;
         if (getEncoding() == null) {
@@ -214,11 +307,14 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         	quotchar = this.quotchar.charAt(0);
         }
 
+        if (Boolean.valueOf(System.getProperty(FastCSVReader.SYSTEM_PROPERTY, "false"))) {
+            return new FastCSVReader(streamReader, separator.charAt(0), quotchar);
+        }
         return new CSVReader(streamReader, separator.charAt(0), quotchar );
     }
 
     protected InsertStatement createStatement(String catalogName, String schemaName, String tableName){
-        return new InsertStatement(catalogName, schemaName,tableName);
+        return new PreparedInsertStatement(catalogName, schemaName,tableName);
     }
 
     protected ColumnConfig getColumnConfig(int index, String header) {
@@ -241,6 +337,28 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         return "Data loaded from "+getFile()+" into "+getTableName();
     }
 
+    /**
+     * Returns the loaded table without reading the data file, unless computed columns may read other tables.
+     */
+    @Override
+    public Set<DatabaseObject> getAffectedDatabaseObjects(Database database) {
+        for (LoadDataColumnConfig column : getColumns()) {
+            if (column.getType() != null && column.getType().equalsIgnoreCase("COMPUTED")) {
+                return super.getAffectedDatabaseObjects(database);
+            }
+        }
+        Set<DatabaseObject> affectedObjects = new HashSet<DatabaseObject>();
+        affectedObjects.add(new Table(getTableName()).setSchema(new Schema(getCatalogName(), getSchemaName())));
+        return affectedObjects;
+    }
+
+    /**
+     * Fingerprint of the data file, see {@link CheckSumCache#getResourceFingerprint(ResourceAccessor, String)}.
+     */
+    public String getResourceFingerprint() {
+        return CheckSumCache.getResourceFingerprint(getResourceAccessor(), getFile());
+    }
+
     @Override
     public CheckSum generateCheckSum() {
         InputStream stream = null;
@@ -0,0 +1,189 @@
+package liquibase.change.core;
+
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.AbstractExecutor;
+import liquibase.executor.ExecutorService;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.util.csv.CSVReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes a {@link LoadDataChange} while its data file is read.  One thread parses the file, a second one converts the
+ * lines to statements and the calling thread executes them in batches with the executor of the database.  The stages are
+ * connected by bounded queues, so the memory used does not depend on the size of the file.
+ */
+class LoadDataPipeline {
+
+    static final String STREAMING_SYSTEM_PROPERTY = "liquibase.loadData.streaming";
+
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int STATEMENTS_PER_BATCH = 1000;
+
+    private static final Object END = new Object();
+
+    private LoadDataChange change;
+
+    private BlockingQueue<Object> lines = new ArrayBlockingQueue<Object>(QUEUE_CAPACITY);
+    private BlockingQueue<Object> statements = new ArrayBlockingQueue<Object>(QUEUE_CAPACITY);
+
+    private volatile Throwable failure;
+    private volatile boolean stopped;
+
+    LoadDataPipeline(LoadDataChange change) {
+        this.change = change;
+    }
+
+    public void execute(Database database, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        final CSVReader reader;
+        final String[] headers;
+        try {
+            reader = change.getCSVReader();
+            headers = reader.readNext();
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        if (headers == null) {
+            close(reader);
+            throw new UnexpectedLiquibaseException("Data file "+change.getFile()+" was empty");
+        }
+
+        Thread parser = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    String[] line;
+                    while ((line = reader.readNext()) != null) {
+                        if (!put(lines, line)) {
+                            return;
+                        }
+                    }
+                } catch (Throwable e) {
+                    fail(e);
+                } finally {
+                    close(reader);
+                    put(lines, END);
+                }
+            }
+        }, "liquibase-loadData-parser");
+
+        Thread converter = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    int lineNumber = 0;
+                    Object line;
+                    while ((line = take(lines)) != END) {
+                        lineNumber++;
+                        InsertStatement statement = change.createStatement(headers, (String[]) line, lineNumber);
+                        if (statement != null && !put(statements, statement)) {
+                            return;
+                        }
+                    }
+                } catch (Throwable e) {
+                    fail(e);
+                } finally {
+                    put(statements, END);
+                }
+            }
+        }, "liquibase-loadData-converter");
+
+        parser.setDaemon(true);
+        converter.setDaemon(true);
+        parser.start();
+        converter.start();
+
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        try {
+            List<SqlStatement> batch = new ArrayList<SqlStatement>(STATEMENTS_PER_BATCH);
+            Object statement;
+            while ((statement = statements.take()) != END && failure == null) {
+                batch.add((SqlStatement) statement);
+                if (batch.size() >= STATEMENTS_PER_BATCH) {
+                    AbstractExecutor.executeBatch(executor, change.toInsertSets(batch, database, sqlVisitors), sqlVisitors);
+                    batch.clear();
+                }
+            }
+            if (failure == null && batch.size() > 0) {
+                AbstractExecutor.executeBatch(executor, change.toInsertSets(batch, database, sqlVisitors), sqlVisitors);
+            }
+        } catch (InterruptedException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } finally {
+            stopped = true;
+            join(parser);
+            join(converter);
+        }
+
+        if (failure instanceof LiquibaseException) {
+            throw (LiquibaseException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new UnexpectedLiquibaseException(failure);
+        }
+    }
+
+    /**
+     * Waits for space in the queue until the pipeline is stopped.
+     * @return false if the pipeline was stopped
+     */
+    private boolean put(BlockingQueue<Object> queue, Object item) {
+        try {
+            while (!stopped) {
+                if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            fail(e);
+        }
+        return false;
+    }
+
+    /**
+     * Waits for an item of the queue until the pipeline is stopped.
+     * @return {@link #END} if the pipeline was stopped
+     */
+    private Object take(BlockingQueue<Object> queue) throws InterruptedException {
+        while (!stopped) {
+            Object item = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (item != null) {
+                return item;
+            }
+        }
+        return END;
+    }
+
+    private synchronized void fail(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    private void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void close(CSVReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            //nothing to do
+        }
+    }
+}
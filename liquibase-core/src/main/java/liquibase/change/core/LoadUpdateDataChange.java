@@ -8,6 +8,7 @@ import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.RollbackImpossibleException;
 import liquibase.exception.UnsupportedChangeException;
 import liquibase.exception.LiquibaseException;
+import liquibase.sql.visitor.SqlVisitor;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.DeleteStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
@@ -37,6 +38,30 @@ public class LoadUpdateDataChange extends LoadDataChange {
         return new InsertOrUpdateStatement(catalogName, schemaName, tableName, this.primaryKey);
     }
 
+    /**
+     * Returns true if the rows should be merged set-based, which is enabled with the liquibase.loadUpdateData.setBased
+     * system property, or if streaming is enabled with the liquibase.loadData.streaming system property.  Bulk loading
+     * alone does not apply, since the rows have to be merged rather than inserted.
+     */
+    @Override
+    public boolean isStreaming(Database database) {
+        return LoadUpdateDataMerger.isEnabled(this, database)
+                || Boolean.valueOf(System.getProperty(LoadDataPipeline.STREAMING_SYSTEM_PROPERTY, "false"));
+    }
+
+    /**
+     * If enabled, loads the rows into a staging table that is merged into the table with one statement, otherwise
+     * executes an insert or update per row while the data file is read.
+     */
+    @Override
+    public void executeStreaming(Database database, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        if (LoadUpdateDataMerger.isEnabled(this, database)) {
+            new LoadUpdateDataMerger(this).execute(database, sqlVisitors);
+        } else {
+            new LoadDataPipeline(this).execute(database, sqlVisitors);
+        }
+    }
+
     @Override
     public SqlStatement[] generateRollbackStatements(Database database) throws UnsupportedChangeException, RollbackImpossibleException {
         List<SqlStatement> statements = new ArrayList<SqlStatement>();
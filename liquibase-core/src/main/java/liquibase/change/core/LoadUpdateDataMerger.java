@@ -0,0 +1,203 @@
+package liquibase.change.core;
+
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.AbstractExecutor;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.logging.LogFactory;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.core.CreateStagingTableGenerator;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.DropStagingTableStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.MergeRowsStatement;
+import liquibase.statement.core.PreparedInsertStatement;
+import liquibase.util.csv.CSVReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Executes a {@link LoadUpdateDataChange} set-based: the rows are loaded into a staging table with the columns of the
+ * target table, which is then merged into the target table with one statement per database (see
+ * {@link liquibase.sqlgenerator.core.MergeRowsGenerator}) and dropped.  The staging table is loaded with the bulk
+ * loader of the database if bulk loading is enabled, otherwise with batches of inserts.
+ * <p>
+ * The staging table is a temporary table that is created and dropped without committing the transaction of the
+ * changeset, so set-based execution is only used on databases that have one (see
+ * {@link CreateStagingTableGenerator#supportsStagingTable(Database)}).  Since the rows of the staging table are merged with
+ * one statement, only the last of several rows with the same primary key is staged.
+ */
+class LoadUpdateDataMerger {
+
+    static final String SET_BASED_SYSTEM_PROPERTY = "liquibase.loadUpdateData.setBased";
+
+    private static final String STAGING_TABLE_PREFIX = "LBSTG_";
+    private static final int STATEMENTS_PER_BATCH = 1000;
+
+    private LoadUpdateDataChange change;
+    private Set<Integer> supersededLines = new HashSet<Integer>();
+
+    LoadUpdateDataMerger(LoadUpdateDataChange change) {
+        this.change = change;
+    }
+
+    /**
+     * Returns true if set-based execution is enabled with the liquibase.loadUpdateData.setBased system property and the
+     * database has a staging table that does not commit the transaction.  Not used when the sql is only written out,
+     * since the staging table only exists while the change is executed.
+     */
+    static boolean isEnabled(LoadUpdateDataChange change, Database database) {
+        if (!Boolean.valueOf(System.getProperty(SET_BASED_SYSTEM_PROPERTY, "false"))) {
+            return false;
+        }
+        if (change.getPrimaryKey() == null) {
+            return false;
+        }
+        if (!CreateStagingTableGenerator.supportsStagingTable(database)) {
+            LogFactory.getLogger().debug(database.getShortName() + " has no temporary table that can be created in a transaction, updating " + change.getTableName() + " row by row");
+            return false;
+        }
+        return ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor;
+    }
+
+    public void execute(Database database, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        List<String> columnNames = scanDataFile();
+        if (columnNames == null) {
+            return;
+        }
+
+        String stagingSchemaName = CreateStagingTableGenerator.getStagingSchemaName(database);
+        String stagingTableName = CreateStagingTableGenerator.getStagingTableName(database, STAGING_TABLE_PREFIX + Integer.toString(new Random().nextInt(Integer.MAX_VALUE), 36).toUpperCase());
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        executor.execute(new CreateStagingTableStatement(change.getCatalogName(), change.getSchemaName(), change.getTableName(), stagingSchemaName, stagingTableName, columnNames), sqlVisitors);
+        boolean successful = false;
+        try {
+            if (supersededLines.size() > 0 || !LoadDataBulkLoader.isEnabled(change, database) || !new LoadDataBulkLoader(change, null, stagingSchemaName, stagingTableName).execute(database, sqlVisitors)) {
+                insertRows(stagingSchemaName, stagingTableName, database, sqlVisitors);
+            }
+            executor.execute(new MergeRowsStatement(change.getCatalogName(), change.getSchemaName(), change.getTableName(), stagingSchemaName, stagingTableName, columnNames, change.getPrimaryKey()), sqlVisitors);
+            successful = true;
+        } finally {
+            try {
+                executor.execute(new DropStagingTableStatement(stagingSchemaName, stagingTableName), sqlVisitors);
+            } catch (LiquibaseException e) {
+                if (successful) {
+                    throw e;
+                }
+                LogFactory.getLogger().warning("Could not drop staging table " + stagingTableName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the columns of the first row of the data file, or null if it has no rows.  Reads the whole file to find the
+     * rows that are superseded by a later row with the same primary key.
+     */
+    private List<String> scanDataFile() {
+        CSVReader reader = null;
+        try {
+            reader = change.getCSVReader();
+            String[] headers = reader.readNext();
+            if (headers == null) {
+                throw new UnexpectedLiquibaseException("Data file " + change.getFile() + " was empty");
+            }
+            List<String> columnNames = null;
+            String[] keyColumns = change.getPrimaryKey().split(",");
+            Map<List<Object>, Integer> lineNumbers = new HashMap<List<Object>, Integer>();
+            String[] line;
+            int lineNumber = 0;
+            while ((line = reader.readNext()) != null) {
+                lineNumber++;
+                InsertStatement statement = change.createStatement(headers, line, lineNumber);
+                if (statement == null) {
+                    continue;
+                }
+                if (columnNames == null) {
+                    columnNames = new ArrayList<String>(statement.getColumnValues().keySet());
+                }
+                Integer supersededLine = lineNumbers.put(getKey(statement, keyColumns), lineNumber);
+                if (supersededLine != null) {
+                    supersededLines.add(supersededLine);
+                }
+            }
+            return columnNames;
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    private List<Object> getKey(InsertStatement statement, String[] keyColumns) {
+        Object[] key = new Object[keyColumns.length];
+        for (Map.Entry<String, Object> value : statement.getColumnValues().entrySet()) {
+            for (int i = 0; i < keyColumns.length; i++) {
+                if (value.getKey().equalsIgnoreCase(keyColumns[i].trim())) {
+                    key[i] = value.getValue();
+                }
+            }
+        }
+        return Arrays.asList(key);
+    }
+
+    private void insertRows(String stagingSchemaName, String stagingTableName, Database database, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        CSVReader reader = null;
+        try {
+            reader = change.getCSVReader();
+            String[] headers = reader.readNext();
+            List<SqlStatement> batch = new ArrayList<SqlStatement>(STATEMENTS_PER_BATCH);
+            String[] line;
+            int lineNumber = 0;
+            while ((line = reader.readNext()) != null) {
+                lineNumber++;
+                if (supersededLines.contains(lineNumber)) {
+                    continue;
+                }
+                InsertStatement statement = change.createStatement(headers, line, lineNumber);
+                if (statement == null) {
+                    continue;
+                }
+                InsertStatement stagingStatement = new PreparedInsertStatement(null, stagingSchemaName, stagingTableName);
+                for (Map.Entry<String, Object> value : statement.getColumnValues().entrySet()) {
+                    stagingStatement.addColumnValue(value.getKey(), value.getValue());
+                }
+                batch.add(stagingStatement);
+                if (batch.size() >= STATEMENTS_PER_BATCH) {
+                    AbstractExecutor.executeBatch(executor, change.toInsertSets(batch, database, sqlVisitors), sqlVisitors);
+                    batch.clear();
+                }
+            }
+            if (batch.size() > 0) {
+                AbstractExecutor.executeBatch(executor, change.toInsertSets(batch, database, sqlVisitors), sqlVisitors);
+            }
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    private void close(CSVReader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            LogFactory.getLogger().warning("Error closing data file " + change.getFile() + ": " + e.getMessage());
+        }
+    }
+}
@@ -24,12 +24,17 @@ import liquibase.util.StringUtils;
  * file will likely not be found.
  */
 @DatabaseChange(name="sqlFile", description = "SQL From File", priority = ChangeMetaData.PRIORITY_DEFAULT)
-public class SQLFileChange extends AbstractSQLChange {
+public class SQLFileChange extends AbstractSQLChange implements ResourceChange {
 
     private String path;
     private String encoding = null;
     private Boolean relativeToChangelogFile;
 
+    /**
+     * Fingerprint of the loaded file for the {@link CheckSumCache}, null if it is not used or the sql was set directly.
+     */
+    private String resourceFingerprint;
+
 
     @DatabaseChangeProperty(requiredForDatabase = "all")
     public String getPath() {
@@ -76,6 +81,10 @@ public class SQLFileChange extends AbstractSQLChange {
             throw new SetupException("<sqlfile> - No path specified");
         }
         LogFactory.getLogger().debug("SQLFile file:" + path);
+        String fingerprint = null;
+        if (CheckSumCache.getInstance().isEnabled()) {
+            fingerprint = CheckSumCache.getResourceFingerprint(getResourceAccessor(), resolvePath(path));
+        }
         boolean loaded = loadFromClasspath(path);
         if (!loaded) {
             loaded = loadFromFileSystem(path);
@@ -84,6 +93,7 @@ public class SQLFileChange extends AbstractSQLChange {
         if (!loaded) {
             throw new SetupException("<sqlfile path=" + path + "> - Could not find file");
         }
+        resourceFingerprint = fingerprint;
         LogFactory.getLogger().debug("SQLFile file contents is:" + getSql());
     }
 
@@ -108,9 +118,7 @@ public class SQLFileChange extends AbstractSQLChange {
      * @return True if the file was found, false otherwise.
      */
     private boolean loadFromFileSystem(String file) throws SetupException {
-        if (relativeToChangelogFile != null && relativeToChangelogFile) {
-            file = getChangeSet().getFilePath().replaceFirst("/[^/]*$", "") + "/" + file;
-        }
+        file = resolvePath(file);
 
         InputStream fis = null;
         try {
@@ -146,9 +154,7 @@ public class SQLFileChange extends AbstractSQLChange {
      * @return True if the file was found and loaded, false otherwise.
      */
     private boolean loadFromClasspath(String file) {
-        if (relativeToChangelogFile != null && relativeToChangelogFile) {
-            file = getChangeSet().getFilePath().replaceFirst("/[^/]*$", "") + "/" + file;
-        }
+        file = resolvePath(file);
 
         InputStream in = null;
         try {
@@ -176,6 +182,44 @@ public class SQLFileChange extends AbstractSQLChange {
         }
     }
 
+    /**
+     * Fingerprint of the sql file taken when it was loaded, see {@link CheckSumCache#getResourceFingerprint(liquibase.resource.ResourceAccessor, String)}.
+     * Null if the checksum cache is not used or the sql was set directly.
+     */
+    public String getResourceFingerprint() {
+        return resourceFingerprint;
+    }
+
+    private String resolvePath(String file) {
+        if (relativeToChangelogFile != null && relativeToChangelogFile) {
+            file = getChangeSet().getFilePath().replaceFirst("/[^/]*$", "") + "/" + file;
+        }
+        return file;
+    }
+
+    /**
+     * Returns the checksum stored in the {@link CheckSumCache} for the file if it has not changed since it was stored,
+     * otherwise computes it from the loaded sql.
+     */
+    @Override
+    public CheckSum generateCheckSum() {
+        CheckSumCache checkSumCache = CheckSumCache.getInstance();
+        if (resourceFingerprint == null || !checkSumCache.isEnabled()) {
+            return super.generateCheckSum();
+        }
+        String resourcePath = resolvePath(path);
+        String key = "sqlFile::" + getEndDelimiter() + "::" + isSplittingStatements() + "::" + isStrippingComments() + "::" + encoding;
+        if (getChangeLogParameters() != null) {
+            key += "::" + getChangeLogParameters().getExpandedParametersFingerprint();
+        }
+        CheckSum checkSum = checkSumCache.get(resourcePath, resourceFingerprint, key);
+        if (checkSum == null) {
+            checkSum = super.generateCheckSum();
+            checkSumCache.put(resourcePath, resourceFingerprint, key, checkSum);
+        }
+        return checkSum;
+    }
+
     public String getConfirmationMessage() {
         return "SQL in file " + path + " executed";
     }
@@ -185,6 +229,7 @@ public class SQLFileChange extends AbstractSQLChange {
         if (getChangeLogParameters() != null) {
             sql = getChangeLogParameters().expandExpressions(sql);
         }
+        resourceFingerprint = null;
         super.setSql(sql);
     }
 }
@@ -3,6 +3,7 @@ package liquibase.change.core;
 import liquibase.change.*;
 import liquibase.database.Database;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.PreparedUpdateStatement;
 import liquibase.statement.core.UpdateStatement;
 
 import java.util.ArrayList;
@@ -77,7 +78,12 @@ public class UpdateDataChange extends AbstractChange implements ChangeWithColumn
 
     public SqlStatement[] generateStatements(Database database) {
 
-        UpdateStatement statement = new UpdateStatement(getCatalogName(), getSchemaName(), getTableName());
+        UpdateStatement statement;
+        if (whereClause != null && whereClause.contains("?")) {
+            statement = new UpdateStatement(getCatalogName(), getSchemaName(), getTableName());
+        } else {
+            statement = new PreparedUpdateStatement(getCatalogName(), getSchemaName(), getTableName());
+        }
 
         for (ColumnConfig column : columns) {
             statement.addNewColumnValue(column.getName(), column.getValueObject());
@@ -0,0 +1,160 @@
+package liquibase.changelog;
+
+import liquibase.database.Database;
+import liquibase.database.structure.Schema;
+import liquibase.database.structure.Table;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
+import liquibase.snapshot.DatabaseSnapshotGeneratorFactory;
+import liquibase.statement.NotNullConstraint;
+import liquibase.statement.core.CreateTableStatement;
+import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.statement.core.UpdateStatement;
+import liquibase.util.MD5Writer;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Aggregate fingerprint of an effective changelog, stored in the database after an update left no change sets pending
+ * so the next update with the same changelog, contexts and database can return without locking or reading the history.
+ * <p>
+ * The fingerprint covers the identity, flags and checksum of every change set (so also the parameters and files they
+ * were built from), the contexts and the database type.  It is stored together with the number of DATABASECHANGELOG
+ * rows, so changes to the history made since (rollbacks, deleted rows, other changelogs) are noticed as well.
+ * <p>
+ * The value is kept in its own table, {@value #TABLE_NAME}, with one row per DATABASECHANGELOG table name.  The table is
+ * created the first time a fingerprint is stored.
+ */
+public class ChangeLogFingerprint {
+
+    public static final String TABLE_NAME = "DATABASECHANGELOGFINGERPRINT";
+
+    private static final String PREFIX = "fingerprint:";
+
+    /**
+     * Computes the fingerprint of the given parsed changelog for an update with the given contexts.
+     */
+    public static String compute(DatabaseChangeLog changeLog, Database database, String contexts) {
+        MD5Writer writer = new MD5Writer();
+        try {
+            writer.write(database.getShortName() + "\n");
+            writer.write(database.getDatabaseChangeLogTableName() + "\n");
+            SortedSet<String> sortedContexts = new TreeSet<String>();
+            if (contexts != null) {
+                for (String context : contexts.split(",")) {
+                    if (context.trim().length() > 0) {
+                        sortedContexts.add(context.trim().toLowerCase());
+                    }
+                }
+            }
+            writer.write(sortedContexts + "\n");
+            writer.write(changeLog.getFilePath() + "\n");
+            for (ChangeSet changeSet : changeLog.getChangeSets()) {
+                writer.write(changeSet.toString(false));
+                writer.write(":" + changeSet.shouldAlwaysRun() + ":" + changeSet.shouldRunOnChange());
+                writer.write(":" + changeSet.getContexts() + ":" + changeSet.getDbmsSet());
+                writer.write(":" + changeSet.generateCheckSum() + "\n");
+            }
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return writer.getMD5();
+    }
+
+    /**
+     * Returns true if the given fingerprint was stored by the last update and the history has not changed since.
+     * Uses two single row queries and never fails: any problem reading the values is treated as "not up to date".
+     */
+    public static boolean isUpToDate(Database database, String fingerprint) {
+        try {
+            if (!hasTable(database)) {
+                return false;
+            }
+            String stored = readStoredValue(database);
+            return stored != null && stored.equals(createStoredValue(database, fingerprint));
+        } catch (DatabaseException e) {
+            LogFactory.getLogger().debug("Cannot read changelog fingerprint: " + e.getMessage());
+            try {
+                database.rollback();
+            } catch (DatabaseException ignore) {
+                //nothing to do
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Stores the fingerprint along with the current history size, creating the table if needed.  Call while holding the
+     * change log lock.
+     */
+    public static void store(Database database, String fingerprint) throws DatabaseException {
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (!hasTable(database)) {
+            executor.execute(new CreateTableStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database))
+                    .addPrimaryKeyColumn("CHANGELOGTABLE", DataTypeFactory.getInstance().fromDescription("VARCHAR(255)"), null, null, null, new NotNullConstraint())
+                    .addColumn("FINGERPRINT", DataTypeFactory.getInstance().fromDescription("VARCHAR(255)")));
+            database.commit();
+        }
+        String value = createStoredValue(database, fingerprint);
+        int updated = executor.update(new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database))
+                .addNewColumnValue("FINGERPRINT", value)
+                .setWhereClause(getWhereClause(database)));
+        if (updated == 0) {
+            executor.execute(new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database))
+                    .addColumnValue("CHANGELOGTABLE", database.getDatabaseChangeLogTableName())
+                    .addColumnValue("FINGERPRINT", value));
+        }
+        database.commit();
+    }
+
+    /**
+     * Removes a stored fingerprint so the next update runs completely.
+     */
+    public static void clear(Database database) throws DatabaseException {
+        if (!hasTable(database)) {
+            return;
+        }
+        ExecutorService.getInstance().getExecutor(database).execute(new DeleteStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database))
+                .setWhereClause(getWhereClause(database)));
+        database.commit();
+    }
+
+    public static String getTableName(Database database) {
+        return database.correctObjectName(TABLE_NAME, Table.class);
+    }
+
+    private static boolean hasTable(Database database) {
+        Schema schema = database.correctSchema(new Schema(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName()));
+        return DatabaseSnapshotGeneratorFactory.getInstance().getGenerator(database).hasTable(schema, getTableName(database), database);
+    }
+
+    private static String createStoredValue(Database database, String fingerprint) throws DatabaseException {
+        int historySize = ExecutorService.getInstance().getExecutor(database).queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM "
+                + database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())));
+        return PREFIX + fingerprint + ":" + historySize;
+    }
+
+    private static String readStoredValue(Database database) throws DatabaseException {
+        String table = database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database));
+        String fingerprintColumn = database.escapeColumnName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database), "FINGERPRINT");
+        List<Map> rows = ExecutorService.getInstance().getExecutor(database).queryForList(new RawSqlStatement("SELECT " + fingerprintColumn + " FROM " + table
+                + " WHERE " + getWhereClause(database)));
+        if (rows.size() != 1) {
+            return null;
+        }
+        Object value = rows.get(0).get("FINGERPRINT");
+        return value == null ? null : value.toString();
+    }
+
+    private static String getWhereClause(Database database) {
+        return database.escapeColumnName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database), "CHANGELOGTABLE")
+                + "='" + database.escapeStringForDatabase(database.getDatabaseChangeLogTableName()) + "'";
+    }
+}
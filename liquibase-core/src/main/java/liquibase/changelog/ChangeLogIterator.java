@@ -1,6 +1,7 @@
 package liquibase.changelog;
 
 import liquibase.changelog.filter.*;
+import liquibase.changelog.visitor.BufferingChangeSetVisitor;
 import liquibase.changelog.visitor.ChangeSetVisitor;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
@@ -44,19 +45,27 @@ public class ChangeLogIterator {
         }
 
         for (ChangeSet changeSet : changeSetList) {
-            boolean shouldVisit = true;
-            if (changeSetFilters != null) {
-                for (ChangeSetFilter filter : changeSetFilters) {
-                    if (!filter.accepts(changeSet)) {
-                        shouldVisit = false;
-                        break;
-                    }
-                }
+            if (shouldVisit(changeSet)) {
+                visitor.visit(changeSet, databaseChangeLog, database);
             }
+        }
+        if (visitor instanceof BufferingChangeSetVisitor) {
+            ((BufferingChangeSetVisitor) visitor).finish();
+        }
+    }
 
-            if (shouldVisit) {
-                visitor.visit(changeSet, databaseChangeLog, database);
+    protected boolean shouldVisit(ChangeSet changeSet) {
+        if (changeSetFilters != null) {
+            for (ChangeSetFilter filter : changeSetFilters) {
+                if (!filter.accepts(changeSet)) {
+                    return false;
+                }
             }
         }
+        return true;
+    }
+
+    protected DatabaseChangeLog getDatabaseChangeLog() {
+        return databaseChangeLog;
     }
 }
@@ -4,21 +4,44 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import liquibase.database.Database;
+import liquibase.util.MD5Util;
 import liquibase.util.StringUtils;
 
 public class ChangeLogParameters {
 
-    private List<ChangeLogParameter> changeLogParameters = new ArrayList<ChangeLogParameter>();
+    private List<ChangeLogParameter> changeLogParameters = new CopyOnWriteArrayList<ChangeLogParameter>();
     private ExpressionExpander expressionExpander;
     private Database currentDatabase;
     private List<String> currentContexts;
 
+    /**
+     * Every parameter name looked up while expanding expressions, with the value it expanded to.
+     */
+    private SortedSet<String> expandedParameters = new TreeSet<String>();
+    private String expandedParametersFingerprint;
+
+    /**
+     * Set for parameters created by {@link #createIncludedParameters()}: the parameters they were created from, and how
+     * many of those parameters were copied.
+     */
+    private ChangeLogParameters includingParameters;
+    private int includedAt;
+    private boolean merged;
+
+    /**
+     * How many parameters defined by included changelogs have been merged in by {@link #mergeIncludedParameters(ChangeLogParameters)}.
+     */
+    private int mergedCount;
+
     public ChangeLogParameters() {
-        this(null);
+        this((Database) null);
     }
 
     public ChangeLogParameters(Database currentDatabase) {
@@ -30,6 +53,39 @@ public class ChangeLogParameters {
         this.currentContexts = new ArrayList<String>();
     }
 
+    private ChangeLogParameters(ChangeLogParameters includingParameters) {
+        this.includingParameters = includingParameters;
+        this.includedAt = includingParameters.changeLogParameters.size();
+        this.changeLogParameters.addAll(includingParameters.changeLogParameters);
+        this.expressionExpander = new ExpressionExpander(this);
+        this.currentDatabase = includingParameters.currentDatabase;
+        this.currentContexts = includingParameters.currentContexts;
+    }
+
+    /**
+     * Returns parameters for parsing an included changelog concurrently with the rest of this changelog.  They start with
+     * the parameters defined so far and keep the ones the included changelog defines to themselves until they are passed
+     * to {@link #mergeIncludedParameters(ChangeLogParameters)}, so the values seen while parsing do not depend on which
+     * parse finishes first.
+     */
+    public ChangeLogParameters createIncludedParameters() {
+        return new ChangeLogParameters(this);
+    }
+
+    /**
+     * Adds the parameters defined by an included changelog as if it had been parsed in place, ahead of any parameter this
+     * changelog defined after the include.  Merge included parameters in include order.
+     */
+    public void mergeIncludedParameters(ChangeLogParameters includedParameters) {
+        if (includedParameters.includingParameters != this || includedParameters.merged) {
+            throw new IllegalArgumentException("Parameters were not created by createIncludedParameters() or were already merged");
+        }
+        List<ChangeLogParameter> defined = includedParameters.changeLogParameters.subList(includedParameters.includedAt, includedParameters.changeLogParameters.size());
+        changeLogParameters.addAll(includedParameters.includedAt + mergedCount, defined);
+        mergedCount += defined.size();
+        includedParameters.merged = true;
+    }
+
     public void addContext(String context) {
         this.currentContexts.add(context);
     }
@@ -62,6 +118,9 @@ public class ChangeLogParameters {
     }
 
     private ChangeLogParameter findParameter(String key) {
+        if (merged) {
+            return includingParameters.findParameter(key);
+        }
         for (ChangeLogParameter param : changeLogParameters) {
             if (param.getKey().equalsIgnoreCase(key) && param.isValid()) {
                 return param;
@@ -78,6 +137,35 @@ public class ChangeLogParameters {
         return expressionExpander.expandExpressions(string);
     }
 
+    /**
+     * Returns an md5-sum of the parameter names and values used by {@link #expandExpressions(String)} so far.  Text expanded
+     * with these parameters expands the same way as long as the fingerprint is the same, which lets cached checksums of
+     * parsed changelogs be reused.
+     */
+    public synchronized String getExpandedParametersFingerprint() {
+        if (includingParameters != null) {
+            return includingParameters.getExpandedParametersFingerprint();
+        }
+        if (expandedParametersFingerprint == null) {
+            StringBuilder value = new StringBuilder();
+            for (String parameter : expandedParameters) {
+                value.append(parameter).append("\n");
+            }
+            expandedParametersFingerprint = MD5Util.computeMD5(value.toString());
+        }
+        return expandedParametersFingerprint;
+    }
+
+    private synchronized void expanded(String key, Object value) {
+        if (includingParameters != null) {
+            includingParameters.expanded(key, value);
+            return;
+        }
+        if (expandedParameters.add(key + "=" + value)) {
+            expandedParametersFingerprint = null;
+        }
+    }
+
     private class ChangeLogParameter {
         private String key;
         private Object value;
@@ -162,6 +250,7 @@ public class ChangeLogParameters {
 
                 int dotIndex = valueTolookup.indexOf('.');
                 Object value = changeLogParameters.getValue(valueTolookup);
+                changeLogParameters.expanded(valueTolookup, value);
 
                 if (value != null) {
                     text = text.replace(expressionString, value.toString());
@@ -2,6 +2,8 @@ package liquibase.changelog;
 
 import liquibase.change.Change;
 import liquibase.change.CheckSum;
+import liquibase.change.CheckSumCache;
+import liquibase.change.ResourceChange;
 import liquibase.change.core.EmptyChange;
 import liquibase.change.core.RawSQLChange;
 import liquibase.database.Database;
@@ -20,6 +22,7 @@ import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Encapsulates a changeSet and all its associated changes.
@@ -84,6 +87,11 @@ public class ChangeSet implements Conditional {
      */
     private String filePath = "UNKNOWN CHANGE LOG";
 
+    /**
+     * Changelog this changeSet was parsed from, if known.  Used to look up checksums in the {@link CheckSumCache}.
+     */
+    private DatabaseChangeLog changeLog;
+
     private Logger log;
 
     /**
@@ -111,6 +119,11 @@ public class ChangeSet implements Conditional {
      */
     private Boolean failOnError;
 
+    /**
+     * Ids of earlier change sets that must have run before this one when change sets are executed in parallel
+     */
+    private Set<String> runAfter = new HashSet<String>();
+
     /**
      * List of checksums that are assumed to be valid besides the one stored in the database.  Can include the string "any"
      */
@@ -153,6 +166,24 @@ public class ChangeSet implements Conditional {
      */
     private List<SqlVisitor> sqlVisitors = new ArrayList<SqlVisitor>();
 
+    /**
+     * Checksum computed by the last call to generateCheckSum(), along with the changes and SqlVisitors it was computed from.
+     * Cleared when changes are added and ignored if the SqlVisitor list was modified (filters remove visitors that do not apply).
+     */
+    private CheckSum checkSum;
+    private int checkSumChangeCount;
+    private List<SqlVisitor> checkSumSqlVisitors;
+
+    /**
+     * Set by {@link #releaseChanges()}, after which {@link #checkSum} is final.
+     */
+    private boolean changesReleased;
+
+    /**
+     * Number of checksums actually computed (not served from the cache) by all ChangeSets in this JVM.
+     */
+    private static final AtomicLong checkSumComputationCount = new AtomicLong();
+
     public boolean shouldAlwaysRun() {
         return alwaysRun;
     }
@@ -194,7 +225,45 @@ public class ChangeSet implements Conditional {
         return filePath;
     }
 
+    public DatabaseChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public void setChangeLog(DatabaseChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Returns the checksum of this changeSet's changes and SqlVisitors.  The value is computed once and cached until a change
+     * or SqlVisitor is added or removed.  Code that modifies a Change already added to this changeSet must call
+     * {@link #clearCheckSumCache()} afterwards.
+     * <p>
+     * If the {@link CheckSumCache} is enabled and this changeSet was parsed from a changelog that has not changed since the
+     * checksum was stored, the stored value is returned.
+     */
     public CheckSum generateCheckSum() {
+        if (changesReleased) {
+            return checkSum;
+        }
+        if (checkSum != null && checkSumChangeCount == changes.size() && sqlVisitors.equals(checkSumSqlVisitors)) {
+            return checkSum;
+        }
+
+        CheckSumCache checkSumCache = CheckSumCache.getInstance();
+        String cacheKey = null;
+        if (checkSumCache.isEnabled()) {
+            cacheKey = getCheckSumCacheKey();
+        }
+        if (cacheKey != null) {
+            CheckSum cachedCheckSum = checkSumCache.get(changeLog.getPhysicalFilePath(), changeLog.getResourceFingerprint(), cacheKey);
+            if (cachedCheckSum != null) {
+                checkSum = cachedCheckSum;
+                checkSumChangeCount = changes.size();
+                checkSumSqlVisitors = new ArrayList<SqlVisitor>(sqlVisitors);
+                return checkSum;
+            }
+        }
+
         StringBuffer stringToMD5 = new StringBuffer();
         for (Change change : getChanges()) {
             stringToMD5.append(change.generateCheckSum()).append(":");
@@ -204,8 +273,81 @@ public class ChangeSet implements Conditional {
             stringToMD5.append(visitor.generateCheckSum()).append(";");
         }
 
+        checkSumComputationCount.incrementAndGet();
+        checkSum = CheckSum.compute(stringToMD5.toString());
+        checkSumChangeCount = changes.size();
+        checkSumSqlVisitors = new ArrayList<SqlVisitor>(sqlVisitors);
+        if (cacheKey != null) {
+            checkSumCache.put(changeLog.getPhysicalFilePath(), changeLog.getResourceFingerprint(), cacheKey, checkSum);
+        }
+        return checkSum;
+    }
+
+    /**
+     * Builds the {@link CheckSumCache} key from everything the checksum depends on besides the changelog file itself:
+     * the changeSet identity, the changelog parameters used while parsing, the fingerprints of files referenced by changes
+     * and the remaining SqlVisitors.  Returns null if the changeSet was not parsed from a fingerprinted changelog or a
+     * referenced file cannot be fingerprinted.
+     */
+    private String getCheckSumCacheKey() {
+        if (changeLog == null || changeLog.getResourceFingerprint() == null || changeLog.getChangeLogParameters() == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        key.append(CheckSum.getCurrentVersion()).append("::")
+                .append(filePath).append("::")
+                .append(id).append("::")
+                .append(author).append("::")
+                .append(dbmsSet == null ? "" : new TreeSet<String>(dbmsSet)).append("::")
+                .append(contexts == null ? "" : new TreeSet<String>(contexts)).append("::")
+                .append(changes.size()).append("::")
+                .append(changeLog.getChangeLogParameters().getExpandedParametersFingerprint());
+        for (Change change : changes) {
+            if (!(change instanceof ResourceChange)) {
+                continue;
+            }
+            String resourceFingerprint = ((ResourceChange) change).getResourceFingerprint();
+            if (resourceFingerprint == null) {
+                return null;
+            }
+            key.append("::").append(resourceFingerprint);
+        }
+        for (SqlVisitor visitor : sqlVisitors) {
+            key.append(";").append(visitor.generateCheckSum());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Forces the next call to {@link #generateCheckSum()} to recompute the checksum.  Adding changes and SqlVisitors does
+     * this already; it is needed after changing the properties of a change that was added, which the cache does not notice.
+     */
+    public void clearCheckSumCache() {
+        checkSum = null;
+        checkSumSqlVisitors = null;
+    }
+
+    /**
+     * Drops the changes, rollback changes and SqlVisitors of this changeSet to free memory, keeping its identity, attributes
+     * and checksum.  Used when streaming large changelogs; the changeSet cannot be executed or rolled back afterwards.
+     */
+    public void releaseChanges() {
+        generateCheckSum();
+        changesReleased = true;
+        changes = new ArrayList<Change>();
+        rollBackChanges = new ArrayList<Change>();
+        sqlVisitors = new ArrayList<SqlVisitor>();
+    }
 
-        return CheckSum.compute(stringToMD5.toString());
+    public boolean isChangesReleased() {
+        return changesReleased;
+    }
+
+    /**
+     * Returns how many changeSet checksums have been computed, rather than returned from the cache, in this JVM.  Useful to diagnose startup time.
+     */
+    public static long getCheckSumComputationCount() {
+        return checkSumComputationCount.get();
     }
 
     /**
@@ -215,9 +357,20 @@ public class ChangeSet implements Conditional {
      * @return should change set be marked as ran
      */
     public ExecType execute(DatabaseChangeLog databaseChangeLog, Database database) throws MigrationFailedException {
+        return execute(databaseChangeLog, database, true);
+    }
+
+    /**
+     * Executes the change set.  If commit is false, a change set that runs in a transaction leaves it open, so it can be
+     * committed together with the change sets that follow.  A failure still rolls back the whole transaction.
+     */
+    public ExecType execute(DatabaseChangeLog databaseChangeLog, Database database, boolean commit) throws MigrationFailedException {
         if (validationFailed) {
             return ExecType.MARK_RAN;
         }
+        if (changesReleased) {
+            throw new MigrationFailedException(this, "Cannot execute a change set after releaseChanges()");
+        }
 
         long startTime = new Date().getTime();
 
@@ -300,7 +453,9 @@ public class ChangeSet implements Conditional {
 
                 database.rollback();
             } finally {
-                database.rollback();
+                if (commit) { //otherwise the transaction holds the changes of earlier change sets
+                    database.rollback();
+                }
             }
 
             if (!skipChange) {
@@ -313,12 +468,11 @@ public class ChangeSet implements Conditional {
                 }
 
                 log.debug("Reading ChangeSet: " + toString());
-                for (Change change : getChanges()) {
-                    database.executeStatements(change, databaseChangeLog, sqlVisitors);
-                    log.debug(change.getConfirmationMessage());
+                if (getChanges().size() > 0) {
+                    database.executeStatements(getChanges(), databaseChangeLog, sqlVisitors, runInTransaction, commit);
                 }
 
-                if (runInTransaction) {
+                if (runInTransaction && commit) {
                     database.commit();
                 }
                 log.info("ChangeSet " + toString(false) + " ran successfully in " + (new Date().getTime() - startTime + "ms"));
@@ -413,6 +567,7 @@ public class ChangeSet implements Conditional {
     public void addChange(Change change) {
         changes.add(change);
         change.setChangeSet(this);
+        clearCheckSumCache();
     }
 
     public String getId() {
@@ -532,6 +687,14 @@ public class ChangeSet implements Conditional {
         this.failOnError = failOnError;
     }
 
+    public Set<String> getRunAfter() {
+        return runAfter;
+    }
+
+    public void setRunAfter(Set<String> runAfter) {
+        this.runAfter = runAfter;
+    }
+
     public ValidationFailOption getOnValidationFail() {
         return onValidationFail;
     }
@@ -540,6 +703,10 @@ public class ChangeSet implements Conditional {
         this.onValidationFail = onValidationFail;
     }
 
+    public boolean isValidationFailed() {
+        return validationFailed;
+    }
+
     public void setValidationFailed(boolean validationFailed) {
         this.validationFailed = validationFailed;
     }
@@ -581,6 +748,7 @@ public class ChangeSet implements Conditional {
 
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        clearCheckSumCache();
     }
 
     public List<SqlVisitor> getSqlVisitors() {
@@ -0,0 +1,119 @@
+package liquibase.changelog;
+
+import liquibase.change.CheckSum;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.AbstractExecutor;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.PreparedUpdateStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the current checksums of change sets whose MD5SUM in the change log table is null or out of date.  The
+ * checksums are computed on liquibase.checkSumRepair.threads threads, by default one per processor, and written as
+ * batched updates with the values bound as parameters.
+ */
+public class ChangeSetCheckSumRepair {
+
+    public static final String THREADS_SYSTEM_PROPERTY = "liquibase.checkSumRepair.threads";
+
+    private Database database;
+
+    public ChangeSetCheckSumRepair(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Updates the MD5SUM of the given change sets.  Does not commit.
+     */
+    public void repair(List<ChangeSet> changeSets) throws DatabaseException {
+        if (changeSets.size() == 0) {
+            return;
+        }
+        List<CheckSum> checkSums = computeCheckSums(changeSets);
+
+        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        for (int i = 0; i < changeSets.size(); i++) {
+            statements.add(createStatement(changeSets.get(i), checkSums.get(i), database));
+        }
+        AbstractExecutor.executeBatch(ExecutorService.getInstance().getExecutor(database), statements, new ArrayList<SqlVisitor>());
+        LogFactory.getLogger().info("Updated null or out of date checksums of " + changeSets.size() + " change sets");
+    }
+
+    /**
+     * Returns the statement that sets the MD5SUM of the change set to the given checksum.
+     */
+    public static SqlStatement createStatement(ChangeSet changeSet, CheckSum checkSum, Database database) {
+        return new PreparedUpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
+                .addNewColumnValue("MD5SUM", checkSum.toString())
+                .setWhereClause("ID=? AND AUTHOR=? AND FILENAME=?")
+                .addWhereParameters(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
+    }
+
+    private List<CheckSum> computeCheckSums(List<ChangeSet> changeSets) {
+        List<CheckSum> checkSums = new ArrayList<CheckSum>();
+        int threads = Math.min(getThreads(), changeSets.size());
+        if (threads <= 1) {
+            for (ChangeSet changeSet : changeSets) {
+                checkSums.add(changeSet.generateCheckSum());
+            }
+            return checkSums;
+        }
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        java.util.concurrent.ExecutorService threadPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-checksum-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<CheckSum>> futures = new ArrayList<Future<CheckSum>>();
+            for (final ChangeSet changeSet : changeSets) {
+                futures.add(threadPool.submit(new Callable<CheckSum>() {
+                    public CheckSum call() {
+                        return changeSet.generateCheckSum();
+                    }
+                }));
+            }
+            for (Future<CheckSum> future : futures) {
+                checkSums.add(future.get());
+            }
+            return checkSums;
+        } catch (InterruptedException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UnexpectedLiquibaseException(e.getCause());
+        } finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    private int getThreads() {
+        String threads = System.getProperty(THREADS_SYSTEM_PROPERTY);
+        if (threads == null) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            return Integer.parseInt(threads.trim());
+        } catch (NumberFormatException e) {
+            throw new UnexpectedLiquibaseException("Invalid value for " + THREADS_SYSTEM_PROPERTY + ": " + threads);
+        }
+    }
+}
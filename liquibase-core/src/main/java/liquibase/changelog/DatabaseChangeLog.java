@@ -10,8 +10,12 @@ import liquibase.logging.LogFactory;
 import liquibase.precondition.Conditional;
 import liquibase.precondition.core.PreconditionContainer;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
 /**
  * Encapsulates the information stored in the change log XML file.
@@ -21,8 +25,11 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     private String physicalFilePath;
     private String logicalFilePath;
 
-    private List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+    private List<ChangeSet> changeSets = new ChangeSetList();
+    private Map<String, List<ChangeSet>> changeSetIndex = new HashMap<String, List<ChangeSet>>();
+    private boolean changeSetIndexValid = true;
     private ChangeLogParameters changeLogParameters;
+    private String resourceFingerprint;
 
     public DatabaseChangeLog() {
     }
@@ -56,6 +63,18 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         this.physicalFilePath = physicalFilePath;
     }
 
+    /**
+     * Fingerprint of the changelog file taken before it was parsed, see {@link liquibase.change.CheckSumCache#getResourceFingerprint(liquibase.resource.ResourceAccessor, String)}.
+     * Null if the checksum cache is not used.
+     */
+    public String getResourceFingerprint() {
+        return resourceFingerprint;
+    }
+
+    public void setResourceFingerprint(String resourceFingerprint) {
+        this.resourceFingerprint = resourceFingerprint;
+    }
+
     public String getLogicalFilePath() {
         String returnPath = logicalFilePath;
         if (logicalFilePath == null) {
@@ -87,7 +106,17 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
 
     public ChangeSet getChangeSet(String path, String author, String id) {
-        for (ChangeSet changeSet : changeSets) {
+        List<ChangeSet> allChangeSets = getChangeSets();
+        List<ChangeSet> candidates;
+        if (allChangeSets == changeSets) {
+            candidates = getChangeSetIndex().get(RanChangeSetList.createKey(path, author, id));
+        } else {
+            candidates = allChangeSets; //subclass supplies its own list, which is not indexed
+        }
+        if (candidates == null) {
+            return null;
+        }
+        for (ChangeSet changeSet : candidates) {
             if (changeSet.getFilePath().equalsIgnoreCase(path)
                     && changeSet.getAuthor().equalsIgnoreCase(author)
                     && changeSet.getId().equalsIgnoreCase(id)
@@ -109,6 +138,71 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         this.changeSets.add(changeSet);
     }
 
+    /**
+     * Returns the (path, author, id) index of the change sets.  Appends are indexed as they happen, any other change to
+     * the list causes the index to be rebuilt on the next lookup.
+     */
+    private Map<String, List<ChangeSet>> getChangeSetIndex() {
+        if (!changeSetIndexValid) {
+            changeSetIndex.clear();
+            for (ChangeSet changeSet : changeSets) {
+                addToIndex(changeSet);
+            }
+            changeSetIndexValid = true;
+        }
+        return changeSetIndex;
+    }
+
+    private void addToIndex(ChangeSet changeSet) {
+        String key = RanChangeSetList.createKey(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId());
+        List<ChangeSet> bucket = changeSetIndex.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<ChangeSet>(1);
+            changeSetIndex.put(key, bucket);
+        }
+        bucket.add(changeSet);
+    }
+
+    /**
+     * Change set list that keeps the index in sync when it is modified through {@link #getChangeSets()}.
+     */
+    private class ChangeSetList extends AbstractList<ChangeSet> implements RandomAccess {
+
+        private List<ChangeSet> list = new ArrayList<ChangeSet>();
+
+        @Override
+        public ChangeSet get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public void add(int position, ChangeSet changeSet) {
+            list.add(position, changeSet);
+            if (changeSetIndexValid && position == list.size() - 1) {
+                addToIndex(changeSet);
+            } else {
+                changeSetIndexValid = false;
+            }
+        }
+
+        @Override
+        public ChangeSet set(int position, ChangeSet changeSet) {
+            changeSetIndexValid = false;
+            return list.set(position, changeSet);
+        }
+
+        @Override
+        public ChangeSet remove(int position) {
+            changeSetIndexValid = false;
+            return list.remove(position);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,429 @@
+package liquibase.changelog;
+
+import liquibase.change.Change;
+import liquibase.changelog.filter.ChangeSetFilter;
+import liquibase.changelog.visitor.BufferingChangeSetVisitor;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.database.structure.Column;
+import liquibase.database.structure.DatabaseObject;
+import liquibase.database.structure.Schema;
+import liquibase.database.structure.Table;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.ParallelLoadDataExecutor;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.logging.LogFactory;
+import liquibase.logging.Logger;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Visits change sets that do not depend on each other at the same time, each on its own connection opened with the
+ * {@link liquibase.database.jvm.JdbcConnectionFactory} of the connection of the database.  The number of extra
+ * connections is set with the liquibase.update.parallel system property; when it is not set, or the visitor is not an
+ * {@link UpdateVisitor}, the change sets are visited one after another like {@link ChangeLogIterator} does.
+ * <p>
+ * A change set depends on an earlier one if both affect the same table (see
+ * {@link liquibase.sqlgenerator.SqlGeneratorFactory#getAffectedDatabaseObjects}) or tables with foreign keys between
+ * them, or if it lists the id of the earlier one in its runAfter attribute.  Change sets with preconditions, or with
+ * changes whose affected tables are not known, such as sql changes, are barriers: they run alone on the database of the update once all earlier change sets have
+ * run, and all later change sets wait for them.  A change set is only started once the change sets it depends on have
+ * been visited, so the order the visitor records them in is always a valid order to run the change log in.
+ */
+public class ParallelChangeLogIterator extends ChangeLogIterator {
+
+    public static final String PARALLEL_SYSTEM_PROPERTY = "liquibase.update.parallel";
+
+    private Logger log = LogFactory.getLogger();
+
+    public ParallelChangeLogIterator(DatabaseChangeLog databaseChangeLog, ChangeSetFilter... changeSetFilters) {
+        super(databaseChangeLog, changeSetFilters);
+    }
+
+    /**
+     * Returns the number of extra connections to use, or 0 if parallel updates are disabled or not possible with this
+     * database.
+     */
+    public static int getConnections(Database database) {
+        int connections;
+        try {
+            connections = Integer.parseInt(System.getProperty(PARALLEL_SYSTEM_PROPERTY, "0").trim());
+        } catch (NumberFormatException e) {
+            throw new UnexpectedLiquibaseException("Invalid value for " + PARALLEL_SYSTEM_PROPERTY + ": " + System.getProperty(PARALLEL_SYSTEM_PROPERTY));
+        }
+        if (connections <= 0) {
+            return 0;
+        }
+        if (!(ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor)
+                || !(database.getConnection() instanceof JdbcConnection)
+                || ((JdbcConnection) database.getConnection()).getConnectionFactory() == null) {
+            return 0;
+        }
+        return connections;
+    }
+
+    @Override
+    public void run(ChangeSetVisitor visitor, Database database) throws LiquibaseException {
+        int connections = getConnections(database);
+        if (connections == 0 || !(visitor instanceof UpdateVisitor)) {
+            super.run(visitor, database);
+            return;
+        }
+
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        for (ChangeSet changeSet : getDatabaseChangeLog().getChangeSets()) {
+            if (shouldVisit(changeSet)) {
+                changeSets.add(changeSet);
+            }
+        }
+        List<Set<String>> affectedTables = new ArrayList<Set<String>>();
+        for (ChangeSet changeSet : changeSets) {
+            affectedTables.add(getAffectedTables(changeSet, database));
+        }
+        affectedTables = groupRelatedTables(affectedTables, database);
+
+        new Scheduler(changeSets, affectedTables, visitor, database, connections).run();
+        if (visitor instanceof BufferingChangeSetVisitor) {
+            ((BufferingChangeSetVisitor) visitor).finish();
+        }
+    }
+
+    /**
+     * Returns the lower case names of the tables the change set affects, or null if it has to run alone.  Tables are
+     * compared by name only, so tables of the same name in different schemas are treated as one.
+     */
+    static Set<String> getAffectedTables(ChangeSet changeSet, Database database) {
+        if (changeSet.getPreconditions() != null || changeSet.getChanges().size() == 0) {
+            return null;
+        }
+        Set<String> tables = new HashSet<String>();
+        for (Change change : changeSet.getChanges()) {
+            Set<DatabaseObject> affectedObjects;
+            try {
+                affectedObjects = change.getAffectedDatabaseObjects(database);
+            } catch (Exception e) {
+                LogFactory.getLogger().debug("Cannot determine the objects affected by " + changeSet + ": " + e.getMessage());
+                return null;
+            }
+            int changeTables = 0;
+            for (DatabaseObject object : affectedObjects) {
+                if (object instanceof Table) {
+                    tables.add(object.getName().toLowerCase());
+                    changeTables++;
+                } else if (!(object instanceof Schema) && !(object instanceof Column)) {
+                    return null;
+                }
+            }
+            if (changeTables == 0) {
+                return null;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Replaces each table with the first table of the group it belongs to: the tables affected by one change set, and
+     * tables with foreign keys between them, belong to the same group.  Without that, rows referencing another table
+     * could be inserted before the rows they reference are committed.
+     */
+    static List<Set<String>> groupRelatedTables(List<Set<String>> affectedTables, Database database) throws DatabaseException {
+        Map<String, String> groups = new HashMap<String, String>();
+        for (Set<String> tables : affectedTables) {
+            if (tables == null) {
+                continue;
+            }
+            String first = null;
+            for (String table : tables) {
+                if (first == null) {
+                    first = table;
+                    findGroup(groups, table);
+                } else {
+                    joinGroups(groups, first, table);
+                }
+            }
+        }
+        for (String table : new ArrayList<String>(groups.keySet())) {
+            for (String referencedTable : getReferencedTables(table, database)) {
+                if (groups.containsKey(referencedTable)) {
+                    joinGroups(groups, table, referencedTable);
+                }
+            }
+        }
+
+        List<Set<String>> groupedTables = new ArrayList<Set<String>>();
+        for (Set<String> tables : affectedTables) {
+            if (tables == null) {
+                groupedTables.add(null);
+                continue;
+            }
+            Set<String> tableGroups = new HashSet<String>();
+            for (String table : tables) {
+                tableGroups.add(findGroup(groups, table));
+            }
+            groupedTables.add(tableGroups);
+        }
+        return groupedTables;
+    }
+
+    private static String findGroup(Map<String, String> groups, String table) {
+        String group = groups.get(table);
+        if (group == null) {
+            groups.put(table, table);
+            return table;
+        }
+        if (!group.equals(table)) {
+            group = findGroup(groups, group);
+            groups.put(table, group);
+        }
+        return group;
+    }
+
+    private static void joinGroups(Map<String, String> groups, String table, String otherTable) {
+        String group = findGroup(groups, table);
+        String otherGroup = findGroup(groups, otherTable);
+        if (!group.equals(otherGroup)) {
+            groups.put(otherGroup, group);
+        }
+    }
+
+    /**
+     * Returns the lower case names of the tables that existing foreign keys of the given table reference.
+     */
+    private static Set<String> getReferencedTables(String table, Database database) throws DatabaseException {
+        Set<String> referencedTables = new HashSet<String>();
+        ResultSet resultSet = null;
+        try {
+            DatabaseMetaData metaData = ((JdbcConnection) database.getConnection()).getMetaData();
+            resultSet = metaData.getImportedKeys(null, null, database.correctObjectName(table, Table.class));
+            while (resultSet.next()) {
+                referencedTables.add(resultSet.getString("PKTABLE_NAME").toLowerCase());
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            if (resultSet != null) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    //nothing to do
+                }
+            }
+        }
+        return referencedTables;
+    }
+
+    /**
+     * Returns true if the change set at the given index has to wait for the earlier one.
+     */
+    static boolean dependsOn(List<ChangeSet> changeSets, List<Set<String>> affectedTables, int index, int earlierIndex) {
+        Set<String> tables = affectedTables.get(index);
+        Set<String> earlierTables = affectedTables.get(earlierIndex);
+        if (tables == null || earlierTables == null) {
+            return true;
+        }
+        ChangeSet changeSet = changeSets.get(index);
+        if (changeSet.getRunAfter() != null && changeSet.getRunAfter().contains(changeSets.get(earlierIndex).getId())) {
+            return true;
+        }
+        for (String table : tables) {
+            if (earlierTables.contains(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class Scheduler {
+        private List<ChangeSet> changeSets;
+        private List<Set<String>> affectedTables;
+        private ChangeSetVisitor visitor;
+        private Database database;
+        private int connections;
+
+        private boolean[] started;
+        private boolean[] visited;
+        private LinkedList<Database> idleDatabases = new LinkedList<Database>();
+        private List<Database> workerDatabases = new ArrayList<Database>();
+        private BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+        private int running;
+        private java.util.concurrent.ExecutorService threadPool;
+
+        private Scheduler(List<ChangeSet> changeSets, List<Set<String>> affectedTables, ChangeSetVisitor visitor, Database database, int connections) {
+            this.changeSets = changeSets;
+            this.affectedTables = affectedTables;
+            this.visitor = visitor;
+            this.database = database;
+            this.connections = connections;
+            this.started = new boolean[changeSets.size()];
+            this.visited = new boolean[changeSets.size()];
+        }
+
+        public void run() throws LiquibaseException {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            threadPool = Executors.newFixedThreadPool(connections, new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "liquibase-update-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            Throwable failure = null;
+            try {
+                int visitedCount = 0;
+                while (visitedCount < changeSets.size()) {
+                    if (failure == null) {
+                        visitedCount += startReadyChangeSets();
+                    }
+                    if (running == 0) {
+                        break;
+                    }
+
+                    Object result = results.take();
+                    running--;
+                    if (result instanceof Integer) {
+                        visited[(Integer) result] = true;
+                        visitedCount++;
+                    } else if (failure == null) {
+                        failure = (Throwable) result;
+                    }
+                }
+            } catch (InterruptedException e) {
+                throw new UnexpectedLiquibaseException(e);
+            } finally {
+                stopWorkers();
+                close();
+            }
+
+            if (failure != null) {
+                if (failure instanceof LiquibaseException) {
+                    throw (LiquibaseException) failure;
+                } else if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                }
+                throw new UnexpectedLiquibaseException(failure);
+            }
+        }
+
+        /**
+         * Starts the change sets whose dependencies have all been visited on idle connections, and visits the barriers
+         * on this thread.  Returns the number of change sets visited on this thread.
+         */
+        private int startReadyChangeSets() throws LiquibaseException {
+            int visitedCount = 0;
+            for (int i = 0; i < changeSets.size(); i++) {
+                if (started[i] || !isReady(i)) {
+                    continue;
+                }
+                if (affectedTables.get(i) == null) {
+                    if (running > 0) {
+                        return visitedCount;
+                    }
+                    started[i] = true;
+                    visitor.visit(changeSets.get(i), getDatabaseChangeLog(), database);
+                    visited[i] = true;
+                    visitedCount++;
+                    i = -1; //later change sets may be ready now
+                    continue;
+                }
+                Database workerDatabase = getIdleDatabase();
+                if (workerDatabase == null) {
+                    return visitedCount;
+                }
+                started[i] = true;
+                start(i, workerDatabase);
+            }
+            return visitedCount;
+        }
+
+        private boolean isReady(int index) {
+            for (int i = 0; i < index; i++) {
+                if (!visited[i] && dependsOn(changeSets, affectedTables, index, i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void start(final int index, final Database workerDatabase) {
+            running++;
+            threadPool.execute(new Runnable() {
+                public void run() {
+                    try {
+                        visitor.visit(changeSets.get(index), getDatabaseChangeLog(), workerDatabase);
+                        synchronized (idleDatabases) {
+                            idleDatabases.add(workerDatabase);
+                        }
+                        results.add(index);
+                    } catch (Throwable e) {
+                        results.add(e);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Interrupts the change sets that are still running, which only happens if this thread was interrupted, and waits
+         * for them to finish so their connections can be closed.
+         */
+        private void stopWorkers() {
+            threadPool.shutdownNow();
+            boolean interrupted = false;
+            while (!threadPool.isTerminated()) {
+                try {
+                    threadPool.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Database getIdleDatabase() throws DatabaseException {
+            synchronized (idleDatabases) {
+                if (idleDatabases.size() > 0) {
+                    return idleDatabases.removeFirst();
+                }
+            }
+            if (workerDatabases.size() >= connections) {
+                return null;
+            }
+            Database workerDatabase = ParallelLoadDataExecutor.openDatabase(database);
+            workerDatabases.add(workerDatabase);
+            return workerDatabase;
+        }
+
+        private void close() {
+            for (Database workerDatabase : workerDatabases) {
+                try {
+                    workerDatabase.close();
+                } catch (DatabaseException e) {
+                    log.warning("Error closing connection: " + e.getMessage());
+                } finally {
+                    ExecutorService.getInstance().clearExecutor(workerDatabase);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package liquibase.changelog;
+
+import java.util.*;
+
+/**
+ * Ordered list of {@link RanChangeSet}s that also maintains a hash index keyed by filename/author/id so that
+ * the run status of a change set can be found without scanning the whole history.
+ * <p>
+ * Iteration order is the order entries were added, which matches the DATEEXECUTED/ORDEREXECUTED order the history is
+ * read in and is what rollback relies on.  Keys are normalized (case-insensitive, '\' treated as '/') so each lookup
+ * returns the small set of candidates that callers then compare with their own matching rules.
+ */
+public class RanChangeSetList extends AbstractList<RanChangeSet> implements RandomAccess {
+
+    private List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+    private Map<String, List<RanChangeSet>> index = new HashMap<String, List<RanChangeSet>>();
+
+    public RanChangeSetList() {
+    }
+
+    public RanChangeSetList(Collection<RanChangeSet> ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            add(ranChangeSet);
+        }
+    }
+
+    /**
+     * Returns the passed list if it is already indexed, otherwise an indexed copy of it.
+     */
+    public static RanChangeSetList toIndexedList(List<RanChangeSet> ranChangeSets) {
+        if (ranChangeSets instanceof RanChangeSetList) {
+            return (RanChangeSetList) ranChangeSets;
+        }
+        if (ranChangeSets == null) {
+            return new RanChangeSetList();
+        }
+        return new RanChangeSetList(ranChangeSets);
+    }
+
+    @Override
+    public RanChangeSet get(int index) {
+        return ranChangeSets.get(index);
+    }
+
+    @Override
+    public int size() {
+        return ranChangeSets.size();
+    }
+
+    @Override
+    public void add(int position, RanChangeSet ranChangeSet) {
+        ranChangeSets.add(position, ranChangeSet);
+        if (position == ranChangeSets.size() - 1) {
+            addToIndex(ranChangeSet);
+        } else {
+            rebuildIndex(ranChangeSet);
+        }
+    }
+
+    @Override
+    public RanChangeSet set(int position, RanChangeSet ranChangeSet) {
+        RanChangeSet old = ranChangeSets.set(position, ranChangeSet);
+        rebuildIndex(old);
+        rebuildIndex(ranChangeSet);
+        return old;
+    }
+
+    @Override
+    public RanChangeSet remove(int position) {
+        RanChangeSet removed = ranChangeSets.remove(position);
+        List<RanChangeSet> bucket = index.get(key(removed));
+        if (bucket != null) {
+            for (Iterator<RanChangeSet> iterator = bucket.iterator(); iterator.hasNext();) {
+                if (iterator.next() == removed) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            if (bucket.isEmpty()) {
+                index.remove(key(removed));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the entry equal to the given object, using the index to avoid scanning when it is not present.
+     * The list is searched from the end since the most recently ran change sets are the ones usually removed.
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof RanChangeSet)) {
+            return false;
+        }
+        RanChangeSet ranChangeSet = (RanChangeSet) o;
+        RanChangeSet toRemove = null;
+        for (RanChangeSet candidate : getCandidates(ranChangeSet.getChangeLog(), ranChangeSet.getAuthor(), ranChangeSet.getId())) {
+            if (candidate.equals(ranChangeSet)) {
+                toRemove = candidate;
+                break;
+            }
+        }
+        if (toRemove == null) {
+            return false;
+        }
+        for (int i = ranChangeSets.size() - 1; i >= 0; i--) {
+            if (ranChangeSets.get(i) == toRemove) {
+                remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        ranChangeSets.clear();
+        index.clear();
+    }
+
+    /**
+     * Returns the entries whose filename, author and id match the given values ignoring case and path separator
+     * differences, in history order.  Never returns null.
+     */
+    public List<RanChangeSet> getCandidates(String changeLog, String author, String id) {
+        List<RanChangeSet> bucket = index.get(key(changeLog, author, id));
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(bucket);
+    }
+
+    /**
+     * Returns the first ran change set that {@link RanChangeSet#isSameAs(ChangeSet)} the given change set, or null if it has not been ran.
+     */
+    public RanChangeSet getRanChangeSet(ChangeSet changeSet) {
+        for (RanChangeSet ranChangeSet : getCandidates(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId())) {
+            if (ranChangeSet.isSameAs(changeSet)) {
+                return ranChangeSet;
+            }
+        }
+        return null;
+    }
+
+    private void addToIndex(RanChangeSet ranChangeSet) {
+        String key = key(ranChangeSet);
+        List<RanChangeSet> bucket = index.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<RanChangeSet>(1);
+            index.put(key, bucket);
+        }
+        bucket.add(ranChangeSet);
+    }
+
+    /**
+     * Recomputes the bucket for the given entry's key so it stays in list order after an insert or replace in the middle of the list.
+     */
+    private void rebuildIndex(RanChangeSet ranChangeSet) {
+        String key = key(ranChangeSet);
+        List<RanChangeSet> bucket = new ArrayList<RanChangeSet>(1);
+        for (RanChangeSet existing : ranChangeSets) {
+            if (key(existing).equals(key)) {
+                bucket.add(existing);
+            }
+        }
+        if (bucket.isEmpty()) {
+            index.remove(key);
+        } else {
+            index.put(key, bucket);
+        }
+    }
+
+    private String key(RanChangeSet ranChangeSet) {
+        return key(ranChangeSet.getChangeLog(), ranChangeSet.getAuthor(), ranChangeSet.getId());
+    }
+
+    private String key(String changeLog, String author, String id) {
+        return createKey(changeLog, author, id);
+    }
+
+    /**
+     * Builds the normalized lookup key for a filename/author/id triple.  Shared with {@link DatabaseChangeLog} so both
+     * sides of a history-to-changelog match fold values the same way.
+     */
+    static String createKey(String changeLog, String author, String id) {
+        return normalize(changeLog).replace('\\', '/') + "::" + normalize(author) + "::" + normalize(id);
+    }
+
+    /**
+     * Folds case the same way {@link String#equalsIgnoreCase(String)} compares characters, independent of the default locale.
+     */
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,98 @@
+package liquibase.changelog;
+
+import liquibase.change.CheckSum;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.jvm.RowCallbackHandler;
+import liquibase.logging.LogFactory;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the rows of the change log table into {@link RanChangeSet}s as they are fetched, without collecting them as maps
+ * first.  The columns are read by index, so the query must select {@link #COLUMNS} in that order.  File names and
+ * authors repeat on most rows, so each distinct value is only kept once.  The driver is asked to fetch
+ * liquibase.changeLogHistory.fetchSize rows at a time, 1000 by default.
+ */
+public class RanChangeSetReader implements RowCallbackHandler {
+
+    public static final String FETCH_SIZE_SYSTEM_PROPERTY = "liquibase.changeLogHistory.fetchSize";
+
+    public static final String[] COLUMNS = {"FILENAME", "AUTHOR", "ID", "MD5SUM", "DATEEXECUTED", "ORDEREXECUTED", "TAG", "EXECTYPE", "DESCRIPTION"};
+
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private List<RanChangeSet> ranChangeSets;
+
+    private Map<String, String> values = new HashMap<String, String>();
+    private DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    public RanChangeSetReader(List<RanChangeSet> ranChangeSets) {
+        this.ranChangeSets = ranChangeSets;
+    }
+
+    public static int getFetchSize() {
+        try {
+            return Integer.parseInt(System.getProperty(FETCH_SIZE_SYSTEM_PROPERTY, String.valueOf(DEFAULT_FETCH_SIZE)).trim());
+        } catch (NumberFormatException e) {
+            throw new UnexpectedLiquibaseException("Invalid value for " + FETCH_SIZE_SYSTEM_PROPERTY + ": " + System.getProperty(FETCH_SIZE_SYSTEM_PROPERTY));
+        }
+    }
+
+    public void processRow(ResultSet rs) throws SQLException {
+        add(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getObject(5), rs.getString(7), rs.getString(8), rs.getString(9));
+    }
+
+    /**
+     * Reads a row returned by {@link liquibase.executor.Executor#queryForList(liquibase.statement.SqlStatement)}, for
+     * executors that do not work on a JDBC connection.
+     */
+    public void mapRow(Map row) {
+        add(getString(row, "FILENAME"), getString(row, "AUTHOR"), getString(row, "ID"), getString(row, "MD5SUM"), row.get("DATEEXECUTED"),
+                getString(row, "TAG"), getString(row, "EXECTYPE"), getString(row, "DESCRIPTION"));
+    }
+
+    private void add(String fileName, String author, String id, String md5sum, Object dateExecuted, String tag, String execType, String description) {
+        try {
+            ranChangeSets.add(new RanChangeSet(share(fileName), id, share(author), CheckSum.parse(md5sum), getDate(dateExecuted), tag, ChangeSet.ExecType.valueOf(execType), description));
+        } catch (IllegalArgumentException e) {
+            LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
+            throw e;
+        }
+    }
+
+    private String getString(Map row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : value.toString();
+    }
+
+    private String share(String value) {
+        if (value == null) {
+            return null;
+        }
+        String sharedValue = values.get(value);
+        if (sharedValue == null) {
+            values.put(value, value);
+            return value;
+        }
+        return sharedValue;
+    }
+
+    private Date getDate(Object value) {
+        if (value == null || value instanceof Date) {
+            return (Date) value;
+        }
+        try {
+            return dateFormat.parse(value.toString());
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package liquibase.changelog;
+
+import liquibase.changelog.filter.ChangeSetFilter;
+import liquibase.changelog.filter.ContextChangeSetFilter;
+import liquibase.changelog.filter.DbmsChangeSetFilter;
+import liquibase.changelog.visitor.BufferingChangeSetVisitor;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.changelog.visitor.ValidatingVisitor;
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.ValidationFailedException;
+import liquibase.logging.LogFactory;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.StreamingChangeLogParser;
+import liquibase.resource.ResourceAccessor;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counterpart of {@link ChangeLogIterator} that parses the changelog while iterating instead of working on a parsed
+ * {@link DatabaseChangeLog}.  Each change set is visited as soon as it is parsed and only its identity, attributes and
+ * checksum are kept afterwards, so the memory needed does not grow with the size of the changes in the changelog.
+ * <p>
+ * Every iteration parses the changelog again.  Only forward visitors are supported.
+ */
+public class StreamingChangeLogIterator {
+    private String changeLogFile;
+    private ChangeLogParameters changeLogParameters;
+    private ResourceAccessor resourceAccessor;
+    private List<ChangeSetFilter> changeSetFilters;
+
+    public StreamingChangeLogIterator(String changeLogFile, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor, ChangeSetFilter... changeSetFilters) {
+        this.changeLogFile = changeLogFile;
+        this.changeLogParameters = changeLogParameters;
+        this.resourceAccessor = resourceAccessor;
+        this.changeSetFilters = Arrays.asList(changeSetFilters);
+    }
+
+    /**
+     * Passes the change sets accepted by all filters to the visitor and returns the changelog with all change sets
+     * released, see {@link ChangeSet#releaseChanges()}.
+     */
+    public DatabaseChangeLog run(final ChangeSetVisitor visitor, Database database) throws LiquibaseException {
+        if (visitor.getDirection().equals(ChangeSetVisitor.Direction.REVERSE)) {
+            throw new LiquibaseException("Cannot stream change sets in reverse order");
+        }
+
+        ChangeSetVisitor filteringVisitor = new ChangeSetVisitor() {
+            public Direction getDirection() {
+                return visitor.getDirection();
+            }
+
+            public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
+                for (ChangeSetFilter filter : changeSetFilters) {
+                    if (!filter.accepts(changeSet)) {
+                        return;
+                    }
+                }
+                visitor.visit(changeSet, databaseChangeLog, database);
+            }
+        };
+
+        ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor);
+        DatabaseChangeLog changeLog;
+        if (parser instanceof StreamingChangeLogParser) {
+            changeLog = ((StreamingChangeLogParser) parser).parse(changeLogFile, changeLogParameters, resourceAccessor, filteringVisitor, database);
+        } else {
+            changeLog = parser.parse(changeLogFile, changeLogParameters, resourceAccessor);
+            for (ChangeSet changeSet : changeLog.getChangeSets()) {
+                filteringVisitor.visit(changeSet, changeLog, database);
+                changeSet.releaseChanges();
+            }
+        }
+        if (visitor instanceof BufferingChangeSetVisitor) {
+            ((BufferingChangeSetVisitor) visitor).finish();
+        }
+        return changeLog;
+    }
+
+    /**
+     * Streaming equivalent of {@link DatabaseChangeLog#validate(Database, String...)}, ignoring the filters of this
+     * iterator.  Returns the released changelog, in which change sets that should be marked as ran because of
+     * validation errors are flagged with {@link ChangeSet#isValidationFailed()}.
+     */
+    public DatabaseChangeLog validate(Database database, String... contexts) throws LiquibaseException {
+        ValidatingVisitor validatingVisitor = new ValidatingVisitor(database.getRanChangeSetList());
+        DatabaseChangeLog changeLog = new StreamingChangeLogIterator(changeLogFile, changeLogParameters, resourceAccessor,
+                new DbmsChangeSetFilter(database), new ContextChangeSetFilter(contexts)).run(validatingVisitor, database);
+        validatingVisitor.validate(database, changeLog);
+
+        for (String message : validatingVisitor.getWarnings().getMessages()) {
+            LogFactory.getLogger().warning(message);
+        }
+        if (!validatingVisitor.validationPassed()) {
+            throw new ValidationFailedException(validatingVisitor);
+        }
+        return changeLog;
+    }
+}
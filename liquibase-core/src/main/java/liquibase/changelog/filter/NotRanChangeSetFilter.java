@@ -2,6 +2,7 @@ package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetList;
 
 import java.util.List;
 
@@ -10,12 +11,12 @@ public class NotRanChangeSetFilter implements ChangeSetFilter {
     public List<RanChangeSet> ranChangeSets;
 
     public NotRanChangeSetFilter(List<RanChangeSet> ranChangeSets) {
-        this.ranChangeSets = ranChangeSets;
+        this.ranChangeSets = RanChangeSetList.toIndexedList(ranChangeSets);
     }
 
     @SuppressWarnings({"RedundantIfStatement"})
     public boolean accepts(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ((RanChangeSetList) ranChangeSets).getCandidates(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId())) {
             if (ranChangeSet.getId().equalsIgnoreCase(changeSet.getId())
                     && ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor())
                     && ranChangeSet.getChangeLog().equalsIgnoreCase(changeSet.getFilePath())) {
@@ -2,6 +2,7 @@ package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetList;
 
 import java.util.List;
 
@@ -9,11 +10,11 @@ public abstract class RanChangeSetFilter implements ChangeSetFilter {
     public List<RanChangeSet> ranChangeSets;
 
     public RanChangeSetFilter(List<RanChangeSet> ranChangeSets) {
-        this.ranChangeSets = ranChangeSets;
+        this.ranChangeSets = RanChangeSetList.toIndexedList(ranChangeSets);
     }
 
     public RanChangeSet getRanChangeSet(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ((RanChangeSetList) ranChangeSets).getCandidates(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId())) {
             if (ranChangeSet.getId().equalsIgnoreCase(changeSet.getId())
                     && ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor())
                     && ranChangeSet.getChangeLog().equalsIgnoreCase(changeSet.getFilePath())) {
@@ -2,6 +2,7 @@ package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetList;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 import liquibase.executor.ExecutorService;
@@ -18,12 +19,12 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
     public ShouldRunChangeSetFilter(Database database) throws DatabaseException {
         this.database = database;
-        this.ranChangeSets = database.getRanChangeSetList();
+        this.ranChangeSets = RanChangeSetList.toIndexedList(database.getRanChangeSetList());
     }
 
     @SuppressWarnings({"RedundantIfStatement"})
     public boolean accepts(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ((RanChangeSetList) ranChangeSets).getCandidates(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId())) {
             if (ranChangeSet.getId().equals(changeSet.getId())
                     && ranChangeSet.getAuthor().equals(changeSet.getAuthor())
                     && isPathEquals(changeSet, ranChangeSet)) {
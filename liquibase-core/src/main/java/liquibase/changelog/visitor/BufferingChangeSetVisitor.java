@@ -0,0 +1,15 @@
+package liquibase.changelog.visitor;
+
+import liquibase.exception.LiquibaseException;
+
+/**
+ * A visitor that holds back work of the change sets it visited, such as uncommitted change log rows.  The change log
+ * iterators call {@link #finish()} once the last change set has been visited.
+ */
+public interface BufferingChangeSetVisitor extends ChangeSetVisitor {
+
+    /**
+     * Completes the work held back for the visited change sets.
+     */
+    void finish() throws LiquibaseException;
+}
@@ -2,15 +2,44 @@ package liquibase.changelog.visitor;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
 import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.AbstractExecutor;
+import liquibase.executor.ExecutorService;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.MarkChangeSetRanStatement;
 
-public class ChangeLogSyncVisitor implements ChangeSetVisitor {
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marks the visited change sets as ran without running them.  The change log rows are written in batches (see
+ * {@link AbstractExecutor#executeBatch(List, List)}) and committed every liquibase.changeLogSync.commitSize
+ * change sets, 1000 by default.  The change log iterators write the remaining rows with {@link #finish()} once all change
+ * sets have been visited.
+ */
+public class ChangeLogSyncVisitor implements BufferingChangeSetVisitor {
+
+    public static final String COMMIT_SIZE_SYSTEM_PROPERTY = "liquibase.changeLogSync.commitSize";
+
+    private static final int DEFAULT_COMMIT_SIZE = 1000;
 
     private Database database;
 
+    private int commitSize;
+    private List<ChangeSet> pendingChangeSets = new ArrayList<ChangeSet>();
+
     public ChangeLogSyncVisitor(Database database) {
         this.database = database;
+        try {
+            this.commitSize = Integer.parseInt(System.getProperty(COMMIT_SIZE_SYSTEM_PROPERTY, String.valueOf(DEFAULT_COMMIT_SIZE)).trim());
+        } catch (NumberFormatException e) {
+            throw new UnexpectedLiquibaseException("Invalid value for " + COMMIT_SIZE_SYSTEM_PROPERTY + ": " + System.getProperty(COMMIT_SIZE_SYSTEM_PROPERTY));
+        }
     }
 
     public Direction getDirection() {
@@ -18,6 +47,39 @@ public class ChangeLogSyncVisitor implements ChangeSetVisitor {
     }
 
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
-        this.database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+        pendingChangeSets.add(changeSet);
+        if (pendingChangeSets.size() >= commitSize) {
+            flush();
+        }
+    }
+
+    public void finish() throws DatabaseException {
+        flush();
+    }
+
+    /**
+     * Writes and commits the change log rows of the change sets visited since the last commit.
+     */
+    public void flush() throws DatabaseException {
+        if (pendingChangeSets.size() == 0) {
+            return;
+        }
+        List<RanChangeSet> ranChangeSets = database.getRanChangeSetList(); //read before the new rows are written
+        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        for (ChangeSet changeSet : pendingChangeSets) {
+            statements.add(new MarkChangeSetRanStatement(changeSet, ChangeSet.ExecType.EXECUTED));
+        }
+        try {
+            AbstractExecutor.executeBatch(ExecutorService.getInstance().getExecutor(database), statements, new ArrayList<SqlVisitor>());
+            database.commit();
+        } catch (DatabaseException e) {
+            database.rollback();
+            throw e;
+        }
+
+        for (ChangeSet changeSet : pendingChangeSets) {
+            ranChangeSets.add(new RanChangeSet(changeSet, ChangeSet.ExecType.EXECUTED));
+        }
+        pendingChangeSets.clear();
     }
 }
@@ -3,34 +3,141 @@ package liquibase.changelog.visitor;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
+import liquibase.exception.MigrationFailedException;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 
-public class UpdateVisitor implements ChangeSetVisitor {
+/**
+ * Runs the change sets and records them in the change log table.
+ * <p>
+ * By default every change set is committed on its own.  If the liquibase.update.commitGroupSize or
+ * liquibase.update.commitGroupMillis system property is set and the database supports ddl in transactions, consecutive
+ * change sets that run in a transaction share one: their changes and change log rows are committed together once the
+ * group has that many change sets, or has been open that many milliseconds.  If one of them fails, the whole group is
+ * rolled back and runs again with the next update.  Change sets with preconditions or failOnError="false" end the
+ * current group and are committed on their own.  The change log iterators commit the last group with {@link #finish()}
+ * once all change sets have been visited.
+ */
+public class UpdateVisitor implements BufferingChangeSetVisitor {
+
+    public static final String COMMIT_GROUP_SIZE_SYSTEM_PROPERTY = "liquibase.update.commitGroupSize";
+    public static final String COMMIT_GROUP_MILLIS_SYSTEM_PROPERTY = "liquibase.update.commitGroupMillis";
 
     private Database database;
 
     private Logger log = LogFactory.getLogger();
 
+    private volatile boolean changeSetsLeftPending = false;
+
+    private int commitGroupSize;
+    private long commitGroupMillis;
+    private int groupedChangeSets = 0;
+    private long groupStartTime;
+
     public UpdateVisitor(Database database) {
         this.database = database;
+        this.commitGroupSize = getIntProperty(COMMIT_GROUP_SIZE_SYSTEM_PROPERTY);
+        this.commitGroupMillis = getIntProperty(COMMIT_GROUP_MILLIS_SYSTEM_PROPERTY);
     }
 
     public Direction getDirection() {
         return ChangeSetVisitor.Direction.FORWARD;
     }
 
+    /**
+     * Executes the change set on the given database, which is another connection to the database of this visitor when
+     * change sets run in parallel (see {@link liquibase.changelog.ParallelChangeLogIterator}).  The change log table is
+     * always read and updated through the database of this visitor.
+     */
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
-        ChangeSet.RunStatus runStatus = this.database.getRunStatus(changeSet);
+        ChangeSet.RunStatus runStatus;
+        synchronized (this.database) {
+            runStatus = this.database.getRunStatus(changeSet);
+        }
         log.debug("Running Changeset:" + changeSet);
-        ChangeSet.ExecType execType = changeSet.execute(databaseChangeLog, this.database);
+        boolean grouped = isGroupable(changeSet, database);
+        if (!grouped) {
+            commitGroup();
+        }
+        ChangeSet.ExecType execType;
+        try {
+            execType = changeSet.execute(databaseChangeLog, database, !grouped);
+        } catch (MigrationFailedException e) {
+            if (grouped && groupedChangeSets > 0) {
+                log.warning("Rolled back the " + groupedChangeSets + " change sets committed together with " + changeSet.toString(false));
+                groupedChangeSets = 0;
+                this.database.resetInternalState();
+            }
+            throw e;
+        }
+        if (changeSet.shouldAlwaysRun() || execType.equals(ChangeSet.ExecType.SKIPPED) || execType.equals(ChangeSet.ExecType.FAILED)) {
+            changeSetsLeftPending = true;
+        }
         if (!runStatus.equals(ChangeSet.RunStatus.NOT_RAN)) {
             execType = ChangeSet.ExecType.RERAN;
         }
 
-        this.database.markChangeSetExecStatus(changeSet, execType);
+        synchronized (this.database) {
+            if (grouped) {
+                this.database.markChangeSetExecStatus(changeSet, execType, false);
+                if (groupedChangeSets++ == 0) {
+                    groupStartTime = System.currentTimeMillis();
+                }
+                if ((commitGroupSize > 0 && groupedChangeSets >= commitGroupSize)
+                        || (commitGroupMillis > 0 && System.currentTimeMillis() - groupStartTime >= commitGroupMillis)) {
+                    commitGroup();
+                }
+                return;
+            }
+            this.database.markChangeSetExecStatus(changeSet, execType);
+
+            this.database.commit();
+        }
+    }
+
+    public void finish() throws DatabaseException {
+        commitGroup();
+    }
+
+    /**
+     * Commits the change sets of the current group, if any.
+     */
+    public void commitGroup() throws DatabaseException {
+        if (groupedChangeSets == 0) {
+            return;
+        }
+        synchronized (this.database) {
+            this.database.commit();
+            log.debug("Committed " + groupedChangeSets + " change sets");
+            groupedChangeSets = 0;
+        }
+    }
+
+    private boolean isGroupable(ChangeSet changeSet, Database database) {
+        return (commitGroupSize > 0 || commitGroupMillis > 0)
+                && database == this.database
+                && this.database.supportsDDLInTransaction()
+                && changeSet.isRunInTransaction()
+                && changeSet.getPreconditions() == null
+                && (changeSet.getFailOnError() == null || changeSet.getFailOnError());
+    }
+
+    private int getIntProperty(String name) {
+        try {
+            return Integer.parseInt(System.getProperty(name, "0").trim());
+        } catch (NumberFormatException e) {
+            throw new UnexpectedLiquibaseException("Invalid value for " + name + ": " + System.getProperty(name));
+        }
+    }
 
-        this.database.commit();
+    /**
+     * Returns true if a visited change set will be visited again by the next update: it runs always, or it was skipped or
+     * failed without stopping the update.
+     */
+    public boolean hasChangeSetsLeftPending() {
+        return changeSetsLeftPending;
     }
 }
@@ -4,6 +4,7 @@ import liquibase.change.Change;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetList;
 import liquibase.database.Database;
 import liquibase.exception.*;
 import liquibase.logging.Logger;
@@ -32,11 +33,11 @@ public class ValidatingVisitor implements ChangeSetVisitor {
 
     private Set<String> seenChangeSets = new HashSet<String>();
 
-    private List<RanChangeSet> ranChangeSets;
+    private RanChangeSetList ranChangeSets;
     private Database database;
 
     public ValidatingVisitor(List<RanChangeSet> ranChangeSets) {
-        this.ranChangeSets = ranChangeSets;
+        this.ranChangeSets = RanChangeSetList.toIndexedList(ranChangeSets);
     }
 
     public void validate(Database database, DatabaseChangeLog changeLog) {
@@ -91,7 +92,7 @@ public class ValidatingVisitor implements ChangeSetVisitor {
             }
         }
 
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ranChangeSets.getCandidates(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId())) {
             if (ranChangeSet.getId().equalsIgnoreCase(changeSet.getId())
                     && ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor())
                     && ranChangeSet.getChangeLog().equalsIgnoreCase(changeSet.getFilePath())) {
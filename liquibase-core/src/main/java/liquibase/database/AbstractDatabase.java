@@ -2,10 +2,15 @@ package liquibase.database;
 
 import liquibase.change.Change;
 import liquibase.change.CheckSum;
+import liquibase.change.StreamingChange;
 import liquibase.change.core.*;
+import liquibase.changelog.ChangeLogFingerprint;
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSetCheckSumRepair;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetReader;
+import liquibase.changelog.RanChangeSetList;
 import liquibase.changelog.filter.ContextChangeSetFilter;
 import liquibase.changelog.filter.DbmsChangeSetFilter;
 import liquibase.database.core.*;
@@ -14,13 +19,18 @@ import liquibase.database.structure.*;
 import liquibase.diff.DiffControl;
 import liquibase.exception.*;
 import liquibase.executor.Executor;
+import liquibase.executor.AbstractExecutor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.executor.ParallelLoadDataExecutor;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.DatabaseSnapshotGeneratorFactory;
 import liquibase.sql.Sql;
 import liquibase.sql.visitor.SqlVisitor;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.InsertSetGenerator;
 import liquibase.statement.*;
 import liquibase.statement.core.*;
 import liquibase.util.ISODateFormat;
@@ -32,7 +42,6 @@ import java.io.Writer;
 import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -55,7 +64,7 @@ public abstract class AbstractDatabase implements Database {
     // List of Database native functions.
     protected List<DatabaseFunction> dateFunctions = new ArrayList<DatabaseFunction>();
 
-    private List<RanChangeSet> ranChangeSetList;
+    private RanChangeSetList ranChangeSetList;
 
     private static Pattern CREATE_VIEW_AS_PATTERN = Pattern.compile("^CREATE\\s+.*?VIEW\\s+.*?AS\\s+", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
 
@@ -653,15 +662,17 @@ public abstract class AbstractDatabase implements Database {
         }
 
         if (updateExistingNullChecksums) {
+            List<ChangeSet> changeSetsToRepair = new ArrayList<ChangeSet>();
             for (RanChangeSet ranChangeSet : this.getRanChangeSetList()) {
                 if (ranChangeSet.getLastCheckSum() == null) {
                     ChangeSet changeSet = databaseChangeLog.getChangeSet(ranChangeSet);
                     if (changeSet != null && new ContextChangeSetFilter(contexts).accepts(changeSet) && new DbmsChangeSetFilter(this).accepts(changeSet)) {
-                        LogFactory.getLogger().info("Updating null or out of date checksum on changeSet " + changeSet + " to correct value");
-                        executor.execute(new UpdateChangeSetChecksumStatement(changeSet));
+                        LogFactory.getLogger().debug("Updating null or out of date checksum on changeSet " + changeSet + " to correct value");
+                        changeSetsToRepair.add(changeSet);
                     }
                 }
             }
+            new ChangeSetCheckSumRepair(this).repair(changeSetsToRepair);
             commit();
             this.ranChangeSetList = null;
         }
@@ -860,9 +871,11 @@ public abstract class AbstractDatabase implements Database {
             return false;
         }
         if (isCaseSensitive()) {
-            return tableName.equals(this.getDatabaseChangeLogTableName()) || tableName.equals(this.getDatabaseChangeLogLockTableName());
+            return tableName.equals(this.getDatabaseChangeLogTableName()) || tableName.equals(this.getDatabaseChangeLogLockTableName())
+                    || tableName.equals(ChangeLogFingerprint.getTableName(this));
         } else {
-            return tableName.equalsIgnoreCase(this.getDatabaseChangeLogTableName()) || tableName.equalsIgnoreCase(this.getDatabaseChangeLogLockTableName());
+            return tableName.equalsIgnoreCase(this.getDatabaseChangeLogTableName()) || tableName.equalsIgnoreCase(this.getDatabaseChangeLogLockTableName())
+                    || tableName.equalsIgnoreCase(ChangeLogFingerprint.TABLE_NAME);
         }
     }
 
@@ -1018,7 +1031,7 @@ public abstract class AbstractDatabase implements Database {
             if (foundRan.getLastCheckSum() == null) {
                 try {
                     LogFactory.getLogger().info("Updating NULL md5sum for " + changeSet.toString());
-                    ExecutorService.getInstance().getExecutor(this).execute(new RawSqlStatement("UPDATE " + escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName()) + " SET MD5SUM='" + changeSet.generateCheckSum().toString() + "' WHERE ID='" + changeSet.getId() + "' AND AUTHOR='" + changeSet.getAuthor() + "' AND FILENAME='" + changeSet.getFilePath() + "'"));
+                    ExecutorService.getInstance().getExecutor(this).execute(ChangeSetCheckSumRepair.createStatement(changeSet, changeSet.generateCheckSum(), this));
 
                     this.commit();
                 } catch (DatabaseException e) {
@@ -1046,14 +1059,7 @@ public abstract class AbstractDatabase implements Database {
             return null;
         }
 
-        RanChangeSet foundRan = null;
-        for (RanChangeSet ranChange : getRanChangeSetList()) {
-            if (ranChange.isSameAs(changeSet)) {
-                foundRan = ranChange;
-                break;
-            }
-        }
-        return foundRan;
+        return RanChangeSetList.toIndexedList(getRanChangeSetList()).getRanChangeSet(changeSet);
     }
 
     /**
@@ -1065,35 +1071,20 @@ public abstract class AbstractDatabase implements Database {
         }
 
         String databaseChangeLogTableName = escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
-        ranChangeSetList = new ArrayList<RanChangeSet>();
+        ranChangeSetList = new RanChangeSetList();
         if (hasDatabaseChangeLogTable()) {
             LogFactory.getLogger().info("Reading from " + databaseChangeLogTableName);
-            SqlStatement select = new SelectFromDatabaseChangeLogStatement("FILENAME", "AUTHOR", "ID", "MD5SUM", "DATEEXECUTED", "ORDEREXECUTED", "TAG", "EXECTYPE", "DESCRIPTION").setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
-            List<Map> results = ExecutorService.getInstance().getExecutor(this).queryForList(select);
-            for (Map rs : results) {
-                String fileName = rs.get("FILENAME").toString();
-                String author = rs.get("AUTHOR").toString();
-                String id = rs.get("ID").toString();
-                String md5sum = rs.get("MD5SUM") == null ? null : rs.get("MD5SUM").toString();
-                String description = rs.get("DESCRIPTION") == null ? null : rs.get("DESCRIPTION").toString();
-                Object tmpDateExecuted = rs.get("DATEEXECUTED");
-                Date dateExecuted = null;
-                if (tmpDateExecuted instanceof Date) {
-                    dateExecuted = (Date) tmpDateExecuted;
-                } else {
-                    DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                    try {
-                        dateExecuted = df.parse((String)tmpDateExecuted);
-                    } catch (ParseException e) {}
-                }
-                String tag = rs.get("TAG") == null ? null : rs.get("TAG").toString();
-                String execType = rs.get("EXECTYPE") == null ? null : rs.get("EXECTYPE").toString();
-                try {
-                    RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description);
-                    ranChangeSetList.add(ranChangeSet);
-                } catch (IllegalArgumentException e) {
-                    LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
-                    throw e;
+            SqlStatement select = new SelectFromDatabaseChangeLogStatement(RanChangeSetReader.COLUMNS).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
+            Executor executor = ExecutorService.getInstance().getExecutor(this);
+            if (executor instanceof LoggingExecutor) {
+                executor = ((LoggingExecutor) executor).getDelegatedReadExecutor();
+            }
+            RanChangeSetReader reader = new RanChangeSetReader(ranChangeSetList);
+            if (executor instanceof JdbcExecutor) {
+                ((JdbcExecutor) executor).query(select, reader, RanChangeSetReader.getFetchSize());
+            } else {
+                for (Map row : executor.queryForList(select)) {
+                    reader.mapRow(row);
                 }
             }
         }
@@ -1114,10 +1105,14 @@ public abstract class AbstractDatabase implements Database {
      * with the information.
      */
     public void markChangeSetExecStatus(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        markChangeSetExecStatus(changeSet, execType, true);
+    }
 
-
+    public void markChangeSetExecStatus(ChangeSet changeSet, ChangeSet.ExecType execType, boolean commit) throws DatabaseException {
         ExecutorService.getInstance().getExecutor(this).execute(new MarkChangeSetRanStatement(changeSet, execType));
-        commit();
+        if (commit) {
+            commit();
+        }
         getRanChangeSetList().add(new RanChangeSet(changeSet, execType));
     }
 
@@ -1126,7 +1121,7 @@ public abstract class AbstractDatabase implements Database {
         ExecutorService.getInstance().getExecutor(this).execute(new RemoveChangeSetRanStatusStatement(changeSet));
         commit();
 
-        getRanChangeSetList().remove(new RanChangeSet(changeSet));
+        getRanChangeSetList().remove(new RanChangeSet(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor(), null, null, null, null, null));
     }
 
     public String escapeStringForDatabase(String string) {
@@ -1176,6 +1171,7 @@ public abstract class AbstractDatabase implements Database {
     }
 
     public void close() throws DatabaseException {
+        ExecutorService.getInstance().clearExecutor(this);
         try {
             DatabaseConnection connection = getConnection();
             if (connection != null) {
@@ -1222,11 +1218,98 @@ public abstract class AbstractDatabase implements Database {
     }
 
     public void executeStatements(Change change, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors) throws LiquibaseException, UnsupportedChangeException {
+        if (change instanceof StreamingChange && ((StreamingChange) change).isStreaming(this)) {
+            ((StreamingChange) change).executeStreaming(this, sqlVisitors);
+            return;
+        }
         SqlStatement[] statements = change.generateStatements(this);
 
         execute(statements, sqlVisitors);
     }
 
+    /**
+     * Executes the changes in order.  The loadData changes a change set starts with are loaded on extra connections if
+     * {@link ParallelLoadDataExecutor#getParallelChanges(List, boolean, boolean)} allows it.  If
+     * {@link InsertSetGenerator#isEnabled(Database, List)}, consecutive changes that each insert one row into the same
+     * table are executed together as an {@link InsertSetStatement}.
+     */
+    public void executeStatements(List<Change> changes, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors, boolean runInTransaction, boolean commit) throws LiquibaseException, UnsupportedChangeException {
+        int parallelConnections = ParallelLoadDataExecutor.getConnections(this);
+        int parallelChanges = parallelConnections > 0 ? ParallelLoadDataExecutor.getParallelChanges(changes, runInTransaction, commit) : 0;
+        if (parallelChanges > 0) {
+            new ParallelLoadDataExecutor(this, runInTransaction).execute(changes.subList(0, parallelChanges), changeLog, sqlVisitors, parallelConnections);
+        }
+        executeInOrder(changes.subList(parallelChanges, changes.size()), changeLog, sqlVisitors);
+    }
+
+    private void executeInOrder(List<Change> changes, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        if (!InsertSetGenerator.isEnabled(this, sqlVisitors)) {
+            for (Change change : changes) {
+                executeStatements(change, changeLog, sqlVisitors);
+                LogFactory.getLogger().debug(change.getConfirmationMessage());
+            }
+            return;
+        }
+
+        List<InsertStatement> rows = new ArrayList<InsertStatement>();
+        List<Change> rowChanges = new ArrayList<Change>();
+        for (Change change : changes) {
+            if (change instanceof StreamingChange && ((StreamingChange) change).isStreaming(this)) {
+                executeRows(rows, rowChanges, sqlVisitors);
+                ((StreamingChange) change).executeStreaming(this, sqlVisitors);
+            } else {
+                SqlStatement[] statements = change.generateStatements(this);
+                if (statements.length == 1 && statements[0] instanceof PreparedInsertStatement) {
+                    InsertStatement row = (InsertStatement) statements[0];
+                    if (rows.size() > 0 && !isSameTable(rows.get(0), row)) {
+                        executeRows(rows, rowChanges, sqlVisitors);
+                    }
+                    rows.add(row);
+                    rowChanges.add(change);
+                    continue;
+                }
+                executeRows(rows, rowChanges, sqlVisitors);
+                execute(statements, sqlVisitors);
+            }
+            LogFactory.getLogger().debug(change.getConfirmationMessage());
+        }
+        executeRows(rows, rowChanges, sqlVisitors);
+    }
+
+    /**
+     * Executes the collected rows, as one {@link InsertSetStatement} if there is more than one, and clears the lists.
+     */
+    private void executeRows(List<InsertStatement> rows, List<Change> rowChanges, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        if (rows.size() == 0) {
+            return;
+        }
+        if (rows.size() == 1) {
+            execute(new SqlStatement[] {rows.get(0)}, sqlVisitors);
+        } else {
+            InsertStatement first = rows.get(0);
+            InsertSetStatement insertSet = new InsertSetStatement(first.getCatalogName(), first.getSchemaName(), first.getTableName());
+            for (InsertStatement row : rows) {
+                insertSet.addInsertStatement(row);
+            }
+            execute(new SqlStatement[] {insertSet}, sqlVisitors);
+        }
+        for (Change change : rowChanges) {
+            LogFactory.getLogger().debug(change.getConfirmationMessage());
+        }
+        rows.clear();
+        rowChanges.clear();
+    }
+
+    private boolean isSameTable(InsertStatement statement, InsertStatement otherStatement) {
+        return isSame(statement.getCatalogName(), otherStatement.getCatalogName())
+                && isSame(statement.getSchemaName(), otherStatement.getSchemaName())
+                && isSame(statement.getTableName(), otherStatement.getTableName());
+    }
+
+    private boolean isSame(String name, String otherName) {
+        return name == null ? otherName == null : name.equals(otherName);
+    }
+
     /*
      * Executes the statements passed as argument to a target {@link Database}
      *
@@ -1235,12 +1318,20 @@ public abstract class AbstractDatabase implements Database {
      * @throws DatabaseException if there were problems issuing the statements
      */
     public void execute(SqlStatement[] statements, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        List<SqlStatement> statementsToExecute = new ArrayList<SqlStatement>();
         for (SqlStatement statement : statements) {
             if (statement.skipOnUnsupported() && !SqlGeneratorFactory.getInstance().supports(statement, this)) {
                 continue;
             }
             LogFactory.getLogger().debug("Executing Statement: " + statement);
-            ExecutorService.getInstance().getExecutor(this).execute(statement, sqlVisitors);
+            statementsToExecute.add(statement);
+        }
+
+        Executor executor = ExecutorService.getInstance().getExecutor(this);
+        if (statementsToExecute.size() == 1) {
+            executor.execute(statementsToExecute.get(0), sqlVisitors);
+        } else if (statementsToExecute.size() > 1) {
+            AbstractExecutor.executeBatch(executor, statementsToExecute, sqlVisitors);
         }
     }
 
@@ -212,6 +212,12 @@ public interface Database extends DatabaseObject, PrioritizedService {
 
     void markChangeSetExecStatus(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException;
 
+    /**
+     * Like {@link #markChangeSetExecStatus(ChangeSet, ChangeSet.ExecType)}, but only commits if commit is true, so the
+     * change log row can be committed together with the changes of the change set.
+     */
+    void markChangeSetExecStatus(ChangeSet changeSet, ChangeSet.ExecType execType, boolean commit) throws DatabaseException;
+
     List<RanChangeSet> getRanChangeSetList() throws DatabaseException;
 
     Date getRanDate(ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException;
@@ -236,7 +242,16 @@ public interface Database extends DatabaseObject, PrioritizedService {
 
     boolean isSafeToRunUpdate() throws DatabaseException;
 
-    void executeStatements(Change change, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors) throws LiquibaseException, UnsupportedChangeException;/*
+    void executeStatements(Change change, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors) throws LiquibaseException, UnsupportedChangeException;
+
+    /**
+     * Executes the changes of a change set in order.  Implementations may combine the statements of consecutive changes,
+     * or load data on more than one connection.
+     *
+     * @param runInTransaction true if the changes run in the transaction of the change set
+     * @param commit false if the change set leaves its transaction open for the change sets that follow
+     */
+    void executeStatements(List<Change> changes, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors, boolean runInTransaction, boolean commit) throws LiquibaseException, UnsupportedChangeException;/*
 
      * Executes the statements passed as argument to a target {@link Database}
      *
@@ -1,20 +1,58 @@
 package liquibase.database;
 
+import liquibase.database.core.PostgresDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
+import liquibase.util.JdbcUtils;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Factory for PreparedStatements
  */
 public final class PreparedStatementFactory {
 
+    private static final int MAX_CACHED_STATEMENTS = 50;
+
     private final JdbcConnection con;
+    private final Database database;
+
+    private final Map<String, PreparedStatement> cache = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > MAX_CACHED_STATEMENTS) {
+                JdbcUtils.closeStatement(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
 
     public PreparedStatementFactory(JdbcConnection con) {
         if(con == null) throw new IllegalArgumentException("connection must not be null");
         this.con = con;
+        this.database = null;
+    }
+
+    public PreparedStatementFactory(Database database) {
+        if(database == null || !(database.getConnection() instanceof JdbcConnection)) throw new IllegalArgumentException("database must have a jdbc connection");
+        this.con = (JdbcConnection) database.getConnection();
+        this.database = database;
+    }
+
+    /**
+     * @return the database statements are created for, or null if the factory was created for a bare connection
+     */
+    public Database getDatabase() {
+        return database;
     }
 
     /**
@@ -28,6 +66,96 @@ public final class PreparedStatementFactory {
         return con.prepareStatement(sql);
     }
 
+    /**
+     * Like {@link #create(String)}, but returns the statement created by an earlier call with the same sql, with its
+     * parameters cleared.  The statement stays owned by the factory and must not be closed by the caller.
+     * @param sql to execute
+     * @return a <code>PreparedStatement</code> object
+     * @throws DatabaseException
+     */
+    public PreparedStatement prepare(String sql) throws DatabaseException {
+        PreparedStatement stmt = cache.get(sql);
+        if (stmt == null) {
+            stmt = create(sql);
+            cache.put(sql, stmt);
+        } else {
+            try {
+                stmt.clearParameters();
+            } catch (SQLException e) {
+                throw new DatabaseException(e);
+            }
+        }
+        return stmt;
+    }
+
+    /**
+     * Executes literal sql in a statement that is not cached, for statements whose generator cannot bind their values
+     * as parameters.
+     * @param sql to execute
+     * @throws DatabaseException
+     */
+    public void execute(String sql) throws DatabaseException {
+        Statement stmt = null;
+        try {
+            stmt = con.getUnderlyingConnection().createStatement();
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing SQL " + sql + ": " + e.getMessage(), e);
+        } finally {
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+
+    /**
+     * Binds the values to the parameters of the statement in order, using the setter matching the type of each value.
+     * Strings are bound without a type on PostgreSQL, which does not convert character parameters to the type of the
+     * column the way it converts quoted literals.
+     * @param stmt statement to set the parameters of
+     * @param parameters values for the parameter markers, in marker order
+     * @throws DatabaseException
+     */
+    public void setParameters(PreparedStatement stmt, List<Object> parameters) throws DatabaseException {
+        try {
+            int i = 1;  // index starts from 1
+            for (Object value : parameters) {
+                if (value instanceof String && database instanceof PostgresDatabase) {
+                    stmt.setObject(i, value, Types.OTHER);
+                } else if (value instanceof String) {
+                    stmt.setString(i, (String) value);
+                } else if (value instanceof BigDecimal) {
+                    stmt.setBigDecimal(i, (BigDecimal) value);
+                } else if (value instanceof BigInteger) {
+                    stmt.setBigDecimal(i, new BigDecimal((BigInteger) value));
+                } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    stmt.setLong(i, ((Number) value).longValue());
+                } else if (value instanceof Double || value instanceof Float) {
+                    stmt.setDouble(i, ((Number) value).doubleValue());
+                } else if (value instanceof java.sql.Timestamp) {
+                    stmt.setTimestamp(i, (java.sql.Timestamp) value);
+                } else if (value instanceof java.sql.Time) {
+                    stmt.setTime(i, (java.sql.Time) value);
+                } else if (value instanceof java.sql.Date) {
+                    stmt.setDate(i, (java.sql.Date) value);
+                } else {
+                    stmt.setObject(i, value);
+                }
+                i++;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Closes the statements cached by {@link #prepare(String)}, for example because the objects they refer to changed.
+     */
+    public void clearCache() {
+        for (PreparedStatement stmt : cache.values()) {
+            JdbcUtils.closeStatement(stmt);
+        }
+        cache.clear();
+    }
+
     @Override
     public String toString() {
         return "[con: " + con.toString() + "]";
@@ -15,11 +15,43 @@ import java.util.Map;
  */
 public class JdbcConnection implements DatabaseConnection {
     private java.sql.Connection con;
+    private JdbcConnectionFactory connectionFactory;
 
     public JdbcConnection(java.sql.Connection connection) {
         this.con = connection;
     }
 
+    /**
+     * @param connectionFactory opens further connections with the settings of this one, see {@link #openConnection()}
+     */
+    public JdbcConnection(java.sql.Connection connection, JdbcConnectionFactory connectionFactory) {
+        this.con = connection;
+        this.connectionFactory = connectionFactory;
+    }
+
+    public JdbcConnectionFactory getConnectionFactory() {
+        return connectionFactory;
+    }
+
+    /**
+     * Opens a new connection with the settings of this one.
+     * @return the new connection, or null if this connection was created without a {@link JdbcConnectionFactory}
+     */
+    public JdbcConnection openConnection() throws DatabaseException {
+        if (connectionFactory == null) {
+            return null;
+        }
+        try {
+            Connection connection = connectionFactory.openConnection();
+            if (connection == null) {
+                throw new DatabaseException("Could not open another connection to " + getURL());
+            }
+            return new JdbcConnection(connection, connectionFactory);
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
     public String getDatabaseProductName() throws DatabaseException {
         try {
             return con.getMetaData().getDatabaseProductName();
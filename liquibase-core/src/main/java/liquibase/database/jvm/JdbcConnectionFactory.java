@@ -0,0 +1,13 @@
+package liquibase.database.jvm;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens further connections with the settings of a {@link JdbcConnection}, such as from the same url and credentials or
+ * the same DataSource.  Used to execute work on more than one connection at a time.
+ */
+public interface JdbcConnectionFactory {
+
+    Connection openConnection() throws SQLException;
+}
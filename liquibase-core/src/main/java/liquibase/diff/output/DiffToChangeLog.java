@@ -861,7 +861,9 @@ public class DiffToChangeLog {
                             }
 
                             // for each row, add a new change
-                            // (there will be one group per table)
+                            // (there will be one group per table, which ChangeSet executes as
+                            // multi-row inserts when liquibase.multiRowInsert is enabled, so
+                            // every change must list the same columns)
                             changes.add(change);
                         }
 
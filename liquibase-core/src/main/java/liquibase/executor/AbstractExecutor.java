@@ -11,7 +11,7 @@ import liquibase.statement.SqlStatement;
 import java.util.List;
 import java.util.Set;
 
-public abstract class AbstractExecutor {
+public abstract class AbstractExecutor implements Executor {
     protected Database database;
 
     public void setDatabase(Database database) {
@@ -38,4 +38,29 @@ public abstract class AbstractExecutor {
         return returnSql;
     }
 
+    /**
+     * Executes the statements in order, with the same result as calling {@link Executor#execute(SqlStatement, List)} for
+     * each.  Subclasses may send the generated SQL to the database in batches.
+     */
+    public void executeBatch(List<SqlStatement> sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        for (SqlStatement statement : sql) {
+            execute(statement, sqlVisitors);
+        }
+    }
+
+    /**
+     * Executes the statements with {@link #executeBatch(List, List)} if the executor extends AbstractExecutor, or one at a
+     * time with {@link Executor#execute(SqlStatement, List)} otherwise.  Callers that only have an {@link Executor} should
+     * use this rather than the instance method.
+     */
+    public static void executeBatch(Executor executor, List<SqlStatement> sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        if (executor instanceof AbstractExecutor) {
+            ((AbstractExecutor) executor).executeBatch(sql, sqlVisitors);
+        } else {
+            for (SqlStatement statement : sql) {
+                executor.execute(statement, sqlVisitors);
+            }
+        }
+    }
+
 }
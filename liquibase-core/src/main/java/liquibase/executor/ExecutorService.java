@@ -2,6 +2,7 @@ package liquibase.executor;
 
 import liquibase.database.Database;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.servicelocator.ServiceLocator;
 
 import java.util.Map;
@@ -39,10 +40,22 @@ public class ExecutorService {
     }
 
     public void clearExecutor(Database database) {
-        executors.remove(database);
+        release(executors.remove(database));
     }
 
     public void reset() {
+        for (Executor executor : executors.values()) {
+            release(executor);
+        }
         executors.clear();
     }
+
+    /**
+     * Closes the statements a removed executor keeps open on the connection.
+     */
+    private void release(Executor executor) {
+        if (executor instanceof JdbcExecutor) {
+            ((JdbcExecutor) executor).closePreparedStatements();
+        }
+    }
 }
@@ -30,6 +30,13 @@ public class LoggingExecutor extends AbstractExecutor implements Executor {
         setDatabase(database);
     }
 
+    /**
+     * Returns the executor that queries are passed to.
+     */
+    public Executor getDelegatedReadExecutor() {
+        return delegatedReadExecutor;
+    }
+
     public void execute(SqlStatement sql) throws DatabaseException {
         outputStatement(sql);
     }
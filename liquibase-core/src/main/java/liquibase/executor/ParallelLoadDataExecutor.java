@@ -0,0 +1,295 @@
+package liquibase.executor;
+
+import liquibase.change.Change;
+import liquibase.change.core.LoadDataChange;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.logging.LogFactory;
+import liquibase.sql.visitor.SqlVisitor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the loadData and loadUpdateData changes of a change set that load different tables at the same time, each on
+ * its own connection opened with the {@link liquibase.database.jvm.JdbcConnectionFactory} of the connection of the
+ * database.  Changes that load the same table run one after another on the same connection, in the order of the change
+ * set.  The number of extra connections is set with the liquibase.loadData.parallel system property; parallel loading
+ * is off when it is not set.
+ * <p>
+ * Foreign key checks are disabled on the extra connections, since rows of one table may reference rows that another
+ * connection has not yet committed, so only databases that support {@link Database#disableForeignKeyChecks()} load in
+ * parallel.  The extra connections are committed before the change set is: each table right away if it does not run in
+ * a transaction, otherwise once all tables are loaded.  If loading a table fails, the other connections stop and all of
+ * them are rolled back.  The commits of the connections are not one transaction though: if a commit fails after another
+ * one succeeded, the tables committed before stay loaded although the change set fails.  Since the extra connections
+ * cannot see uncommitted changes of the connection of the database, the changes are only loaded in parallel if they are
+ * the first changes of a change set that is committed on its own.
+ * <p>
+ * Used by {@link liquibase.database.AbstractDatabase#executeStatements(List, DatabaseChangeLog, List, boolean, boolean)}.
+ */
+public class ParallelLoadDataExecutor {
+
+    public static final String PARALLEL_SYSTEM_PROPERTY = "liquibase.loadData.parallel";
+
+    private Database database;
+    private boolean runInTransaction;
+
+    private List<Database> workerDatabases = new ArrayList<Database>();
+    private List<Database> foreignKeyChecksDisabled = new ArrayList<Database>();
+
+    public ParallelLoadDataExecutor(Database database, boolean runInTransaction) {
+        this.database = database;
+        this.runInTransaction = runInTransaction;
+    }
+
+    /**
+     * Returns the number of extra connections to use, or 0 if parallel loading is disabled or not possible with this
+     * database.
+     */
+    public static int getConnections(Database database) {
+        int connections;
+        try {
+            connections = Integer.parseInt(System.getProperty(PARALLEL_SYSTEM_PROPERTY, "0").trim());
+        } catch (NumberFormatException e) {
+            throw new UnexpectedLiquibaseException("Invalid value for " + PARALLEL_SYSTEM_PROPERTY + ": " + System.getProperty(PARALLEL_SYSTEM_PROPERTY));
+        }
+        if (connections <= 0) {
+            return 0;
+        }
+        if (!(ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor)
+                || !(database.getConnection() instanceof JdbcConnection)
+                || ((JdbcConnection) database.getConnection()).getConnectionFactory() == null) {
+            return 0;
+        }
+        if (!database.supportsForeignKeyDisable()) {
+            LogFactory.getLogger().debug("Not loading data in parallel, foreign key checks cannot be disabled on " + database.getShortName());
+            return 0;
+        }
+        return connections;
+    }
+
+    /**
+     * Returns the number of changes at the start of a change set that can be loaded in parallel, or 0 if there are not at
+     * least two tables to load.  The changes are only loaded in parallel if the change set is committed on its own rather
+     * than with a group of change sets (see
+     * {@link liquibase.changelog.ChangeSet#execute(DatabaseChangeLog, Database, boolean)}), so no uncommitted changes of
+     * the connection of the database are pending.  In a transaction, the loads are only parallel if no other changes
+     * follow them, since later changes would not see the rows of the extra connections.
+     */
+    public static int getParallelChanges(List<Change> changes, boolean runInTransaction, boolean commit) {
+        if (!commit) {
+            return 0;
+        }
+        int end = 0;
+        while (end < changes.size() && changes.get(end) instanceof LoadDataChange) {
+            end++;
+        }
+        if (runInTransaction && end < changes.size()) {
+            return 0;
+        }
+        if (groupByTable(changes.subList(0, end)).size() < 2) {
+            return 0;
+        }
+        return end;
+    }
+
+    /**
+     * Executes the changes, each table on one of the extra connections, and commits them or rolls them back.  The extra
+     * connections are closed when it returns.
+     */
+    public void execute(List<Change> changes, DatabaseChangeLog databaseChangeLog, List<SqlVisitor> sqlVisitors, int connections) throws LiquibaseException {
+        try {
+            load(changes, databaseChangeLog, sqlVisitors, connections);
+            if (runInTransaction) {
+                commit();
+            }
+        } catch (LiquibaseException e) {
+            rollback();
+            throw e;
+        } catch (RuntimeException e) {
+            rollback();
+            throw e;
+        } finally {
+            close();
+        }
+    }
+
+    private void load(List<Change> changes, DatabaseChangeLog databaseChangeLog, List<SqlVisitor> sqlVisitors, int connections) throws LiquibaseException {
+        final Queue<List<LoadDataChange>> tables = new ConcurrentLinkedQueue<List<LoadDataChange>>(groupByTable(changes).values());
+        int threads = Math.min(connections, tables.size());
+        for (int i = workerDatabases.size(); i < threads; i++) {
+            openWorkerDatabase();
+        }
+
+        final DatabaseChangeLog changeLog = databaseChangeLog;
+        final List<SqlVisitor> visitors = sqlVisitors;
+        final List<Throwable> failures = new ArrayList<Throwable>();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        java.util.concurrent.ExecutorService threadPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-loadData-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        for (int i = 0; i < threads; i++) {
+            final Database workerDatabase = workerDatabases.get(i);
+            threadPool.execute(new Runnable() {
+                public void run() {
+                    try {
+                        List<LoadDataChange> table;
+                        while ((table = tables.poll()) != null && !hasFailed(failures)) {
+                            for (LoadDataChange change : table) {
+                                workerDatabase.executeStatements(change, changeLog, visitors);
+                                LogFactory.getLogger().debug(change.getConfirmationMessage());
+                            }
+                            if (!runInTransaction) {
+                                workerDatabase.commit();
+                            }
+                        }
+                    } catch (Throwable e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                }
+            });
+        }
+        threadPool.shutdown();
+
+        try {
+            threadPool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            threadPool.shutdownNow();
+            awaitTermination(threadPool); //the connections are rolled back and closed once the workers are done
+            throw new UnexpectedLiquibaseException(e);
+        }
+
+        if (failures.size() > 0) {
+            Throwable failure = failures.get(0);
+            if (failure instanceof LiquibaseException) {
+                throw (LiquibaseException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            throw new UnexpectedLiquibaseException(failure);
+        }
+    }
+
+    private void commit() throws DatabaseException {
+        for (Database workerDatabase : workerDatabases) {
+            workerDatabase.commit();
+        }
+    }
+
+    /**
+     * Rolls back all extra connections, also if one of them fails.
+     */
+    private void rollback() {
+        for (Database workerDatabase : workerDatabases) {
+            try {
+                workerDatabase.rollback();
+            } catch (DatabaseException e) {
+                LogFactory.getLogger().warning("Error rolling back connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Enables the foreign key checks again and closes the extra connections.
+     */
+    private void close() {
+        for (Database workerDatabase : workerDatabases) {
+            try {
+                if (foreignKeyChecksDisabled.contains(workerDatabase)) {
+                    workerDatabase.enableForeignKeyChecks();
+                }
+                workerDatabase.close();
+            } catch (DatabaseException e) {
+                LogFactory.getLogger().warning("Error closing connection: " + e.getMessage());
+            } finally {
+                ExecutorService.getInstance().clearExecutor(workerDatabase);
+            }
+        }
+        workerDatabases.clear();
+        foreignKeyChecksDisabled.clear();
+    }
+
+    private void openWorkerDatabase() throws DatabaseException {
+        Database workerDatabase = openDatabase(database);
+        workerDatabases.add(workerDatabase);
+        if (workerDatabase.disableForeignKeyChecks()) {
+            foreignKeyChecksDisabled.add(workerDatabase);
+        }
+    }
+
+    /**
+     * Returns a database of the same type and default schema as the given one, on a new connection opened with its
+     * connection factory.
+     */
+    public static Database openDatabase(Database database) throws DatabaseException {
+        Database workerDatabase;
+        try {
+            workerDatabase = database.getClass().newInstance();
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        workerDatabase.setConnection(((JdbcConnection) database.getConnection()).openConnection());
+        workerDatabase.setDefaultCatalogName(database.getDefaultCatalogName());
+        workerDatabase.setDefaultSchemaName(database.getDefaultSchemaName());
+        workerDatabase.setAutoCommit(false);
+
+        //create the executor here, the worker threads only look it up
+        ExecutorService.getInstance().getExecutor(workerDatabase);
+        return workerDatabase;
+    }
+
+    private void awaitTermination(java.util.concurrent.ExecutorService threadPool) {
+        boolean interrupted = false;
+        while (!threadPool.isTerminated()) {
+            try {
+                threadPool.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean hasFailed(List<Throwable> failures) {
+        synchronized (failures) {
+            return failures.size() > 0;
+        }
+    }
+
+    private static Map<String, List<LoadDataChange>> groupByTable(List<Change> changes) {
+        Map<String, List<LoadDataChange>> tables = new LinkedHashMap<String, List<LoadDataChange>>();
+        for (Change change : changes) {
+            LoadDataChange loadDataChange = (LoadDataChange) change;
+            String table = (loadDataChange.getCatalogName() + "." + loadDataChange.getSchemaName() + "." + loadDataChange.getTableName()).toLowerCase();
+            List<LoadDataChange> tableChanges = tables.get(table);
+            if (tableChanges == null) {
+                tableChanges = new ArrayList<LoadDataChange>();
+                tables.put(table, tableChanges);
+            }
+            tableChanges.add(loadDataChange);
+        }
+        return tables;
+    }
+}
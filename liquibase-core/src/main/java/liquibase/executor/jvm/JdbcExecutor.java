@@ -6,18 +6,30 @@ import liquibase.database.PreparedStatementFactory;
 import liquibase.database.core.OracleDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.AbstractExecutor;
 import liquibase.executor.Executor;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.snapshot.jvm.JdbcDatabaseSnapshotGenerator;
 import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.*;
+import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.MarkChangeSetRanStatement;
+import liquibase.statement.core.RemoveChangeSetRanStatusStatement;
+import liquibase.statement.core.UpdateChangeSetChecksumStatement;
+import liquibase.statement.core.UpdateStatement;
 import liquibase.util.JdbcUtils;
 import liquibase.util.StringUtils;
 import liquibase.snapshot.DatabaseSnapshotGeneratorFactory;
 
+import java.sql.BatchUpdateException;
 import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -34,8 +46,22 @@ import java.util.Map;
 @SuppressWarnings({"unchecked"})
 public class JdbcExecutor extends AbstractExecutor implements Executor {
 
+    /**
+     * System property holding the maximum number of SQL statements sent in one JDBC batch by
+     * {@link #executeBatch(List, List)}.  A value of 1 or less disables batching.
+     */
+    public static final String BATCH_SIZE_PROPERTY = "liquibase.batchSize";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
     private Logger log = LogFactory.getLogger();
 
+    private int batchSize = -1;
+    private Boolean supportsBatchUpdates;
+
+    private PreparedStatementFactory preparedStatementFactory;
+    private DatabaseConnection preparedStatementConnection;
+
     public boolean updatesDatabase() {
         return true;
     }
@@ -70,8 +96,8 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
     }
 
     public void execute(final SqlStatement sql, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
-        if(sql instanceof ExecutablePreparedStatement) {
-            ((ExecutablePreparedStatement) sql).execute(new PreparedStatementFactory((JdbcConnection)database.getConnection()));
+        if(sql instanceof ExecutablePreparedStatement && !hasVisitedSql(sql, sqlVisitors)) {
+            ((ExecutablePreparedStatement) sql).execute(getPreparedStatementFactory());
             return;
         }
 
@@ -83,6 +109,7 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
                         statement = statement.replaceFirst("/\\s*/\\s*$", ""); //remove duplicated /'s
                     }
 
+                    clearPreparedStatementsIfSchemaChanges(statement);
                     log.debug("Executing EXECUTE database command: "+statement);
                     if (statement.contains("?")) {
                         stmt.setEscapeProcessing(false);
@@ -103,12 +130,276 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
         execute(new ExecuteStatementCallback(), sqlVisitors);
     }
 
+    /**
+     * Sends the SQL generated for the statements with {@link Statement#addBatch(String)}, flushing every
+     * {@link #getBatchSize()} statements.  Consecutive {@link BatchablePreparedStatement}s with the same SQL are batched
+     * with {@link PreparedStatement#addBatch()} instead.  Only statements {@link #isBatchable(SqlStatement)} accepts are
+     * batched; the others (including raw SQL, which may return rows, and SQL containing parameter markers) flush the
+     * pending batch and are executed on their own, so the order of the statements is kept.
+     */
+    public void executeBatch(List<SqlStatement> sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        if (getBatchSize() <= 1 || !supportsBatchUpdates()) {
+            for (SqlStatement statement : sql) {
+                execute(statement, sqlVisitors);
+            }
+            return;
+        }
+
+        List<String> batch = new ArrayList<String>();
+        PreparedBatch preparedBatch = new PreparedBatch();
+        for (SqlStatement statement : sql) {
+            if (statement instanceof BatchablePreparedStatement && !hasVisitedSql(statement, sqlVisitors)) {
+                executeBatch(batch);
+                batch.clear();
+                List<Object> parameters = new ArrayList<Object>();
+                String preparedSql = ((BatchablePreparedStatement) statement).generatePreparedSql(database, parameters);
+                if (preparedSql != null) {
+                    preparedBatch.add(preparedSql, parameters);
+                    continue;
+                }
+            }
+            preparedBatch.flush();
+
+            String[] statementSql = null;
+            if (isBatchable(statement)
+                    && !(statement instanceof ExecutablePreparedStatement)
+                    && !SqlGeneratorFactory.getInstance().queriesDatabase(statement, database)) {
+                statementSql = applyVisitors(statement, sqlVisitors);
+                for (String statementString : statementSql) {
+                    if (statementString != null && statementString.contains("?")) {
+                        statementSql = null;
+                        break;
+                    }
+                }
+            }
+
+            if (statementSql == null) {
+                executeBatch(batch);
+                batch.clear();
+                execute(statement, sqlVisitors);
+                continue;
+            }
+
+            for (String statementString : statementSql) {
+                if (statementString == null) {
+                    continue;
+                }
+                if (database instanceof OracleDatabase) {
+                    statementString = statementString.replaceFirst("/\\s*/\\s*$", ""); //remove duplicated /'s
+                }
+                batch.add(statementString);
+                if (batch.size() >= getBatchSize()) {
+                    executeBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        preparedBatch.flush();
+        executeBatch(batch);
+    }
+
+    /**
+     * Returns true for statements that only insert, update or delete rows, whose SQL may be sent in a batch because it
+     * never returns a result set.  The SQL generated for an insert-or-update may be a procedural block, so it is not batched.
+     */
+    protected boolean isBatchable(SqlStatement statement) {
+        if (statement instanceof InsertOrUpdateStatement) {
+            return false;
+        }
+        return statement instanceof InsertStatement
+                || statement instanceof InsertSetStatement
+                || statement instanceof UpdateStatement
+                || statement instanceof DeleteStatement
+                || statement instanceof MarkChangeSetRanStatement
+                || statement instanceof UpdateChangeSetChecksumStatement
+                || statement instanceof RemoveChangeSetRanStatusStatement;
+    }
+
+    /**
+     * Parameter values of consecutive prepared statements with the same SQL, sent to the database as one batch.
+     */
+    private class PreparedBatch {
+        private String sql;
+        private PreparedStatement stmt;
+        private int size;
+
+        public void add(String sql, List<Object> parameters) throws DatabaseException {
+            if (!sql.equals(this.sql)) {
+                flush();
+                this.sql = sql;
+                this.stmt = getPreparedStatementFactory().prepare(sql);
+            }
+            getPreparedStatementFactory().setParameters(stmt, parameters);
+            try {
+                stmt.addBatch();
+            } catch (SQLException ex) {
+                throw new DatabaseException("Error executing SQL " + sql + ": " + ex.getMessage(), ex);
+            }
+            size++;
+            if (size >= getBatchSize()) {
+                flush();
+            }
+        }
+
+        public void flush() throws DatabaseException {
+            if (size == 0) {
+                return;
+            }
+            try {
+                log.debug("Executing PREPARED BATCH database command: "+sql+" ("+size+" rows)");
+                stmt.executeBatch();
+            } catch (SQLException ex) {
+                throw new DatabaseException("Error executing SQL " + sql + ": " + ex.getMessage(), ex);
+            } finally {
+                // the cached statement may be closed by later schema changes, so it is prepared again for the next batch
+                sql = null;
+                stmt = null;
+                size = 0;
+            }
+        }
+    }
+
+    private void executeBatch(List<String> sql) throws DatabaseException {
+        if (sql.isEmpty()) {
+            return;
+        }
+        DatabaseConnection con = database.getConnection();
+        Statement stmt = null;
+        try {
+            stmt = ((JdbcConnection) con).getUnderlyingConnection().createStatement();
+            for (String statement : sql) {
+                clearPreparedStatementsIfSchemaChanges(statement);
+                log.debug("Executing BATCH database command: "+statement);
+                stmt.addBatch(statement);
+            }
+            stmt.executeBatch();
+        } catch (BatchUpdateException ex) {
+            throw new DatabaseException("Error executing SQL " + getFailedStatement(sql, ex.getUpdateCounts()) + "; on "+ con.getURL()+": "+ex.getMessage(), ex);
+        } catch (SQLException ex) {
+            throw new DatabaseException("Error executing SQL " + StringUtils.join(sql, "; ") + "; on "+ con.getURL()+": "+ex.getMessage(), ex);
+        } finally {
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+
+    /**
+     * Drivers either stop at the first failing statement, returning the counts of those before it, or continue and
+     * mark the failures with {@link Statement#EXECUTE_FAILED}.
+     */
+    private String getFailedStatement(List<String> sql, int[] updateCounts) {
+        if (updateCounts != null) {
+            if (updateCounts.length < sql.size()) {
+                return sql.get(updateCounts.length);
+            }
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    return sql.get(i);
+                }
+            }
+        }
+        return StringUtils.join(sql, "; ");
+    }
+
+    /**
+     * Prepared statements are executed from the sql their generator creates when sql visitors need to modify it.
+     */
+    private boolean hasVisitedSql(SqlStatement sql, List<SqlVisitor> sqlVisitors) {
+        return sqlVisitors != null && sqlVisitors.size() > 0 && SqlGeneratorFactory.getInstance().generateSql(sql, database).length > 0;
+    }
+
+    /**
+     * Returns the factory for the current connection, which keeps the prepared statements of
+     * {@link ExecutablePreparedStatement}s for reuse.
+     */
+    protected PreparedStatementFactory getPreparedStatementFactory() {
+        if (preparedStatementFactory == null || preparedStatementConnection != database.getConnection()) {
+            if (preparedStatementFactory != null) {
+                preparedStatementFactory.clearCache();
+            }
+            preparedStatementFactory = new PreparedStatementFactory(database);
+            preparedStatementConnection = database.getConnection();
+        }
+        return preparedStatementFactory;
+    }
+
+    /**
+     * Closes the prepared statements kept for reuse, which otherwise stay open on the connection until it is closed.
+     * Called by {@link liquibase.executor.ExecutorService} when the executor is released.
+     */
+    public void closePreparedStatements() {
+        if (preparedStatementFactory != null) {
+            preparedStatementFactory.clearCache();
+            preparedStatementFactory = null;
+            preparedStatementConnection = null;
+        }
+    }
+
+    /**
+     * Cached prepared statements may no longer match tables that are altered, so they are dropped for anything but DML.
+     */
+    private void clearPreparedStatementsIfSchemaChanges(String statement) {
+        if (preparedStatementFactory == null) {
+            return;
+        }
+        String keyword = statement.trim().toUpperCase();
+        if (!keyword.startsWith("INSERT") && !keyword.startsWith("UPDATE") && !keyword.startsWith("DELETE") && !keyword.startsWith("SELECT")) {
+            preparedStatementFactory.clearCache();
+        }
+    }
+
+    public int getBatchSize() {
+        if (batchSize < 0) {
+            String value = System.getProperty(BATCH_SIZE_PROPERTY);
+            if (value != null && value.trim().length() > 0) {
+                try {
+                    batchSize = Integer.parseInt(value.trim());
+                } catch (NumberFormatException e) {
+                    throw new UnexpectedLiquibaseException("Invalid value for " + BATCH_SIZE_PROPERTY + ": " + value);
+                }
+            } else {
+                batchSize = DEFAULT_BATCH_SIZE;
+            }
+        }
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    private boolean supportsBatchUpdates() {
+        if (supportsBatchUpdates == null) {
+            supportsBatchUpdates = false;
+            DatabaseConnection con = database.getConnection();
+            if (con instanceof JdbcConnection) {
+                try {
+                    supportsBatchUpdates = ((JdbcConnection) con).getUnderlyingConnection().getMetaData().supportsBatchUpdates();
+                } catch (SQLException e) {
+                    log.debug("Cannot determine batch update support: "+e.getMessage());
+                }
+            }
+        }
+        return supportsBatchUpdates;
+    }
+
 
     public Object query(final SqlStatement sql, final ResultSetExtractor rse) throws DatabaseException {
         return query(sql, rse, new ArrayList<SqlVisitor>());
     }
 
     public Object query(final SqlStatement sql, final ResultSetExtractor rse, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        return query(sql, rse, sqlVisitors, 0);
+    }
+
+    /**
+     * Passes each row of the result to the handler without collecting the rows first.  The driver is asked to fetch
+     * fetchSize rows at a time if it is greater than 0.
+     */
+    public void query(final SqlStatement sql, final RowCallbackHandler rch, int fetchSize) throws DatabaseException {
+        query(sql, new RowCallbackHandlerResultSetExtractor(rch), new ArrayList<SqlVisitor>(), fetchSize);
+    }
+
+    private Object query(final SqlStatement sql, final ResultSetExtractor rse, final List<SqlVisitor> sqlVisitors, final int fetchSize) throws DatabaseException {
         if (sql instanceof CallableSqlStatement) {
             throw new DatabaseException("Direct query using CallableSqlStatement not currently implemented");
         }
@@ -124,6 +415,9 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
                     }
                     log.debug("Executing QUERY database command: "+sqlToExecute[0]);
 
+                    if (fetchSize > 0) {
+                        stmt.setFetchSize(fetchSize);
+                    }
                     rs = stmt.executeQuery(sqlToExecute[0]);
                     ResultSet rsToUse = rs;
                     return rse.extractData(rsToUse);
@@ -1,6 +1,7 @@
 package liquibase.executor.jvm;
 
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 /**
  * An interface used by {@link liquibase.executor.Executor} for processing rows of a
@@ -22,7 +23,7 @@ import java.sql.ResultSet;
  * @see RowMapper
  * @see ResultSetExtractor
  */
-interface RowCallbackHandler {
+public interface RowCallbackHandler {
 
     /**
      * Implementations must implement this method to process each row of data
@@ -36,6 +37,6 @@ interface RowCallbackHandler {
      * @throws java.sql.SQLException if a SQLException is encountered getting
      *                               column values (that is, there's no need to catch SQLException)
      */
-    void processRow(ResultSet rs);
+    void processRow(ResultSet rs) throws SQLException;
 
 }
@@ -4,6 +4,7 @@ import liquibase.Liquibase;
 import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.database.jvm.JdbcConnection;
+import liquibase.database.jvm.JdbcConnectionFactory;
 import liquibase.exception.DatabaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
@@ -24,6 +25,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.sql.Connection;
 import java.sql.Driver;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -236,9 +238,9 @@ public class BaseLiquibaseTask extends Task {
             throw new DatabaseException("driver not specified and no default could be found for " + databaseUrl);
         }
 
-        Driver driver = (Driver) Class.forName(driverClassName, true, loader).newInstance();
+        final Driver driver = (Driver) Class.forName(driverClassName, true, loader).newInstance();
 
-        Properties info = new Properties();
+        final Properties info = new Properties();
         if (username != null) {
             info.put("user", username);
         }
@@ -251,7 +253,12 @@ public class BaseLiquibaseTask extends Task {
             throw new DatabaseException("Connection could not be created to " + databaseUrl + " with driver " + driver.getClass().getName() + ".  Possibly the wrong driver for the given database URL");
         }
 
-        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        final String url = databaseUrl;
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection, new JdbcConnectionFactory() {
+            public Connection openConnection() throws SQLException {
+                return driver.connect(url, info);
+            }
+        }));
         database.setDefaultCatalogName(defaultCatalogName);
         database.setDefaultSchemaName(defaultSchemaName);
 
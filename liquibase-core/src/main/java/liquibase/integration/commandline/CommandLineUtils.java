@@ -3,6 +3,7 @@ package liquibase.integration.commandline;
 import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.database.jvm.JdbcConnection;
+import liquibase.database.jvm.JdbcConnectionFactory;
 import liquibase.database.structure.Schema;
 import liquibase.diff.DiffControl;
 import liquibase.diff.DiffGeneratorFactory;
@@ -101,7 +102,14 @@ public class CommandLineUtils {
                 throw new DatabaseException("Connection could not be created to " + url + " with driver " + driverObject.getClass().getName() + ".  Possibly the wrong driver for the given database URL");
             }
 
-            Database database = databaseFactory.findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            final Driver connectionDriver = driverObject;
+            final String connectionUrl = url;
+            final Properties connectionProperties = driverProperties;
+            Database database = databaseFactory.findCorrectDatabaseImplementation(new JdbcConnection(connection, new JdbcConnectionFactory() {
+                public Connection openConnection() throws SQLException {
+                    return connectionDriver.connect(connectionUrl, connectionProperties);
+                }
+            }));
             database.setDefaultCatalogName(StringUtils.trimToNull(defaultCatalogName));
             database.setDefaultSchemaName(StringUtils.trimToNull(defaultSchemaName));
             return database;
@@ -4,6 +4,7 @@ import liquibase.Liquibase;
 import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.database.jvm.JdbcConnection;
+import liquibase.database.jvm.JdbcConnectionFactory;
 import liquibase.logging.LogFactory;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.resource.CompositeResourceAccessor;
@@ -18,6 +19,7 @@ import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Enumeration;
 
 /**
@@ -120,7 +122,7 @@ public class LiquibaseServletListener implements ServletContextListener {
             Connection connection = null;
             try {
                 ic = new InitialContext();
-                DataSource dataSource = (DataSource) ic.lookup(this.dataSource);
+                final DataSource dataSource = (DataSource) ic.lookup(this.dataSource);
 
                 connection = dataSource.getConnection();
 
@@ -132,7 +134,11 @@ public class LiquibaseServletListener implements ServletContextListener {
                 ResourceAccessor fsFO = new FileSystemResourceAccessor();
 
 
-                Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+                Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection, new JdbcConnectionFactory() {
+                    public Connection openConnection() throws SQLException {
+                        return dataSource.getConnection();
+                    }
+                }));
                 database.setDefaultSchemaName(this.defaultSchema);
                 Liquibase liquibase = new Liquibase(getChangeLogFile(), new CompositeResourceAccessor(clFO,fsFO, threadClFO), database);
 
@@ -144,6 +150,10 @@ public class LiquibaseServletListener implements ServletContextListener {
                     }
                 }
 
+                if (Boolean.valueOf(servletContextEvent.getServletContext().getInitParameter(Liquibase.USE_FINGERPRINT_SYSTEM_PROPERTY))) {
+                    liquibase.setUseChangeLogFingerprint(true);
+                }
+
                 liquibase.update(getContexts());
             } finally {
                 if (ic != null) {
@@ -16,6 +16,7 @@ import liquibase.Liquibase;
 import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.database.jvm.JdbcConnection;
+import liquibase.database.jvm.JdbcConnectionFactory;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.logging.LogFactory;
@@ -139,6 +140,8 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
 
     private boolean shouldRun = true;
 
+    private boolean useChangeLogFingerprint = false;
+
     public SpringLiquibase() {
         super();
     }
@@ -155,6 +158,18 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
         this.shouldRun = shouldRun;
     }
 
+    public boolean isUseChangeLogFingerprint() {
+        return useChangeLogFingerprint;
+    }
+
+    /**
+     * If true, application starts with an up-to-date database return after a single fingerprint query instead of locking
+     * and checking every change set.  See {@link Liquibase#setUseChangeLogFingerprint(boolean)}.
+     */
+    public void setUseChangeLogFingerprint(boolean useChangeLogFingerprint) {
+        this.useChangeLogFingerprint = useChangeLogFingerprint;
+    }
+
     public String getDatabaseProductName() throws DatabaseException {
         Connection connection = null;
         String name = "unknown";
@@ -273,6 +288,9 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
 
     protected Liquibase createLiquibase(Connection c) throws LiquibaseException {
         Liquibase liquibase = new Liquibase(getChangeLog(), createResourceOpener(), createDatabase(c));
+        if (isUseChangeLogFingerprint()) {
+            liquibase.setUseChangeLogFingerprint(true);
+        }
         if (parameters != null) {
             for(Map.Entry<String, String> entry: parameters.entrySet()) {
                 liquibase.setChangeLogParameter(entry.getKey(), entry.getValue());
@@ -294,7 +312,11 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
      * @throws DatabaseException
      */
     protected Database createDatabase(Connection c) throws DatabaseException {
-        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(c));
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(c, new JdbcConnectionFactory() {
+            public Connection openConnection() throws SQLException {
+                return getDataSource().getConnection();
+            }
+        }));
         if (StringUtils.trimToNull(this.defaultSchema) != null) {
             database.setDefaultSchemaName(this.defaultSchema);
         }
@@ -19,11 +19,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps other Liquibase instances from changing the database at the same time.  By default the lock is a row in the
+ * DATABASECHANGELOGLOCK table which is polled until it is free.  With liquibase.lockService.native set to true a
+ * {@link LockStrategy} supporting the database is acquired first, see {@link LockStrategyFactory}, so instances using
+ * native locks wait for each other without polling.  The row in DATABASECHANGELOGLOCK is still taken while the native
+ * lock is held, which keeps out instances that only use the lock table.  Like without native locks, a process that dies
+ * holding the lock leaves the row locked until it is released with {@link #forceReleaseLock()}.
+ */
 public class LockService {
 
     private Database database;
 
     private boolean hasChangeLogLock = false;
+    private boolean hasNativeLock = false;
+
+    private LockStrategy strategy;
+    private boolean strategyLoaded = false;
 
     private long changeLogLockWaitTime = 1000 * 60 * 5;  //default to 5 mins
     private long changeLogLocRecheckTime = 1000 * 10;  //default to every 10 seconds
@@ -54,22 +66,27 @@ public class LockService {
     }
 
     public void waitForLock() throws LockException {
-
-        boolean locked = false;
+        if (hasChangeLogLock) {
+            return;
+        }
         long timeToGiveUp = new Date().getTime() + changeLogLockWaitTime;
+        if (getStrategy() != null && !acquireNativeLock(changeLogLockWaitTime)) {
+            throw new LockException("Could not acquire change log lock within " + changeLogLockWaitTime + "ms.  Currently locked by another connection");
+        }
+
+        boolean locked = acquireTableLock();
         while (!locked && new Date().getTime() < timeToGiveUp) {
-            locked = acquireLock();
-            if (!locked) {
-                LogFactory.getLogger().info("Waiting for changelog lock....");
-                try {
-                    Thread.sleep(changeLogLocRecheckTime);
-                } catch (InterruptedException e) {
-                    ;
-                }
+            LogFactory.getLogger().info("Waiting for changelog lock....");
+            try {
+                Thread.sleep(changeLogLocRecheckTime);
+            } catch (InterruptedException e) {
+                ;
             }
+            locked = acquireTableLock();
         }
 
         if (!locked) {
+            releaseNativeLock();
             DatabaseChangeLogLock[] locks = listLocks();
             String lockedBy;
             if (locks.length > 0) {
@@ -86,7 +103,17 @@ public class LockService {
         if (hasChangeLogLock) {
             return true;
         }
+        if (getStrategy() != null && !acquireNativeLock(0)) {
+            return false;
+        }
+        if (!acquireTableLock()) {
+            releaseNativeLock();
+            return false;
+        }
+        return true;
+    }
 
+    private boolean acquireTableLock() throws LockException {
         Executor executor = ExecutorService.getInstance().getExecutor(database);
 
         try {
@@ -129,6 +156,45 @@ public class LockService {
 
     }
 
+    private boolean acquireNativeLock(long timeout) throws LockException {
+        if (hasNativeLock) {
+            return true;
+        }
+        try {
+            database.rollback();
+            if (!strategy.acquireLock(database, timeout)) {
+                return false;
+            }
+            LogFactory.getLogger().debug("Acquired native change log lock");
+
+            hasNativeLock = true;
+            return true;
+        } catch (DatabaseException e) {
+            throw new LockException(e);
+        } finally {
+            try {
+                database.rollback();
+            } catch (DatabaseException e) {
+                ;
+            }
+        }
+    }
+
+    private void releaseNativeLock() throws LockException {
+        if (hasNativeLock) {
+            hasNativeLock = false;
+            strategy.releaseLock(database);
+        }
+    }
+
+    private LockStrategy getStrategy() {
+        if (!strategyLoaded) {
+            strategy = LockStrategyFactory.getInstance().getStrategy(database);
+            strategyLoaded = true;
+        }
+        return strategy;
+    }
+
     public void releaseLock() throws LockException {
         Executor executor = ExecutorService.getInstance().getExecutor(database);
         try {
@@ -144,6 +210,11 @@ public class LockService {
         } catch (Exception e) {
             throw new LockException(e);
         } finally {
+            try {
+                releaseNativeLock();
+            } catch (LockException e) {
+                LogFactory.getLogger().warning("Could not release native change log lock: " + e.getMessage());
+            }
             try {
                 hasChangeLogLock = false;
 
@@ -187,7 +258,8 @@ public class LockService {
     }
 
     /**
-     * Releases whatever locks are on the database change log table
+     * Releases whatever locks are on the database change log table.  Native locks can only be released by the
+     * connection holding them, and are released by the database when that connection closes.
      */
     public void forceReleaseLock() throws LockException, DatabaseException {
         database.checkDatabaseChangeLogLockTable();
@@ -205,6 +277,7 @@ public class LockService {
      */
     public void reset() {
         hasChangeLogLock = false;
+        hasNativeLock = false;
     }
 
     public static void resetAll() {
@@ -0,0 +1,26 @@
+package liquibase.lockservice;
+
+import liquibase.database.Database;
+import liquibase.exception.LockException;
+import liquibase.servicelocator.PrioritizedService;
+
+/**
+ * A database-native lock that {@link LockService} acquires before the DATABASECHANGELOGLOCK table when
+ * liquibase.lockService.native is true.  Native locks belong to the connection, so waiters are woken by the database as
+ * soon as the lock is released instead of polling the table.  Implementations must lock in the database, not only
+ * within the JVM, since other processes have to be kept out as well.
+ * Implementations are found with the {@link liquibase.servicelocator.ServiceLocator}, see {@link LockStrategyFactory}.
+ */
+public interface LockStrategy extends PrioritizedService {
+
+    boolean supports(Database database);
+
+    /**
+     * Acquires the lock, waiting at most timeout milliseconds for it.  A timeout of 0 does not wait.
+     *
+     * @return true if the lock was acquired
+     */
+    boolean acquireLock(Database database, long timeout) throws LockException;
+
+    void releaseLock(Database database) throws LockException;
+}
@@ -0,0 +1,69 @@
+package liquibase.lockservice;
+
+import liquibase.database.Database;
+import liquibase.servicelocator.ServiceLocator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LockStrategyFactory {
+
+    public static final String NATIVE_LOCK_SYSTEM_PROPERTY = "liquibase.lockService.native";
+
+    private static LockStrategyFactory instance;
+
+    private List<LockStrategy> registry = new ArrayList<LockStrategy>();
+
+    private LockStrategyFactory() {
+        try {
+            Class[] classes = ServiceLocator.getInstance().findClasses(LockStrategy.class);
+
+            for (Class<? extends LockStrategy> clazz : classes) {
+                register(clazz.getConstructor().newInstance());
+            }
+
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static synchronized LockStrategyFactory getInstance() {
+        if (instance == null) {
+            instance = new LockStrategyFactory();
+        }
+        return instance;
+    }
+
+    public static void reset() {
+        instance = null;
+    }
+
+    public void register(LockStrategy strategy) {
+        registry.add(0, strategy);
+    }
+
+    public void unregister(LockStrategy strategy) {
+        registry.remove(strategy);
+    }
+
+    public List<LockStrategy> getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Returns the highest priority strategy supporting the database, or null if native locks are not enabled with
+     * liquibase.lockService.native or no strategy supports the database, in which case the lock table is used.
+     */
+    public LockStrategy getStrategy(Database database) {
+        if (!Boolean.getBoolean(NATIVE_LOCK_SYSTEM_PROPERTY)) {
+            return null;
+        }
+        LockStrategy returnStrategy = null;
+        for (LockStrategy strategy : registry) {
+            if (strategy.supports(database) && (returnStrategy == null || strategy.getPriority() > returnStrategy.getPriority())) {
+                returnStrategy = strategy;
+            }
+        }
+        return returnStrategy;
+    }
+}
@@ -0,0 +1,66 @@
+package liquibase.lockservice.core;
+
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LockException;
+import liquibase.lockservice.LockStrategy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Base class for locks taken with SQL on the JDBC connection of the database.  The lock is named after the lock table,
+ * so change logs using different lock tables do not block each other.
+ */
+public abstract class AbstractJdbcLockStrategy implements LockStrategy {
+
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    public boolean supports(Database database) {
+        return database.getConnection() instanceof JdbcConnection;
+    }
+
+    public boolean acquireLock(Database database, long timeout) throws LockException {
+        try {
+            return lock(getConnection(database), getLockName(database), timeout);
+        } catch (SQLException e) {
+            throw new LockException(e);
+        }
+    }
+
+    public void releaseLock(Database database) throws LockException {
+        try {
+            unlock(getConnection(database), getLockName(database));
+        } catch (SQLException e) {
+            throw new LockException(e);
+        }
+    }
+
+    /**
+     * Acquires the lock for the connection's session, waiting at most timeout milliseconds.
+     */
+    protected abstract boolean lock(Connection connection, String lockName, long timeout) throws SQLException;
+
+    protected abstract void unlock(Connection connection, String lockName) throws SQLException;
+
+    protected String getLockName(Database database) {
+        String schemaName = database.getLiquibaseSchemaName();
+        if (schemaName == null) {
+            return "liquibase." + database.getDatabaseChangeLogLockTableName();
+        }
+        return "liquibase." + schemaName + "." + database.getDatabaseChangeLogLockTableName();
+    }
+
+    protected Connection getConnection(Database database) {
+        return ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+    }
+
+    /**
+     * Converts a timeout in milliseconds to whole seconds, rounding up.
+     */
+    protected int toSeconds(long timeout) {
+        return (int) Math.min(Integer.MAX_VALUE, (timeout + 999) / 1000);
+    }
+}
@@ -0,0 +1,46 @@
+package liquibase.lockservice.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Uses an exclusive sp_getapplock owned by the session.
+ */
+public class MSSQLLockStrategy extends AbstractJdbcLockStrategy {
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof MSSQLDatabase && super.supports(database);
+    }
+
+    @Override
+    protected boolean lock(Connection connection, String lockName, long timeout) throws SQLException {
+        CallableStatement stmt = connection.prepareCall("{? = call sp_getapplock(?, 'Exclusive', 'Session', ?)}");
+        try {
+            stmt.registerOutParameter(1, Types.INTEGER);
+            stmt.setString(2, lockName);
+            stmt.setInt(3, (int) Math.min(Integer.MAX_VALUE, timeout));
+            stmt.execute();
+            return stmt.getInt(1) >= 0;
+        } finally {
+            stmt.close();
+        }
+    }
+
+    @Override
+    protected void unlock(Connection connection, String lockName) throws SQLException {
+        CallableStatement stmt = connection.prepareCall("{? = call sp_releaseapplock(?, 'Session')}");
+        try {
+            stmt.registerOutParameter(1, Types.INTEGER);
+            stmt.setString(2, lockName);
+            stmt.execute();
+        } finally {
+            stmt.close();
+        }
+    }
+}
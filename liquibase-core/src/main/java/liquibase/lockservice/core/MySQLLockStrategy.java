@@ -0,0 +1,48 @@
+package liquibase.lockservice.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Uses GET_LOCK and RELEASE_LOCK.  GET_LOCK waits in whole seconds.
+ */
+public class MySQLLockStrategy extends AbstractJdbcLockStrategy {
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof MySQLDatabase && super.supports(database);
+    }
+
+    @Override
+    protected boolean lock(Connection connection, String lockName, long timeout) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement("SELECT GET_LOCK(?, ?)");
+        try {
+            stmt.setString(1, lockName);
+            stmt.setInt(2, toSeconds(timeout));
+            ResultSet rs = stmt.executeQuery();
+            try {
+                return rs.next() && rs.getInt(1) == 1;
+            } finally {
+                rs.close();
+            }
+        } finally {
+            stmt.close();
+        }
+    }
+
+    @Override
+    protected void unlock(Connection connection, String lockName) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement("SELECT RELEASE_LOCK(?)");
+        try {
+            stmt.setString(1, lockName);
+            stmt.executeQuery().close();
+        } finally {
+            stmt.close();
+        }
+    }
+}
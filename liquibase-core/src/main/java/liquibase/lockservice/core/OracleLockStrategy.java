@@ -0,0 +1,58 @@
+package liquibase.lockservice.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.OracleDatabase;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Uses an exclusive DBMS_LOCK user lock that is kept across commits.  The lock id is derived from the lock name rather
+ * than allocated with DBMS_LOCK.ALLOCATE_UNIQUE, which commits.  Requires EXECUTE on DBMS_LOCK.
+ */
+public class OracleLockStrategy extends AbstractJdbcLockStrategy {
+
+    private static final int SUCCESS = 0;
+    private static final int ALREADY_OWNED = 4;
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof OracleDatabase && super.supports(database);
+    }
+
+    @Override
+    protected boolean lock(Connection connection, String lockName, long timeout) throws SQLException {
+        CallableStatement stmt = connection.prepareCall("BEGIN ? := DBMS_LOCK.REQUEST(?, DBMS_LOCK.X_MODE, ?, FALSE); END;");
+        try {
+            stmt.registerOutParameter(1, Types.INTEGER);
+            stmt.setInt(2, getLockId(lockName));
+            stmt.setInt(3, toSeconds(timeout));
+            stmt.execute();
+            int result = stmt.getInt(1);
+            return result == SUCCESS || result == ALREADY_OWNED;
+        } finally {
+            stmt.close();
+        }
+    }
+
+    @Override
+    protected void unlock(Connection connection, String lockName) throws SQLException {
+        CallableStatement stmt = connection.prepareCall("BEGIN ? := DBMS_LOCK.RELEASE(?); END;");
+        try {
+            stmt.registerOutParameter(1, Types.INTEGER);
+            stmt.setInt(2, getLockId(lockName));
+            stmt.execute();
+        } finally {
+            stmt.close();
+        }
+    }
+
+    /**
+     * User lock ids range from 0 to 1073741823.
+     */
+    private int getLockId(String lockName) {
+        return lockName.hashCode() & 0x3fffffff;
+    }
+}
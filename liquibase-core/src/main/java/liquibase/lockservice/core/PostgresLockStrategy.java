@@ -0,0 +1,60 @@
+package liquibase.lockservice.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Uses a session level pg_advisory_lock keyed by the hash of the lock name.
+ */
+public class PostgresLockStrategy extends AbstractJdbcLockStrategy {
+
+    private static final String QUERY_CANCELED = "57014";
+
+    @Override
+    public boolean supports(Database database) {
+        return database instanceof PostgresDatabase && super.supports(database);
+    }
+
+    @Override
+    protected boolean lock(Connection connection, String lockName, long timeout) throws SQLException {
+        PreparedStatement stmt;
+        if (timeout <= 0) {
+            stmt = connection.prepareStatement("SELECT pg_try_advisory_lock(?)");
+        } else {
+            stmt = connection.prepareStatement("SELECT pg_advisory_lock(?)");
+            stmt.setQueryTimeout(toSeconds(timeout));
+        }
+        try {
+            stmt.setLong(1, lockName.hashCode());
+            ResultSet rs = stmt.executeQuery();
+            try {
+                return rs.next() && (timeout > 0 || rs.getBoolean(1));
+            } finally {
+                rs.close();
+            }
+        } catch (SQLException e) {
+            if (QUERY_CANCELED.equals(e.getSQLState())) {
+                return false;
+            }
+            throw e;
+        } finally {
+            stmt.close();
+        }
+    }
+
+    @Override
+    protected void unlock(Connection connection, String lockName) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement("SELECT pg_advisory_unlock(?)");
+        try {
+            stmt.setLong(1, lockName.hashCode());
+            stmt.executeQuery().close();
+        } finally {
+            stmt.close();
+        }
+    }
+}
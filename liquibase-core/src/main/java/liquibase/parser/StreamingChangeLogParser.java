@@ -0,0 +1,23 @@
+package liquibase.parser;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * A parser that can hand out change sets while it reads the changelog, so changelogs of any size can be processed
+ * without holding all their changes in memory.
+ */
+public interface StreamingChangeLogParser extends ChangeLogParser {
+
+    /**
+     * Parses the changelog, passing each change set to the visitor as soon as it is complete, in changelog order and
+     * including those of included changelogs.  Afterwards the changes of the change set are released (see
+     * {@link liquibase.changelog.ChangeSet#releaseChanges()}), so the returned changelog only holds the identity,
+     * attributes and checksum of its change sets.  Exceptions thrown by the visitor stop the parse and are rethrown.
+     */
+    public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor, ChangeSetVisitor changeSetVisitor, Database database) throws LiquibaseException;
+}
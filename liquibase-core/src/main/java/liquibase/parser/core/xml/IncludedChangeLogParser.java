@@ -0,0 +1,139 @@
+package liquibase.parser.core.xml;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ResourceAccessor;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses changelogs referenced by include and includeAll tags.  By default they are parsed one after the other in the
+ * thread parsing the including changelog.  Setting the {@value #THREADS_PROPERTY} system property to a number greater
+ * than one parses them concurrently on a shared pool of that many daemon threads; {@link XMLChangeLogSAXHandler} still
+ * adds the results in declaration order.
+ * <p>
+ * A thread waiting for a result runs the parse itself if no pool thread has started it yet, so nested includes can use
+ * the same bounded pool without deadlocking.
+ * <p>
+ * Each concurrently parsed changelog sees the properties defined before its include tag, and the properties it defines
+ * are added in include order once it has been parsed (see {@link ChangeLogParameters#createIncludedParameters()}).
+ * Results do not depend on which parse finishes first, but an included changelog does not see properties defined by the
+ * changelogs included before it, so only enable concurrent parsing if included changelogs do not rely on those.
+ */
+public class IncludedChangeLogParser {
+
+    public static final String THREADS_PROPERTY = "liquibase.parallelIncludeThreads";
+
+    private static IncludedChangeLogParser instance;
+
+    private ExecutorService executorService;
+
+    public static synchronized IncludedChangeLogParser getInstance() {
+        if (instance == null) {
+            int threads = 1;
+            String value = System.getProperty(THREADS_PROPERTY);
+            if (value != null && value.trim().length() > 0) {
+                threads = Integer.parseInt(value.trim());
+            }
+            instance = new IncludedChangeLogParser(threads);
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the shared pool, if any, so the next {@link #getInstance()} call reads {@value #THREADS_PROPERTY} again.
+     */
+    public static synchronized void reset() {
+        if (instance != null) {
+            instance.shutdown();
+        }
+        instance = null;
+    }
+
+    /**
+     * Creates a parser using the given number of threads.  One thread or less parses included changelogs in the calling thread.
+     */
+    public IncludedChangeLogParser(int threads) {
+        if (threads > 1) {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            executorService = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "liquibase-include-parser-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+    public boolean isParallel() {
+        return executorService != null;
+    }
+
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Starts parsing the given changelog.  Pass the returned value to {@link #getResult(Future)} for the parsed changelog.
+     */
+    public Future<DatabaseChangeLog> submit(final String fileName, final ChangeLogParameters changeLogParameters, final ResourceAccessor resourceAccessor) {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        FutureTask<DatabaseChangeLog> task = new FutureTask<DatabaseChangeLog>(new Callable<DatabaseChangeLog>() {
+            public DatabaseChangeLog call() throws Exception {
+                Thread thread = Thread.currentThread();
+                ClassLoader originalClassLoader = thread.getContextClassLoader();
+                thread.setContextClassLoader(contextClassLoader);
+                try {
+                    return parse(fileName, changeLogParameters, resourceAccessor);
+                } finally {
+                    thread.setContextClassLoader(originalClassLoader);
+                }
+            }
+        });
+        if (executorService == null) {
+            task.run();
+        } else {
+            executorService.execute(task);
+        }
+        return task;
+    }
+
+    /**
+     * Waits for a changelog started with {@link #submit(String, ChangeLogParameters, ResourceAccessor)}, parsing it in the
+     * calling thread if that has not started yet.
+     */
+    public DatabaseChangeLog getResult(Future<DatabaseChangeLog> future) throws LiquibaseException {
+        if (future instanceof FutureTask) {
+            ((FutureTask) future).run();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChangeLogParseException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LiquibaseException) {
+                throw (LiquibaseException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ChangeLogParseException(cause);
+        }
+    }
+
+    public static DatabaseChangeLog parse(String fileName, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws LiquibaseException {
+        return ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor).parse(fileName, changeLogParameters, resourceAccessor);
+    }
+}
@@ -21,6 +21,7 @@ public class LiquibaseEntityResolver implements EntityResolver2 {
 
     private ResourceAccessor resourceAccessor;
     private String basePath;
+    private boolean resolvedExternalEntities;
 
     private Logger log=LogFactory.getLogger();
 
@@ -38,7 +39,18 @@ public class LiquibaseEntityResolver implements EntityResolver2 {
         this.basePath=basePath;
     }
 
+    /**
+     * Returns true if anything besides an XML schema was requested, meaning the parsed content does not only depend on
+     * the changelog file itself.
+     */
+    public boolean hasResolvedExternalEntities() {
+        return resolvedExternalEntities;
+    }
+
    public InputSource resolveEntity(String name, String publicId, String baseURI, String systemId) throws SAXException, IOException {
+       if (systemId == null || !systemId.toLowerCase().endsWith(".xsd")) {
+           resolvedExternalEntities = true;
+       }
        InputSource resolved=null;
        if(systemId!=null && systemId.toLowerCase().endsWith(".xsd")) {
             resolved=tryResolveLiquibaseSchema(systemId, publicId);
@@ -92,6 +104,9 @@ public class LiquibaseEntityResolver implements EntityResolver2 {
 
     public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
         log.warning("Current XML parsers seems to not support EntityResolver2. External entities won't be correctly loaded");
+        if (systemId == null || !systemId.toLowerCase().endsWith(".xsd")) {
+            resolvedExternalEntities = true;
+        }
         return tryResolveLiquibaseSchema(systemId, publicId);
     }
 
@@ -0,0 +1,300 @@
+package liquibase.parser.core.xml;
+
+import liquibase.logging.LogFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional on-disk cache of parsed XML changelogs, so unchanged changelog files do not need to be parsed and validated
+ * against the XSD again.  Enabled by setting the {@value #DIRECTORY_PROPERTY} system property to a writable directory.
+ * <p>
+ * Entries hold the SAX events the validating parser reported for a file, keyed by the md5-sum of the file content, in a
+ * compact binary form with repeated names stored once.  They are replayed into a new {@link XMLChangeLogSAXHandler}, so
+ * changelog parameters, includes and change initialization are applied exactly as for a real parse.
+ * <p>
+ * Entries never change once written, and are written to a temporary file and renamed, so several JVMs may share the directory.
+ */
+public class ParsedChangeLogCache {
+
+    public static final String DIRECTORY_PROPERTY = "liquibase.parsedChangeLogCacheDirectory";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".parsed";
+
+    private static final byte START_ELEMENT = 1;
+    private static final byte END_ELEMENT = 2;
+    private static final byte CHARACTERS = 3;
+    private static final byte END_DOCUMENT = 4;
+
+    private static final int NEW_STRING = -1;
+    private static final int NULL_STRING = -2;
+
+    private static ParsedChangeLogCache instance;
+
+    private File directory;
+
+    public static synchronized ParsedChangeLogCache getInstance() {
+        if (instance == null) {
+            String directory = System.getProperty(DIRECTORY_PROPERTY);
+            if (directory == null || directory.trim().length() == 0) {
+                instance = new ParsedChangeLogCache(null);
+            } else {
+                instance = new ParsedChangeLogCache(new File(directory.trim()));
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Discards the shared instance so the next {@link #getInstance()} call reads {@value #DIRECTORY_PROPERTY} again.
+     */
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    /**
+     * Creates a cache storing its files in the given directory.  A null directory creates a disabled cache.
+     */
+    public ParsedChangeLogCache(File directory) {
+        this.directory = directory;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Sends the events stored for the given content hash to the handler.  Returns false, without calling the handler, if
+     * there is no complete entry.
+     */
+    public boolean replay(String contentHash, ContentHandler handler) throws SAXException {
+        if (!isEnabled() || contentHash == null) {
+            return false;
+        }
+        File file = getFile(contentHash);
+        if (!file.exists()) {
+            return false;
+        }
+
+        List<Object[]> events;
+        try {
+            events = read(file);
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot read parsed changelog cache " + file.getAbsolutePath() + ": " + e.getMessage());
+            return false;
+        }
+
+        handler.startDocument();
+        for (Object[] event : events) {
+            byte type = (Byte) event[0];
+            if (type == START_ELEMENT) {
+                handler.startElement((String) event[1], (String) event[2], (String) event[3], (Attributes) event[4]);
+            } else if (type == END_ELEMENT) {
+                handler.endElement((String) event[1], (String) event[2], (String) event[3]);
+            } else {
+                char[] chars = (char[]) event[1];
+                handler.characters(chars, 0, chars.length);
+            }
+        }
+        handler.endDocument();
+        return true;
+    }
+
+    /**
+     * Returns a handler passing all events to the given handler and remembering them for {@link #store(String, Recorder)}.
+     */
+    public Recorder record(ContentHandler handler) {
+        return new Recorder(handler);
+    }
+
+    /**
+     * Stores the events seen by the recorder under the given content hash.  Failures are logged and otherwise ignored.
+     */
+    public void store(String contentHash, Recorder recorder) {
+        if (!isEnabled() || contentHash == null) {
+            return;
+        }
+        File file = getFile(contentHash);
+        File tempFile = null;
+        try {
+            if (!directory.exists()) {
+                directory.mkdirs();
+            }
+            tempFile = File.createTempFile(contentHash, ".tmp", directory);
+            OutputStream out = new FileOutputStream(tempFile);
+            try {
+                out.write(recorder.toByteArray());
+            } finally {
+                out.close();
+            }
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot write parsed changelog cache " + file.getAbsolutePath() + ": " + e.getMessage());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private File getFile(String contentHash) {
+        return new File(directory, contentHash + FILE_EXTENSION);
+    }
+
+    private List<Object[]> read(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported format");
+            }
+            List<String> strings = new ArrayList<String>();
+            List<Object[]> events = new ArrayList<Object[]>();
+            while (true) {
+                byte type = in.readByte();
+                if (type == START_ELEMENT) {
+                    String uri = readString(in, strings);
+                    String localName = readString(in, strings);
+                    String qName = readString(in, strings);
+                    int attributeCount = in.readInt();
+                    AttributesImpl attributes = new AttributesImpl();
+                    for (int i = 0; i < attributeCount; i++) {
+                        attributes.addAttribute(readString(in, strings), readString(in, strings), readString(in, strings), readString(in, strings), readString(in, strings));
+                    }
+                    events.add(new Object[]{type, uri, localName, qName, attributes});
+                } else if (type == END_ELEMENT) {
+                    events.add(new Object[]{type, readString(in, strings), readString(in, strings), readString(in, strings)});
+                } else if (type == CHARACTERS) {
+                    events.add(new Object[]{type, readString(in, strings).toCharArray()});
+                } else if (type == END_DOCUMENT) {
+                    return events;
+                } else {
+                    throw new IOException("Unexpected event type " + type);
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private String readString(DataInputStream in, List<String> strings) throws IOException {
+        int reference = in.readInt();
+        if (reference == NULL_STRING) {
+            return null;
+        }
+        if (reference != NEW_STRING) {
+            return strings.get(reference);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        String value = new String(bytes, "UTF-8");
+        strings.add(value);
+        return value;
+    }
+
+    /**
+     * Passes SAX events to another handler and encodes them for the cache.
+     */
+    public static class Recorder extends DefaultHandler {
+        private ContentHandler handler;
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private DataOutputStream out = new DataOutputStream(bytes);
+        private Map<String, Integer> strings = new HashMap<String, Integer>();
+
+        private Recorder(ContentHandler handler) {
+            this.handler = handler;
+            try {
+                out.writeInt(FORMAT_VERSION);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void startDocument() throws SAXException {
+            handler.startDocument();
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            handler.endDocument();
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            handler.startElement(uri, localName, qName, attributes);
+            try {
+                out.writeByte(START_ELEMENT);
+                writeString(uri);
+                writeString(localName);
+                writeString(qName);
+                out.writeInt(attributes.getLength());
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    writeString(attributes.getURI(i));
+                    writeString(attributes.getLocalName(i));
+                    writeString(attributes.getQName(i));
+                    writeString(attributes.getType(i));
+                    writeString(attributes.getValue(i));
+                }
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            handler.endElement(uri, localName, qName);
+            try {
+                out.writeByte(END_ELEMENT);
+                writeString(uri);
+                writeString(localName);
+                writeString(qName);
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            handler.characters(ch, start, length);
+            try {
+                out.writeByte(CHARACTERS);
+                writeString(new String(ch, start, length));
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        private byte[] toByteArray() throws IOException {
+            out.writeByte(END_DOCUMENT);
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(NULL_STRING);
+                return;
+            }
+            Integer reference = strings.get(value);
+            if (reference != null) {
+                out.writeInt(reference);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] encoded = value.getBytes("UTF-8");
+            out.writeInt(NEW_STRING);
+            out.writeInt(encoded.length);
+            out.write(encoded);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package liquibase.parser.core.xml;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps parsers created by one {@link SAXParserFactory} for reuse, since creating a parser and its configuration is
+ * expensive compared to parsing a typical changelog.  A parser is only used by one thread at a time; changelogs included
+ * while a parser is in use get their own.
+ */
+class SAXParserPool {
+
+    private static final int MAX_IDLE_PARSERS = 16;
+
+    private SAXParserFactory saxParserFactory;
+    private boolean useSchemaLanguage;
+    private Queue<SAXParser> idleParsers = new ConcurrentLinkedQueue<SAXParser>();
+
+    /**
+     * @param useSchemaLanguage if true, parsers are configured to validate against the XML schemas referenced by the document
+     */
+    SAXParserPool(SAXParserFactory saxParserFactory, boolean useSchemaLanguage) {
+        this.saxParserFactory = saxParserFactory;
+        this.useSchemaLanguage = useSchemaLanguage;
+    }
+
+    /**
+     * Returns an idle parser or a new one.  Pass it to {@link #release(SAXParser)} when done.
+     */
+    SAXParser borrow() throws ParserConfigurationException, SAXException {
+        SAXParser parser = idleParsers.poll();
+        if (parser == null) {
+            synchronized (saxParserFactory) {
+                parser = saxParserFactory.newSAXParser();
+            }
+        }
+        if (useSchemaLanguage) {
+            try {
+                parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
+            } catch (SAXNotRecognizedException e) {
+                //ok, parser must not support it
+            } catch (SAXNotSupportedException e) {
+                //ok, parser must not support it
+            }
+        }
+        return parser;
+    }
+
+    void release(SAXParser parser) {
+        try {
+            parser.reset();
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        if (idleParsers.size() < MAX_IDLE_PARSERS) {
+            idleParsers.offer(parser);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Enumeration;
@@ -18,6 +19,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.Stack;
 import java.util.TreeSet;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Matcher;
@@ -42,12 +44,16 @@ import liquibase.change.custom.CustomChangeWrapper;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.database.Database;
 import liquibase.exception.CustomChangeException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.MigrationFailedException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.StreamingChangeLogParser;
 import liquibase.precondition.CustomPreconditionWrapper;
 import liquibase.precondition.Precondition;
 import liquibase.precondition.PreconditionFactory;
@@ -90,6 +96,17 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 	private Set<String> modifySqlContexts;
 	private boolean modifySqlAppliedOnRollback = false;
 
+	/**
+	 * Included changelogs still being parsed concurrently, and the change sets declared after them, in declaration order.
+	 */
+	private List<Object> pendingIncludes = new ArrayList<Object>();
+
+	/**
+	 * If set, change sets are passed to this visitor as soon as they are complete and only kept without their changes.
+	 */
+	private ChangeSetVisitor changeSetVisitor;
+	private Database database;
+
 	protected XMLChangeLogSAXHandler(String physicalChangeLogLocation,
 			ResourceAccessor resourceAccessor,
 			ChangeLogParameters changeLogParameters) {
@@ -107,6 +124,14 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 		return databaseChangeLog;
 	}
 
+	/**
+	 * Makes the handler stream change sets, see {@link liquibase.parser.StreamingChangeLogParser}.
+	 */
+	void setChangeSetVisitor(ChangeSetVisitor changeSetVisitor, Database database) {
+		this.changeSetVisitor = changeSetVisitor;
+		this.database = database;
+	}
+
 	@Override
 	public void startElement(String uri, String localName, String qName,
 			Attributes baseAttributes) throws SAXException {
@@ -245,9 +270,13 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 				changeSet = new ChangeSet(atts.getValue("id"), atts.getValue("author"), alwaysRun, runOnChange, filePath,
 						atts.getValue("context"), atts.getValue("dbms"),
 						Boolean.valueOf(atts.getValue("runInTransaction")));
+				changeSet.setChangeLog(databaseChangeLog);
 				if (StringUtils.trimToNull(atts.getValue("failOnError")) != null) {
 					changeSet.setFailOnError(Boolean.parseBoolean(atts.getValue("failOnError")));
 				}
+				if (StringUtils.trimToNull(atts.getValue("runAfter")) != null) {
+					changeSet.setRunAfter(new HashSet<String>(StringUtils.splitAndTrim(atts.getValue("runAfter"), ",")));
+				}
                 if (StringUtils.trimToNull(atts.getValue("onValidationFail")) != null) {
                     changeSet.setOnValidationFail(ChangeSet.ValidationFailOption.valueOf(atts.getValue("onValidationFail")));
                 }
@@ -501,8 +530,30 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 				fileName = FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
 			}
 		}
-		DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor).parse(fileName, changeLogParameters,
-						resourceAccessor);
+		if (changeSetVisitor != null) {
+			ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor);
+			if (parser instanceof StreamingChangeLogParser) {
+				addIncludedChangeLog(((StreamingChangeLogParser) parser).parse(fileName, changeLogParameters, resourceAccessor, changeSetVisitor, database), false);
+			} else {
+				addIncludedChangeLog(parser.parse(fileName, changeLogParameters, resourceAccessor), true);
+			}
+			return true;
+		}
+
+		IncludedChangeLogParser includedChangeLogParser = IncludedChangeLogParser.getInstance();
+		if (includedChangeLogParser.isParallel()) {
+			ChangeLogParameters includedParameters = changeLogParameters.createIncludedParameters();
+			pendingIncludes.add(new PendingInclude(includedChangeLogParser.submit(fileName, includedParameters, resourceAccessor), includedParameters));
+			return true;
+		}
+		addIncludedChangeLog(IncludedChangeLogParser.parse(fileName, changeLogParameters, resourceAccessor), true);
+		return true;
+	}
+
+	/**
+	 * @param visitChangeSets false if the change sets were already passed to the {@link #changeSetVisitor} while streaming
+	 */
+	private void addIncludedChangeLog(DatabaseChangeLog changeLog, boolean visitChangeSets) throws LiquibaseException {
 		PreconditionContainer preconditions = changeLog.getPreconditions();
 		if (preconditions != null) {
 			if (null == databaseChangeLog.getPreconditions()) {
@@ -512,10 +563,20 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 					preconditions);
 		}
 		for (ChangeSet changeSet : changeLog.getChangeSets()) {
-			handleChangeSet(changeSet);
+			if (visitChangeSets) {
+				addChangeSet(changeSet);
+			} else {
+				handleChangeSet(changeSet);
+			}
 		}
+	}
 
-		return true;
+	private void addChangeSet(ChangeSet changeSet) throws LiquibaseException {
+		if (changeSetVisitor != null) {
+			changeSetVisitor.visit(changeSet, databaseChangeLog, database);
+			changeSet.releaseChanges();
+		}
+		handleChangeSet(changeSet);
 	}
 
 	private void setProperty(Object object, String attributeName,
@@ -604,7 +665,11 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 				changeSet.setComments(textString);
 				text = new StringBuffer();
 			} else if (changeSet != null && "changeSet".equals(qName)) {
-				handleChangeSet(changeSet);
+				if (pendingIncludes.isEmpty()) {
+					addChangeSet(changeSet);
+				} else {
+					pendingIncludes.add(changeSet);
+				}
 				changeSet = null;
 			} else if (change != null && qName.equals("column")
 					&& textString != null) {
@@ -664,6 +729,37 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 		}
 	}
 
+	/**
+	 * Adds included changelogs parsed concurrently, the parameters they define, and the change sets declared after them, in
+	 * declaration order.
+	 */
+	@Override
+	public void endDocument() throws SAXException {
+		IncludedChangeLogParser includedChangeLogParser = IncludedChangeLogParser.getInstance();
+		try {
+			for (Object pending : pendingIncludes) {
+				if (pending instanceof ChangeSet) {
+					addChangeSet((ChangeSet) pending);
+				} else {
+					PendingInclude include = (PendingInclude) pending;
+					DatabaseChangeLog includedChangeLog = includedChangeLogParser.getResult(include.result);
+					changeLogParameters.mergeIncludedParameters(include.parameters);
+					addIncludedChangeLog(includedChangeLog, true);
+				}
+			}
+		} catch (Exception e) {
+			for (Object pending : pendingIncludes) {
+				if (pending instanceof PendingInclude) {
+					((PendingInclude) pending).result.cancel(false);
+				}
+			}
+			log.severe("Error thrown as a SAXException: " + e.getMessage(), e);
+			throw new SAXException(e);
+		} finally {
+			pendingIncludes.clear();
+		}
+	}
+
 	protected void handlePreCondition(
 			@SuppressWarnings("unused") Precondition precondition) {
 		databaseChangeLog.setPreconditions(rootPrecondition);
@@ -768,4 +864,14 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 
         return tempDir;
     }
+
+	private static class PendingInclude {
+		private Future<DatabaseChangeLog> result;
+		private ChangeLogParameters parameters;
+
+		private PendingInclude(Future<DatabaseChangeLog> result, ChangeLogParameters parameters) {
+			this.result = result;
+			this.parameters = parameters;
+		}
+	}
 }
@@ -1,30 +1,69 @@
 package liquibase.parser.core.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.XMLConstants;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 
+import liquibase.change.CheckSumCache;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.database.Database;
 import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.LiquibaseException;
 import liquibase.logging.LogFactory;
-import liquibase.parser.ChangeLogParser;
+import liquibase.parser.StreamingChangeLogParser;
 import liquibase.resource.ResourceAccessor;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtils;
 import liquibase.util.file.FilenameUtils;
 
+import org.xml.sax.Attributes;
+import org.xml.sax.EntityResolver;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.SAXNotRecognizedException;
-import org.xml.sax.SAXNotSupportedException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class XMLChangeLogSAXParser implements StreamingChangeLogParser {
+
+    /**
+     * Only the start of a changelog is read to find the XML schemas it uses.
+     */
+    private static final int SCHEMA_LOCATION_PREFIX_LENGTH = 64 * 1024;
 
-public class XMLChangeLogSAXParser implements ChangeLogParser {
+    /**
+     * Parsers validating against a compiled schema, by the schemaLocation value of the documents they are used for.
+     * Shared by all instances so every schema is only compiled once.
+     */
+    private static final Map<String, SAXParserPool> schemaParsers = new ConcurrentHashMap<String, SAXParserPool>();
+    private static final Set<String> unresolvedSchemaLocations = Collections.synchronizedSet(new HashSet<String>());
 
     private SAXParserFactory saxParserFactory;
+    private SAXParserPool validatingParsers;
+    private SAXParserFactory schemaLocationFactory;
 
     public XMLChangeLogSAXParser() {
         saxParserFactory = SAXParserFactory.newInstance();
@@ -35,7 +74,12 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
         } else {
             saxParserFactory.setValidating(true);
             saxParserFactory.setNamespaceAware(true);
+
+            schemaLocationFactory = SAXParserFactory.newInstance();
+            schemaLocationFactory.setValidating(false);
+            schemaLocationFactory.setNamespaceAware(true);
         }
+        validatingParsers = new SAXParserPool(saxParserFactory, true);
     }
 
     public int getPriority() {
@@ -55,18 +99,40 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
     }
 
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        try {
+            return parse(physicalChangeLogLocation, changeLogParameters, resourceAccessor, null, null);
+        } catch (ChangeLogParseException e) {
+            throw e;
+        } catch (LiquibaseException e) {
+            throw new ChangeLogParseException(e);
+        }
+    }
+
+    /**
+     * Streaming parse, see {@link StreamingChangeLogParser}.  Included changelogs are parsed the same way if their parser
+     * supports it.  The parsed changelog cache is not used, and includes are always parsed sequentially.
+     */
+    public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor, ChangeSetVisitor changeSetVisitor, Database database) throws LiquibaseException {
 
         InputStream inputStream = null;
+        SAXParserPool parserPool = null;
+        SAXParser parser = null;
         try {
-            SAXParser parser = saxParserFactory.newSAXParser();
-            try {
-                parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
-            } catch (SAXNotRecognizedException e) {
-                //ok, parser must not support it
-            } catch (SAXNotSupportedException e) {
-                //ok, parser must not support it
+            String resourceFingerprint = null;
+            if (CheckSumCache.getInstance().isEnabled()) {
+                resourceFingerprint = CheckSumCache.getResourceFingerprint(resourceAccessor, physicalChangeLogLocation);
             }
 
+            inputStream = resourceAccessor.getResourceAsStream(physicalChangeLogLocation);
+            if (inputStream == null) {
+                throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
+            }
+
+            byte[] prefix = readPrefix(inputStream);
+            InputStream contentStream = new SequenceInputStream(new ByteArrayInputStream(prefix), inputStream);
+            parserPool = getParserPool(readSchemaLocation(prefix));
+            parser = parserPool.borrow();
+
             XMLReader xmlReader = parser.getXMLReader();
             LiquibaseEntityResolver resolver=new LiquibaseEntityResolver();
             resolver.useResoureAccessor(resourceAccessor,FilenameUtils.getFullPath(physicalChangeLogLocation));
@@ -87,15 +153,30 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
                     throw exception;
                 }
             });
-        	
-            inputStream = resourceAccessor.getResourceAsStream(physicalChangeLogLocation);
-            if (inputStream == null) {
-                throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
-            }
 
             XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
-            xmlReader.setContentHandler(contentHandler);
-            xmlReader.parse(new InputSource(inputStream));
+            contentHandler.getDatabaseChangeLog().setResourceFingerprint(resourceFingerprint);
+            contentHandler.setChangeSetVisitor(changeSetVisitor, database);
+
+            ParsedChangeLogCache parsedChangeLogCache = ParsedChangeLogCache.getInstance();
+            if (parsedChangeLogCache.isEnabled() && changeSetVisitor == null) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                StreamUtil.copy(contentStream, content);
+                String contentHash = MD5Util.computeMD5(new ByteArrayInputStream(content.toByteArray()));
+                if (parsedChangeLogCache.replay(contentHash, contentHandler)) {
+                    return contentHandler.getDatabaseChangeLog();
+                }
+
+                ParsedChangeLogCache.Recorder recorder = parsedChangeLogCache.record(contentHandler);
+                xmlReader.setContentHandler(recorder);
+                xmlReader.parse(new InputSource(new ByteArrayInputStream(content.toByteArray())));
+                if (!resolver.hasResolvedExternalEntities()) {
+                    parsedChangeLogCache.store(contentHash, recorder);
+                }
+            } else {
+                xmlReader.setContentHandler(contentHandler);
+                xmlReader.parse(new InputSource(contentStream));
+            }
 
             return contentHandler.getDatabaseChangeLog();
         } catch (ChangeLogParseException e) {
@@ -112,6 +193,15 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
                 }
                 parentCause = parentCause.getCause();
             }
+            if (changeSetVisitor != null) {
+                parentCause = e.getException();
+                while (parentCause != null) {
+                    if (parentCause instanceof LiquibaseException) {
+                        throw ((LiquibaseException) parentCause);
+                    }
+                    parentCause = parentCause.getCause();
+                }
+            }
             String reason = e.getMessage();
             String causeReason = null;
             if (e.getCause() != null) {
@@ -133,6 +223,9 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
         } catch (Exception e) {
             throw new ChangeLogParseException(e);
         } finally {
+            if (parser != null) {
+                parserPool.release(parser);
+            }
             if (inputStream != null) {
                 try {
                     inputStream.close();
@@ -142,4 +235,134 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
             }
         }
     }
+
+    private byte[] readPrefix(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[SCHEMA_LOCATION_PREFIX_LENGTH];
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = inputStream.read(buffer, length, buffer.length - length)) > 0) {
+            length += read;
+        }
+        byte[] prefix = new byte[length];
+        System.arraycopy(buffer, 0, prefix, 0, length);
+        return prefix;
+    }
+
+    /**
+     * Returns the xsi:schemaLocation value of the root element found in the given start of a document, or null if it has
+     * none, it is not part of the given bytes or the document uses a DTD.
+     */
+    private String readSchemaLocation(byte[] prefix) {
+        if (schemaLocationFactory == null) {
+            return null;
+        }
+        final String[] schemaLocation = new String[1];
+        final boolean[] usesDtd = new boolean[1];
+        try {
+            SAXParser parser;
+            synchronized (schemaLocationFactory) {
+                parser = schemaLocationFactory.newSAXParser();
+            }
+            XMLReader xmlReader = parser.getXMLReader();
+            xmlReader.setEntityResolver(new EntityResolver() {
+                public InputSource resolveEntity(String publicId, String systemId) {
+                    usesDtd[0] = true;
+                    return new InputSource(new StringReader(""));
+                }
+            });
+            xmlReader.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+                    schemaLocation[0] = attributes.getValue(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation");
+                    if (attributes.getValue(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "noNamespaceSchemaLocation") != null) {
+                        schemaLocation[0] = null;
+                    }
+                    throw new RootElementReadException();
+                }
+            });
+            xmlReader.parse(new InputSource(new ByteArrayInputStream(prefix)));
+        } catch (RootElementReadException e) {
+            return usesDtd[0] ? null : schemaLocation[0];
+        } catch (Exception e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Returns parsers validating against a schema compiled from the given schemaLocation value, or parsers resolving the
+     * schemas for every document if the schemas cannot all be found in the classpath.
+     */
+    private SAXParserPool getParserPool(String schemaLocation) {
+        if (schemaLocation == null) {
+            return validatingParsers;
+        }
+        String key = StringUtils.join(schemaLocation.trim().split("\\s+"), " ");
+        SAXParserPool pool = schemaParsers.get(key);
+        if (pool != null) {
+            return pool;
+        }
+        if (unresolvedSchemaLocations.contains(key)) {
+            return validatingParsers;
+        }
+        synchronized (schemaParsers) {
+            pool = schemaParsers.get(key);
+            if (pool == null && !unresolvedSchemaLocations.contains(key)) {
+                Schema schema = compileSchema(key);
+                if (schema == null) {
+                    unresolvedSchemaLocations.add(key);
+                } else {
+                    SAXParserFactory factory = SAXParserFactory.newInstance();
+                    factory.setNamespaceAware(true);
+                    factory.setSchema(schema);
+                    pool = new SAXParserPool(factory, false);
+                    schemaParsers.put(key, pool);
+                }
+            }
+        }
+        return pool == null ? validatingParsers : pool;
+    }
+
+    /**
+     * Returns true if documents with the given schemaLocation value are validated against a compiled schema.
+     */
+    static boolean hasCompiledSchema(String schemaLocation) {
+        return schemaParsers.containsKey(StringUtils.join(schemaLocation.trim().split("\\s+"), " "));
+    }
+
+    private Schema compileSchema(String schemaLocation) {
+        String[] parts = schemaLocation.split(" ");
+        if (parts.length % 2 != 0) {
+            return null;
+        }
+        LiquibaseEntityResolver resolver = new LiquibaseEntityResolver();
+        List<InputStream> streams = new ArrayList<InputStream>();
+        try {
+            Source[] sources = new Source[parts.length / 2];
+            for (int i = 0; i < sources.length; i++) {
+                String location = parts[i * 2 + 1];
+                InputSource xsd = resolver.resolveEntity(null, null, null, location);
+                if (xsd == null || xsd.getByteStream() == null) {
+                    return null;
+                }
+                streams.add(xsd.getByteStream());
+                sources[i] = new StreamSource(xsd.getByteStream(), location);
+            }
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(sources);
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot compile schema " + schemaLocation + ": " + e.getMessage());
+            return null;
+        } finally {
+            for (InputStream stream : streams) {
+                try {
+                    stream.close();
+                } catch (IOException ignore) {
+                    // ok
+                }
+            }
+        }
+    }
+
+    private static class RootElementReadException extends SAXException {
+    }
 }
@@ -45,13 +45,24 @@ public class FileSystemResourceAccessor implements ResourceAccessor {
      * file is relative.
      */
     public InputStream getResourceAsStream(String file) throws IOException {
+        File resolvedFile = getFile(file);
+        if (resolvedFile == null) {
+            return null;
+        }
+        return new FileInputStream(resolvedFile);
+    }
+
+    /**
+     * Returns the file {@link #getResourceAsStream(String)} would open, or null if it does not exist.
+     */
+    public File getFile(String file) {
         File absoluteFile = new File(file);
         File relativeFile = (baseDirectory == null) ? new File(file) : new File(baseDirectory, file);
 
         if (absoluteFile.exists() && absoluteFile.isFile() && absoluteFile.isAbsolute()) {
-            return new FileInputStream(absoluteFile);
+            return absoluteFile;
         } else if (relativeFile.exists() && relativeFile.isFile()) {
-            return new FileInputStream(relativeFile);
+            return relativeFile;
         } else {
             return null;
 
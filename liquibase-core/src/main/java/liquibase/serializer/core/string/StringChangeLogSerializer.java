@@ -1,6 +1,7 @@
 package liquibase.serializer.core.string;
 
 import liquibase.change.Change;
+import liquibase.change.CheckSum;
 import liquibase.change.DatabaseChangeProperty;
 import liquibase.change.ColumnConfig;
 import liquibase.change.ConstraintsConfig;
@@ -10,15 +11,22 @@ import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.sql.visitor.SqlVisitor;
+import liquibase.util.MD5Writer;
+import liquibase.util.NewlineNormalizingWriter;
 import liquibase.util.StringUtils;
 
 import java.io.File;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.io.OutputStream;
 import java.io.IOException;
 
@@ -26,6 +34,11 @@ public class StringChangeLogSerializer implements ChangeLogSerializer {
 
     private static final int INDENT_LENGTH = 4;
 
+    /**
+     * Serialization plans by class, built on first use.  See {@link SerializationPlan}.
+     */
+    private static final Map<Class, SerializationPlan> serializationPlans = new ConcurrentHashMap<Class, SerializationPlan>();
+
     public String[] getValidFileExtensions() {
         return new String[] {"txt"};
     }
@@ -35,11 +48,193 @@ public class StringChangeLogSerializer implements ChangeLogSerializer {
     }
     
     public String serialize(Change change) {
-        return change.getChangeMetaData().getName() + ":" + serializeObject(change, 1);
+        StringWriter writer = new StringWriter();
+        write(change.getChangeMetaData().getName(), change, writer);
+        return writer.toString();
     }
 
     public String serialize(SqlVisitor visitor) {
-        return visitor.getName() + ":" + serializeObject(visitor, 1);
+        StringWriter writer = new StringWriter();
+        write(visitor.getName(), visitor, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Computes the checksum of the serialized form of the change by streaming it into the digest.
+     * Same result as CheckSum.compute(serialize(change)).
+     */
+    public CheckSum generateCheckSum(Change change) {
+        MD5Writer writer = new MD5Writer();
+        write(change.getChangeMetaData().getName(), change, writer);
+        return CheckSum.compute(writer);
+    }
+
+    /**
+     * Computes the checksum of the serialized form of the visitor by streaming it into the digest.
+     * Same result as CheckSum.compute(serialize(visitor)).
+     */
+    public CheckSum generateCheckSum(SqlVisitor visitor) {
+        MD5Writer writer = new MD5Writer();
+        write(visitor.getName(), visitor, writer);
+        return CheckSum.compute(writer);
+    }
+
+    private void write(String name, Object objectToSerialize, Writer writer) {
+        try {
+            Writer out = new NewlineNormalizingWriter(writer);
+            out.write(name);
+            out.write(":");
+            writeObject(objectToSerialize, 1, out);
+            out.flush();
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    /**
+     * Writes the same text as {@link #serializeObject(Object, int)} using the cached {@link SerializationPlan} for the class.
+     * Properties are written in the plan's pre-sorted order.  Only when the object holds ColumnConfig, ConstraintsConfig or
+     * CustomChange values do the entries need re-sorting, and if two entries would then need their full text to be ordered
+     * the original serializeObject() is used for the object.
+     */
+    private void writeObject(Object objectToSerialize, int indent, Writer out) throws Exception {
+        SerializationPlan plan = getSerializationPlan(objectToSerialize.getClass());
+
+        List<PlanEntry> entries = new ArrayList<PlanEntry>(plan.fields.length);
+        boolean needsSort = plan.hasDuplicateNames;
+        for (int i = 0; i < plan.fields.length; i++) {
+            Object value = plan.fields[i].get(objectToSerialize);
+            if (value == null) {
+                continue;
+            }
+            String key = plan.keys[i];
+            if (value instanceof ColumnConfig) {
+                key = "column:";
+                needsSort = true;
+            } else if (value instanceof ConstraintsConfig) {
+                key = "constraints:";
+                needsSort = true;
+            } else if (value instanceof CustomChange) {
+                key = "customChange:";
+                needsSort = true;
+            }
+            entries.add(new PlanEntry(key, plan.names[i], value));
+        }
+
+        if (needsSort) {
+            Collections.sort(entries);
+            for (int i = 1; i < entries.size(); i++) {
+                if (entries.get(i).key.equals(entries.get(i - 1).key)) {
+                    out.write(serializeObject(objectToSerialize, indent));
+                    return;
+                }
+            }
+        }
+
+        out.write("[");
+        if (entries.size() > 0) {
+            out.write("\n");
+            boolean first = true;
+            for (PlanEntry entry : entries) {
+                if (!first) {
+                    out.write("\n");
+                }
+                first = false;
+                out.write(indent(indent));
+                writeEntry(entry, indent, out);
+            }
+            out.write("\n");
+        }
+        out.write(indent(indent - 1));
+        out.write("]");
+    }
+
+    private void writeEntry(PlanEntry entry, int indent, Writer out) throws Exception {
+        Object value = entry.value;
+        if (value instanceof ColumnConfig) {
+            out.write("column:");
+            writeObject(value, indent + 1, out);
+        } else if (value instanceof ConstraintsConfig) {
+            out.write("constraints:");
+            writeObject(value, indent + 1, out);
+        } else if (value instanceof CustomChange) {
+            out.write("customChange:");
+            writeObject(value, indent + 1, out);
+        } else if (value instanceof Map) {
+            out.write(entry.name);
+            out.write("=");
+            writeMap((Map) value, indent + 1, out);
+        } else if (value instanceof Collection) {
+            out.write(entry.name);
+            out.write("=");
+            writeElements(((Collection) value).toArray(), indent + 1, out);
+        } else if (value instanceof Object[]) {
+            out.write(entry.name);
+            out.write("=");
+            writeElements((Object[]) value, indent + 1, out);
+        } else {
+            out.write(entry.name);
+            out.write("=\"");
+            out.write(value.toString());
+            out.write("\"");
+        }
+    }
+
+    private void writeElements(Object[] elements, int indent, Writer out) throws Exception {
+        if (elements.length == 0) {
+            out.write("[]");
+            return;
+        }
+
+        out.write("[\n");
+        for (int i = 0; i < elements.length; i++) {
+            if (i > 0) {
+                out.write(",\n");
+            }
+            out.write(indent(indent));
+            if (elements[i] instanceof ColumnConfig) {
+                out.write("column:");
+                writeObject(elements[i], indent + 1, out);
+            } else {
+                out.write(elements[i].toString());
+            }
+        }
+        out.write("\n");
+        out.write(indent(indent - 1));
+        out.write("]");
+    }
+
+    private void writeMap(Map map, int indent, Writer out) throws Exception {
+        if (map.size() == 0) {
+            out.write("[]");
+            return;
+        }
+
+        out.write("{\n");
+        boolean first = true;
+        for (Object key : new TreeSet(map.keySet())) {
+            if (!first) {
+                out.write(",\n");
+            }
+            first = false;
+            out.write(indent(indent));
+            out.write(key.toString());
+            out.write("=\"");
+            out.write(String.valueOf(map.get(key)));
+            out.write("\"");
+        }
+        out.write("\n");
+        out.write(indent(indent - 1));
+        out.write("}");
+    }
+
+    private SerializationPlan getSerializationPlan(Class type) {
+        SerializationPlan plan = serializationPlans.get(type);
+        if (plan == null) {
+            plan = new SerializationPlan(type);
+            serializationPlans.put(type, plan);
+        }
+        return plan;
     }
 
     private String serializeObject(Object objectToSerialize, int indent) {
@@ -106,7 +301,17 @@ public class StringChangeLogSerializer implements ChangeLogSerializer {
 
     }
 
+    private static final String[] INDENTS = new String[10];
+    static {
+        for (int i = 0; i < INDENTS.length; i++) {
+            INDENTS[i] = StringUtils.repeat(" ", INDENT_LENGTH * i);
+        }
+    }
+
     private String indent(int indent) {
+        if (indent >= 0 && indent < INDENTS.length) {
+            return INDENTS[indent];
+        }
         return StringUtils.repeat(" ", INDENT_LENGTH * indent);
     }
 
@@ -193,4 +398,66 @@ public class StringChangeLogSerializer implements ChangeLogSerializer {
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
 
     }
+
+    /**
+     * The serializable fields of a class, found once with the same rules serializeObject() uses and sorted by the
+     * "name=" prefix their serialized lines start with, so values can be written without sorting the lines.
+     */
+    private static class SerializationPlan {
+        private Field[] fields;
+        private String[] names;
+        private String[] keys;
+        private boolean hasDuplicateNames;
+
+        private SerializationPlan(Class type) {
+            List<PlanEntry> found = new ArrayList<PlanEntry>();
+            Class classToCheck = type;
+            while (!classToCheck.equals(Object.class)) {
+                for (Field field : classToCheck.getDeclaredFields()) {
+                    DatabaseChangeProperty changePropertyAnnotation = field.getAnnotation(DatabaseChangeProperty.class);
+                    if (changePropertyAnnotation != null && !changePropertyAnnotation.includeInSerialization()) {
+                        continue;
+                    }
+                    if (field.getName().equals("serialVersionUID")) {
+                        continue;
+                    }
+                    if (field.getName().equals("$VRc")) { //from emma
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    found.add(new PlanEntry(field.getName() + "=", field.getName(), field));
+                }
+                classToCheck = classToCheck.getSuperclass();
+            }
+            Collections.sort(found);
+
+            fields = new Field[found.size()];
+            names = new String[found.size()];
+            keys = new String[found.size()];
+            for (int i = 0; i < found.size(); i++) {
+                fields[i] = (Field) found.get(i).value;
+                names[i] = found.get(i).name;
+                keys[i] = found.get(i).key;
+                if (i > 0 && keys[i].equals(keys[i - 1])) {
+                    hasDuplicateNames = true;
+                }
+            }
+        }
+    }
+
+    private static class PlanEntry implements Comparable<PlanEntry> {
+        private String key;
+        private String name;
+        private Object value;
+
+        private PlanEntry(String key, String name, Object value) {
+            this.key = key;
+            this.name = name;
+            this.value = value;
+        }
+
+        public int compareTo(PlanEntry o) {
+            return key.compareTo(o.key);
+        }
+    }
 }
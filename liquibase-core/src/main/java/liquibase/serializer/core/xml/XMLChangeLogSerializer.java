@@ -349,6 +349,10 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
             node.setAttribute("failOnError", changeSet.getFailOnError().toString());
         }
 
+        if (changeSet.getRunAfter() != null && changeSet.getRunAfter().size() > 0) {
+            node.setAttribute("runAfter", StringUtils.join(changeSet.getRunAfter(), ","));
+        }
+
         if (changeSet.getContexts() != null && changeSet.getContexts().size() > 0) {
             StringBuffer contextString = new StringBuffer();
             for (String context : changeSet.getContexts()) {
@@ -115,6 +115,7 @@ public class ServiceLocator {
                 addPackageToScan("liquibase.executor");
                 addPackageToScan("liquibase.snapshot");
                 addPackageToScan("liquibase.logging");
+                addPackageToScan("liquibase.lockservice");
                 addPackageToScan("liquibase.ext");
             }
         }
@@ -213,4 +214,4 @@ public class ServiceLocator {
     protected Logger getLogger() {
         return logger;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -35,7 +35,7 @@ public abstract class AbstractSqlVisitor implements SqlVisitor {
     }
 
     public CheckSum generateCheckSum() {
-        return CheckSum.compute(new StringChangeLogSerializer().serialize(this));
+        return new StringChangeLogSerializer().generateCheckSum(this);
     }
 
 }
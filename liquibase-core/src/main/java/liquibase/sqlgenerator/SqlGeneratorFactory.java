@@ -22,7 +22,10 @@ public class SqlGeneratorFactory {
 
     private static SqlGeneratorFactory instance;
 
-    private List<SqlGenerator> generators = new ArrayList<SqlGenerator>();
+    private GeneratorList generators = new GeneratorList();
+
+    private Map<Class, List<SqlGenerator>> generatorsByStatementClass = new HashMap<Class, List<SqlGenerator>>();
+    private int generatorsByStatementClassModCount = -1;
 
     private SqlGeneratorFactory() {
         Class[] classes;
@@ -81,29 +84,58 @@ public class SqlGeneratorFactory {
     protected SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
         SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
 
+        for (SqlGenerator generator : getGenerators(statement.getClass())) {
+            //noinspection unchecked
+            if (generator.supports(statement, database)) {
+                validGenerators.add(generator);
+            }
+        }
+        return validGenerators;
+    }
+
+    /**
+     * Returns the generators declared for the statement class, in registration order, whether or not they support a
+     * given statement and database.  Finding them through reflection takes longer than generating the sql of a simple
+     * statement, so they are kept until the registered generators change.
+     */
+    private synchronized List<SqlGenerator> getGenerators(Class statementClass) {
+        if (generators.getModCount() != generatorsByStatementClassModCount) {
+            generatorsByStatementClass.clear();
+            generatorsByStatementClassModCount = generators.getModCount();
+        }
+        List<SqlGenerator> statementGenerators = generatorsByStatementClass.get(statementClass);
+        if (statementGenerators != null) {
+            return statementGenerators;
+        }
+
+        statementGenerators = new ArrayList<SqlGenerator>();
         for (SqlGenerator generator : getGenerators()) {
             Class clazz = generator.getClass();
             Type classType = null;
             while (clazz != null) {
                 if (classType instanceof ParameterizedType) {
-                    checkType(classType, statement, generator, database, validGenerators);
+                    checkType(classType, statementClass, generator, statementGenerators);
                 }
 
                 for (Type type : clazz.getGenericInterfaces()) {
                     if (type instanceof ParameterizedType) {
-                        checkType(type, statement, generator, database, validGenerators);
+                        checkType(type, statementClass, generator, statementGenerators);
                     } else if (isTypeEqual(type, SqlGenerator.class)) {
-                        //noinspection unchecked
-                        if (generator.supports(statement, database)) {
-                            validGenerators.add(generator);
-                        }
+                        addGenerator(generator, statementGenerators);
                     }
                 }
                 classType = clazz.getGenericSuperclass();
                 clazz = clazz.getSuperclass();
             }
         }
-        return validGenerators;
+        generatorsByStatementClass.put(statementClass, statementGenerators);
+        return statementGenerators;
+    }
+
+    private void addGenerator(SqlGenerator generator, List<SqlGenerator> statementGenerators) {
+        if (!statementGenerators.contains(generator)) {
+            statementGenerators.add(generator);
+        }
     }
 
     private boolean isTypeEqual(Type aType, Class aClass) {
@@ -113,7 +145,7 @@ public class SqlGeneratorFactory {
         return aType.equals(aClass);
     }
 
-    private void checkType(Type type, SqlStatement statement, SqlGenerator generator, Database database, SortedSet<SqlGenerator> validGenerators) {
+    private void checkType(Type type, Class statementClass, SqlGenerator generator, List<SqlGenerator> statementGenerators) {
         for (Type typeClass : ((ParameterizedType) type).getActualTypeArguments()) {
             if (typeClass instanceof TypeVariable) {
                 typeClass = ((TypeVariable) typeClass).getBounds()[0];
@@ -123,10 +155,8 @@ public class SqlGeneratorFactory {
                 return;
             }
 
-            if (((Class) typeClass).isAssignableFrom(statement.getClass())) {
-                if (generator.supports(statement, database)) {
-                    validGenerators.add(generator);
-                }
+            if (((Class) typeClass).isAssignableFrom(statementClass)) {
+                addGenerator(generator, statementGenerators);
             }
         }
 
@@ -162,6 +192,18 @@ public class SqlGeneratorFactory {
         return false;
     }
 
+    /**
+     * Returns the generator with the highest priority for the statement, which is the first one asked to generate its
+     * sql, or null if no generator supports it.
+     */
+    public SqlGenerator getBestGenerator(SqlStatement statement, Database database) {
+        SortedSet<SqlGenerator> generators = getGenerators(statement, database);
+        if (generators.isEmpty()) {
+            return null;
+        }
+        return generators.first();
+    }
+
     public boolean supports(SqlStatement statement, Database database) {
         return getGenerators(statement, database).size() > 0;
     }
@@ -194,4 +236,14 @@ public class SqlGeneratorFactory {
 
     }
 
+    /**
+     * Exposes the modification count, which changes whenever generators are added or removed, also through
+     * {@link #getGenerators()}.
+     */
+    private static class GeneratorList extends ArrayList<SqlGenerator> {
+        public int getModCount() {
+            return modCount;
+        }
+    }
+
 }
@@ -1,6 +1,8 @@
 package liquibase.sqlgenerator.core;
 
 import liquibase.database.Database;
+import liquibase.database.structure.Schema;
+import liquibase.database.structure.Table;
 import liquibase.exception.Warnings;
 import liquibase.sqlgenerator.SqlGenerator;
 import liquibase.sqlgenerator.SqlGeneratorChain;
@@ -29,4 +31,30 @@ public abstract class AbstractSqlGenerator<StatementType extends SqlStatement> i
         return value.startsWith("\"SYSIBM\"") || value.startsWith("to_date(") || value.equalsIgnoreCase(database.getCurrentDateTimeFunction());
     }
 
+    /**
+     * Returns true if the value can be bound to a parameter of a prepared statement instead of being written into the sql:
+     * strings that are not NULL or function calls, numbers and JDBC dates, times and timestamps.
+     */
+    public boolean isParameterValue(Object value, Database database) {
+        if (value instanceof String) {
+            return !((String) value).equalsIgnoreCase("NULL") && !looksLikeFunctionCall((String) value, database);
+        }
+        return value instanceof Number || value instanceof java.sql.Date || value instanceof java.sql.Time || value instanceof java.sql.Timestamp;
+    }
+
+    /**
+     * Returns the table to list as affected by the generated sql.
+     */
+    protected Table getAffectedTable(String catalogName, String schemaName, String tableName) {
+        return (Table) new Table(tableName).setSchema(new Schema(catalogName, schemaName));
+    }
+
+    /**
+     * Returns true if the value, such as a where clause or a computed value, may read other tables through a subquery.
+     * The tables affected by sql with such values are not known.
+     */
+    protected boolean mayReadOtherTables(Object value) {
+        return value != null && value.toString().toUpperCase().contains("SELECT");
+    }
+
 }
@@ -94,7 +94,9 @@ public class AddForeignKeyConstraintGenerator extends AbstractSqlGenerator<AddFo
 	    }
 
 	    return new Sql[]{
-			    new UnparsedSql(sb.toString())
+			    new UnparsedSql(sb.toString(),
+                        getAffectedTable(statement.getBaseTableCatalogName(), statement.getBaseTableSchemaName(), statement.getBaseTableName()),
+                        getAffectedTable(statement.getReferencedTableCatalogName(), statement.getReferencedTableSchemaName(), statement.getReferencedTableName()))
 	    };
     }
 }
@@ -42,7 +42,7 @@ public class AddPrimaryKeyGenerator extends AbstractSqlGenerator<AddPrimaryKeySt
         }
 
         return new Sql[] {
-                new UnparsedSql(sql)
+                new UnparsedSql(sql, getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
         };
     }
 }
@@ -72,7 +72,7 @@ public class AddUniqueConstraintGenerator extends AbstractSqlGenerator<AddUnique
         }
 
         return new Sql[] {
-                new UnparsedSql(sql)
+                new UnparsedSql(sql, getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
         };
 
     }
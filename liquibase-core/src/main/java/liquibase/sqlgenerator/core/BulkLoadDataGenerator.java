@@ -0,0 +1,32 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.BulkLoadDataStatement;
+
+/**
+ * Base class of the dialect specific generators of {@link BulkLoadDataStatement}.  There is no generic sql for bulk
+ * loading, so databases without a generator load data with inserts.
+ */
+public abstract class BulkLoadDataGenerator extends AbstractSqlGenerator<BulkLoadDataStatement> {
+
+    public ValidationErrors validate(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        validationErrors.checkRequiredField("dataFile", statement.getDataFile());
+        return validationErrors;
+    }
+
+    protected String getColumnList(BulkLoadDataStatement statement, Database database) {
+        StringBuffer columns = new StringBuffer();
+        for (String column : statement.getColumnNames()) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column));
+        }
+        return columns.toString();
+    }
+}
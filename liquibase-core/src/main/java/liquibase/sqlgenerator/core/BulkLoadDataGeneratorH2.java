@@ -0,0 +1,41 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.BulkLoadDataStatement;
+
+/**
+ * Generates an INSERT ... SELECT from CSVREAD.  The data file is read by the database, so it must be on the same machine
+ * as the database.
+ */
+public class BulkLoadDataGeneratorH2 extends BulkLoadDataGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(BulkLoadDataStatement statement, Database database) {
+        return database instanceof H2Database;
+    }
+
+    public Sql[] generateSql(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        StringBuffer fileColumns = new StringBuffer();
+        for (int i = 1; i <= statement.getColumnNames().size(); i++) {
+            if (i > 1) {
+                fileColumns.append(",");
+            }
+            fileColumns.append("C").append(i);
+        }
+        return new Sql[] {
+                new UnparsedSql("INSERT INTO " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " (" + getColumnList(statement, database) + ") SELECT * FROM CSVREAD('"
+                        + database.escapeStringForDatabase(statement.getDataFile()) + "', '" + fileColumns + "', 'charset="
+                        + BulkLoadDataStatement.ENCODING + " fieldSeparator=, null=NULL')")
+        };
+    }
+}
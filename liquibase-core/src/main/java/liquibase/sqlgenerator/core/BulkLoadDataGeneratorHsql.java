@@ -0,0 +1,100 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.BulkLoadDataStatement;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attaches the data file to a temporary TEXT table and copies its rows with an INSERT ... SELECT.  HSQL only reads text
+ * table sources from the directory of the database, so this only works for file databases and the data file must be
+ * created in {@link #getDatabaseDirectory(Database)}.
+ */
+public class BulkLoadDataGeneratorHsql extends BulkLoadDataGenerator {
+
+    private static final String FILE_URL_PREFIX = "jdbc:hsqldb:file:";
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(BulkLoadDataStatement statement, Database database) {
+        return database instanceof HsqlDatabase && getDatabaseDirectory(database) != null;
+    }
+
+    @Override
+    public ValidationErrors validate(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = super.validate(statement, database, sqlGeneratorChain);
+        if (statement.getDataFile() != null && !new File(statement.getDataFile()).getAbsoluteFile().getParentFile().equals(getDatabaseDirectory(database))) {
+            validationErrors.addError("dataFile must be in the database directory " + getDatabaseDirectory(database));
+        }
+        return validationErrors;
+    }
+
+    public Sql[] generateSql(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String fileName = new File(statement.getDataFile()).getName();
+        String textTable = fileName.replaceFirst("\\.[^.]*$", "").replaceAll("\\W", "_").toUpperCase();
+
+        StringBuffer textColumns = new StringBuffer();
+        StringBuffer selectColumns = new StringBuffer();
+        for (int i = 1; i <= statement.getColumnNames().size(); i++) {
+            if (i > 1) {
+                textColumns.append(", ");
+                selectColumns.append(", ");
+            }
+            textColumns.append("C").append(i).append(" VARCHAR");
+            selectColumns.append("NULLIF(C").append(i).append(", 'NULL')");
+        }
+
+        String source = fileName + ";fs=,;encoding=" + BulkLoadDataStatement.ENCODING + ";quoted=true";
+        int majorVersion = 0;
+        try {
+            majorVersion = database.getDatabaseMajorVersion();
+        } catch (DatabaseException e) {
+            //assume 1.8
+        }
+        if (majorVersion >= 2) {
+            source = "'" + source + "'";
+        } else {
+            source = "\"" + source + "\"";
+        }
+
+        List<Sql> sql = new ArrayList<Sql>();
+        sql.add(new UnparsedSql("CREATE TEXT TABLE " + textTable + " (" + textColumns + ")"));
+        sql.add(new UnparsedSql("SET TABLE " + textTable + " SOURCE " + source));
+        sql.add(new UnparsedSql("INSERT INTO " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                + " (" + getColumnList(statement, database) + ") SELECT " + selectColumns + " FROM " + textTable));
+        sql.add(new UnparsedSql("DROP TABLE " + textTable));
+        return sql.toArray(new Sql[sql.size()]);
+    }
+
+    /**
+     * Returns the directory of the database files, or null if the database is not stored in files on this machine.
+     */
+    public static File getDatabaseDirectory(Database database) {
+        DatabaseConnection connection = database.getConnection();
+        if (connection == null) {
+            return null;
+        }
+        String url = connection.getURL();
+        if (url == null || !url.startsWith(FILE_URL_PREFIX)) {
+            return null;
+        }
+        String path = url.substring(FILE_URL_PREFIX.length());
+        if (path.indexOf(';') >= 0) {
+            path = path.substring(0, path.indexOf(';'));
+        }
+        return new File(path).getAbsoluteFile().getParentFile();
+    }
+}
@@ -0,0 +1,34 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.BulkLoadDataStatement;
+
+/**
+ * Generates a LOAD DATA LOCAL INFILE, which needs local infile to be allowed by the driver and the server.
+ */
+public class BulkLoadDataGeneratorMySQL extends BulkLoadDataGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(BulkLoadDataStatement statement, Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    public Sql[] generateSql(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String dataFile = statement.getDataFile().replace("\\", "\\\\").replace("'", "\\'");
+        return new Sql[] {
+                new UnparsedSql("LOAD DATA LOCAL INFILE '" + dataFile + "' INTO TABLE "
+                        + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " CHARACTER SET utf8 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' LINES TERMINATED BY '\\n'"
+                        + " (" + getColumnList(statement, database) + ")")
+        };
+    }
+}
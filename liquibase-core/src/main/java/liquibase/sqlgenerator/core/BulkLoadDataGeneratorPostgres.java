@@ -0,0 +1,31 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.BulkLoadDataStatement;
+
+/**
+ * Generates a COPY FROM STDIN, see {@link BulkLoadDataStatement} for how it is fed with the data file.
+ */
+public class BulkLoadDataGeneratorPostgres extends BulkLoadDataGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(BulkLoadDataStatement statement, Database database) {
+        return database instanceof PostgresDatabase;
+    }
+
+    public Sql[] generateSql(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[] {
+                new UnparsedSql("COPY " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " (" + getColumnList(statement, database) + ") FROM STDIN WITH CSV NULL 'NULL'")
+        };
+    }
+}
@@ -78,6 +78,6 @@ public class CreateIndexGenerator extends AbstractSqlGenerator<CreateIndexStatem
 		    }
 	    }
 
-	    return new Sql[]{new UnparsedSql(buffer.toString())};
+	    return new Sql[]{new UnparsedSql(buffer.toString(), getAffectedTable(statement.getTableCatalogName(), statement.getTableSchemaName(), statement.getTableName()))};
     }
 }
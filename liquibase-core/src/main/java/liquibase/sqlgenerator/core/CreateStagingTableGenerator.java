@@ -0,0 +1,110 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.DB2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+
+/**
+ * Creates the staging table as a temporary table of the connection, with a statement that does not commit the current
+ * transaction, so a failed changeset leaves neither rows nor the table behind.
+ */
+public class CreateStagingTableGenerator extends AbstractSqlGenerator<CreateStagingTableStatement> {
+
+    /**
+     * Returns true if the database has a temporary table that can be created and dropped without committing the
+     * transaction: PostgreSQL, MySQL and SQL Server temporary tables, DB2 declared global temporary tables (which need a
+     * user temporary tablespace) and HSQL 1.8 TEMP tables.  Creating tables commits on Oracle, H2 and later HSQL
+     * versions, and Sybase does not allow it in transactions by default.
+     */
+    public static boolean supportsStagingTable(Database database) {
+        return database instanceof PostgresDatabase
+                || database instanceof MySQLDatabase
+                || database instanceof MSSQLDatabase
+                || database instanceof DB2Database
+                || isHsql18(database);
+    }
+
+    /**
+     * Returns the schema temporary tables are referenced with, or null if they are referenced like tables of the default
+     * schema.
+     */
+    public static String getStagingSchemaName(Database database) {
+        if (database instanceof PostgresDatabase) {
+            return "pg_temp";
+        } else if (database instanceof DB2Database) {
+            return "SESSION";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the temporary table for the given name, with the prefix the database needs for a temporary
+     * table.
+     */
+    public static String getStagingTableName(Database database, String name) {
+        if (database instanceof MSSQLDatabase) {
+            return "#" + name;
+        }
+        return name;
+    }
+
+    @Override
+    public boolean supports(CreateStagingTableStatement statement, Database database) {
+        return supportsStagingTable(database);
+    }
+
+    public ValidationErrors validate(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("stagingTableName", statement.getStagingTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        return validationErrors;
+    }
+
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        StringBuffer columns = new StringBuffer();
+        for (String column : statement.getColumnNames()) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column));
+        }
+        String table = database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+        String stagingTable = database.escapeTableName(null, statement.getStagingSchemaName(), statement.getStagingTableName());
+
+        String sql;
+        if (database instanceof MSSQLDatabase) {
+            sql = "SELECT " + columns + " INTO " + stagingTable + " FROM " + table + " WHERE 1 = 0";
+        } else if (database instanceof HsqlDatabase) {
+            sql = "SELECT " + columns + " INTO TEMP " + stagingTable + " FROM " + table + " WHERE 1 = 0";
+        } else if (database instanceof DB2Database) {
+            sql = "DECLARE GLOBAL TEMPORARY TABLE " + stagingTable + " AS (SELECT " + columns + " FROM " + table + ") WITH NO DATA"
+                    + " ON COMMIT PRESERVE ROWS NOT LOGGED";
+        } else {
+            sql = "CREATE TEMPORARY TABLE " + stagingTable + " AS SELECT " + columns + " FROM " + table + " WHERE 1 = 0";
+        }
+        return new Sql[] {
+                new UnparsedSql(sql)
+        };
+    }
+
+    static boolean isHsql18(Database database) {
+        if (!(database instanceof HsqlDatabase)) {
+            return false;
+        }
+        try {
+            return database.getDatabaseMajorVersion() < 2;
+        } catch (DatabaseException e) {
+            return true;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package liquibase.sqlgenerator.core;
 
 import liquibase.database.Database;
 import liquibase.database.core.*;
+import liquibase.database.structure.DatabaseObject;
 import liquibase.exception.ValidationErrors;
 import liquibase.logging.LogFactory;
 import liquibase.sql.Sql;
@@ -13,7 +14,11 @@ import liquibase.statement.UniqueConstraint;
 import liquibase.statement.core.CreateTableStatement;
 import liquibase.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class CreateTableGenerator extends AbstractSqlGenerator<CreateTableStatement> {
 
@@ -231,10 +236,32 @@ public class CreateTableGenerator extends AbstractSqlGenerator<CreateTableStatem
         }
 
         return new Sql[] {
-                new UnparsedSql(sql)
+                new UnparsedSql(sql, getAffectedDatabaseObjects(statement))
         };
     }
 
+    /**
+     * Returns the table and the tables its foreign keys reference, or nothing if a reference cannot be parsed.
+     */
+    private DatabaseObject[] getAffectedDatabaseObjects(CreateTableStatement statement) {
+        List<DatabaseObject> affectedObjects = new ArrayList<DatabaseObject>();
+        affectedObjects.add(getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()));
+        for (ForeignKeyConstraint fkConstraint : statement.getForeignKeyConstraints()) {
+            Matcher referencesMatcher = Pattern.compile("([\\w\\.]+)\\s*\\(.*").matcher(fkConstraint.getReferences().trim());
+            if (!referencesMatcher.matches()) {
+                return new DatabaseObject[0];
+            }
+            String refSchemaName = statement.getSchemaName();
+            String refTableName = referencesMatcher.group(1);
+            if (refTableName.indexOf(".") > 0) {
+                refSchemaName = refTableName.substring(0, refTableName.lastIndexOf("."));
+                refTableName = refTableName.substring(refTableName.lastIndexOf(".") + 1);
+            }
+            affectedObjects.add(getAffectedTable(statement.getCatalogName(), refSchemaName, refTableName));
+        }
+        return affectedObjects.toArray(new DatabaseObject[affectedObjects.size()]);
+    }
+
     private boolean constraintNameAfterUnique(Database database) {
 		return database instanceof InformixDatabase;
 	}
@@ -1,6 +1,7 @@
 package liquibase.sqlgenerator.core;
 
 import liquibase.database.Database;
+import liquibase.database.structure.DatabaseObject;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.database.core.SQLiteDatabase;
 import liquibase.exception.ValidationErrors;
@@ -33,6 +34,12 @@ public class DeleteGenerator extends AbstractSqlGenerator<DeleteStatement> {
             sql.append(" ").append(fixedWhereClause);
         }
 
-        return new Sql[]{new UnparsedSql(sql.toString())};
+        DatabaseObject[] affectedObjects = new DatabaseObject[0];
+        if (!mayReadOtherTables(statement.getWhereClause())) {
+            affectedObjects = new DatabaseObject[] {
+                    getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+            };
+        }
+        return new Sql[]{new UnparsedSql(sql.toString(), affectedObjects)};
     }
 }
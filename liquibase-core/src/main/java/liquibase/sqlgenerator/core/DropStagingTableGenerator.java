@@ -0,0 +1,43 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.DropStagingTableStatement;
+
+/**
+ * Drops the staging table.  MySQL only keeps the transaction open with DROP TEMPORARY TABLE, and dropping a table always
+ * commits on HSQL 1.8, so there the rows are deleted and the table is left for the end of the session.
+ */
+public class DropStagingTableGenerator extends AbstractSqlGenerator<DropStagingTableStatement> {
+
+    @Override
+    public boolean supports(DropStagingTableStatement statement, Database database) {
+        return CreateStagingTableGenerator.supportsStagingTable(database);
+    }
+
+    public ValidationErrors validate(DropStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("stagingTableName", statement.getStagingTableName());
+        return validationErrors;
+    }
+
+    public Sql[] generateSql(DropStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String stagingTable = database.escapeTableName(null, statement.getStagingSchemaName(), statement.getStagingTableName());
+
+        String sql;
+        if (database instanceof MySQLDatabase) {
+            sql = "DROP TEMPORARY TABLE " + stagingTable;
+        } else if (CreateStagingTableGenerator.isHsql18(database)) {
+            sql = "DELETE FROM " + stagingTable;
+        } else {
+            sql = "DROP TABLE " + stagingTable;
+        }
+        return new Sql[] {
+                new UnparsedSql(sql)
+        };
+    }
+}
@@ -2,6 +2,7 @@ package liquibase.sqlgenerator.core;
 
 import liquibase.database.Database;
 import liquibase.database.core.*;
+import liquibase.database.structure.DatabaseObject;
 import liquibase.exception.ValidationErrors;
 import liquibase.logging.LogFactory;
 import liquibase.sql.Sql;
@@ -31,8 +32,14 @@ public class DropTableGenerator extends AbstractSqlGenerator<DropTableStatement>
             }
         }
 
+        DatabaseObject[] affectedObjects = new DatabaseObject[0];
+        if (!statement.isCascadeConstraints()) { //cascading also drops foreign keys of other tables
+            affectedObjects = new DatabaseObject[] {
+                    getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+            };
+        }
         return new Sql[]{
-                new UnparsedSql(buffer.toString())
+                new UnparsedSql(buffer.toString(), affectedObjects)
         };
     }
 }
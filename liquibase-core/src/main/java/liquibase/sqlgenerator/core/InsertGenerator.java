@@ -1,6 +1,7 @@
 package liquibase.sqlgenerator.core;
 
 import liquibase.database.Database;
+import liquibase.database.structure.DatabaseObject;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.ValidationErrors;
 import liquibase.sql.Sql;
@@ -9,6 +10,7 @@ import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.statement.core.InsertStatement;
 
 import java.util.Date;
+import java.util.List;
 
 public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
 
@@ -25,6 +27,35 @@ public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
     }
 
     public Sql[] generateSql(InsertStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[] {
+                new UnparsedSql(generateSql(statement, database, (List<Object>) null), getAffectedDatabaseObjects(statement))
+        };
+    }
+
+    protected DatabaseObject[] getAffectedDatabaseObjects(InsertStatement statement) {
+        for (Object value : statement.getColumnValues().values()) {
+            if (mayReadOtherTables(value)) {
+                return new DatabaseObject[0];
+            }
+        }
+        return new DatabaseObject[] {
+                getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+        };
+    }
+
+    /**
+     * Generates the insert with a parameter marker for each value that {@link #isParameterValue(Object, Database)}
+     * accepts, adding those values to <code>parameters</code> in marker order.  All values are written as literals if
+     * <code>parameters</code> is null.
+     */
+    public String generateSql(InsertStatement statement, Database database, List<Object> parameters) {
+        return generateInsertInto(statement, database) + " VALUES " + generateValues(statement, database, parameters);
+    }
+
+    /**
+     * Generates the insert up to the VALUES keyword: the table and the list of columns.
+     */
+    public String generateInsertInto(InsertStatement statement, Database database) {
         StringBuffer sql = new StringBuffer("INSERT INTO " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()) + " (");
         for (String column : statement.getColumnValues().keySet()) {
             sql.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column)).append(", ");
@@ -32,11 +63,23 @@ public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
         sql.deleteCharAt(sql.lastIndexOf(" "));
         sql.deleteCharAt(sql.lastIndexOf(","));
 
-        sql.append(") VALUES (");
+        sql.append(")");
+        return sql.toString();
+    }
+
+    /**
+     * Generates the parenthesized values of the insert, see {@link #generateSql(InsertStatement, Database, List)} for the
+     * use of <code>parameters</code>.
+     */
+    public String generateValues(InsertStatement statement, Database database, List<Object> parameters) {
+        StringBuffer sql = new StringBuffer("(");
 
         for (String column : statement.getColumnValues().keySet()) {
             Object newValue = statement.getColumnValues().get(column);
-            if (newValue == null || newValue.toString().equalsIgnoreCase("NULL")) {
+            if (parameters != null && isParameterValue(newValue, database)) {
+                sql.append("?");
+                parameters.add(newValue);
+            } else if (newValue == null || newValue.toString().equalsIgnoreCase("NULL")) {
                 sql.append("NULL");
             } else if (newValue instanceof String && !looksLikeFunctionCall(((String) newValue), database)) {
                 sql.append("'").append(database.escapeStringForDatabase((String) newValue)).append("'");
@@ -59,8 +102,6 @@ public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
 
         sql.append(")");
 
-        return new Sql[] {
-                new UnparsedSql(sql.toString())
-        };
+        return sql.toString();
     }
 }
@@ -2,6 +2,7 @@ package liquibase.sqlgenerator.core;
 
 import java.util.Arrays;
 import liquibase.database.Database;
+import liquibase.database.structure.DatabaseObject;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.ValidationErrors;
@@ -139,8 +140,16 @@ public abstract class InsertOrUpdateGenerator extends AbstractSqlGenerator<Inser
 
         completeSql.append(getPostUpdateStatements());
 
+        DatabaseObject[] affectedObjects = new DatabaseObject[] {
+                getAffectedTable(insertOrUpdateStatement.getCatalogName(), insertOrUpdateStatement.getSchemaName(), insertOrUpdateStatement.getTableName())
+        };
+        for (Object value : insertOrUpdateStatement.getColumnValues().values()) {
+            if (mayReadOtherTables(value)) {
+                affectedObjects = new DatabaseObject[0];
+            }
+        }
         return new Sql[]{
-                new UnparsedSql(completeSql.toString())
+                new UnparsedSql(completeSql.toString(), affectedObjects)
         };
     }
 }
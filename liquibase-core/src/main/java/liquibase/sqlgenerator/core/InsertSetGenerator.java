@@ -0,0 +1,175 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.DB2Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.structure.DatabaseObject;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.core.InsertStatement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the rows of an {@link InsertSetStatement} as multi-row inserts.  Consecutive rows with the same columns share an
+ * insert as long as the limits of the database for rows per VALUES clause and for parameters per statement allow it.
+ * Databases without multi-row inserts get one insert per row, and so do rows another generator than
+ * {@link InsertGenerator} is registered for, which get the sql of that generator.
+ */
+public class InsertSetGenerator extends AbstractSqlGenerator<InsertSetStatement> {
+
+    /**
+     * System property that enables combining the rows of consecutive insertData changes and of loadData into
+     * {@link InsertSetStatement}s.  Off by default.
+     */
+    public static final String SYSTEM_PROPERTY = "liquibase.multiRowInsert";
+
+    private static final int MAX_ROWS = 1000;
+
+    private InsertGenerator insertGenerator = new InsertGenerator();
+
+    public ValidationErrors validate(InsertSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("insertStatements", statement.getInsertStatements());
+        for (InsertStatement insertStatement : statement.getInsertStatements()) {
+            validationErrors.addAll(insertGenerator.validate(insertStatement, database, sqlGeneratorChain));
+        }
+        return validationErrors;
+    }
+
+    public Sql[] generateSql(InsertSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        DatabaseObject[] affectedObjects = new DatabaseObject[] {
+                getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+        };
+        for (InsertStatement row : statement.getInsertStatements()) {
+            if (insertGenerator.getAffectedDatabaseObjects(row).length == 0) {
+                affectedObjects = new DatabaseObject[0];
+            }
+        }
+        List<Sql> sql = new ArrayList<Sql>();
+        if (!generatesRows(statement, database)) {
+            for (InsertStatement row : statement.getInsertStatements()) {
+                sql.addAll(Arrays.asList(SqlGeneratorFactory.getInstance().generateSql(row, database)));
+            }
+            return sql.toArray(new Sql[sql.size()]);
+        }
+        for (List<InsertStatement> rows : getRowGroups(statement, database)) {
+            sql.add(new UnparsedSql(generateSql(rows, database, null), affectedObjects));
+        }
+        return sql.toArray(new Sql[sql.size()]);
+    }
+
+    /**
+     * Generates one insert for the rows, which must have the same columns.  See
+     * {@link InsertGenerator#generateSql(InsertStatement, Database, List)} for the use of <code>parameters</code>.
+     */
+    public String generateSql(List<InsertStatement> rows, Database database, List<Object> parameters) {
+        StringBuffer sql = new StringBuffer(insertGenerator.generateInsertInto(rows.get(0), database)).append(" VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(",\n");
+            }
+            sql.append(insertGenerator.generateValues(rows.get(i), database, parameters));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Returns true if the best generator for every row is {@link InsertGenerator}, so the rows can be combined into
+     * multi-row inserts with their values bound as parameters.
+     */
+    public boolean generatesRows(InsertSetStatement statement, Database database) {
+        Set<Class> checkedClasses = new HashSet<Class>();
+        for (InsertStatement row : statement.getInsertStatements()) {
+            if (checkedClasses.add(row.getClass())) {
+                SqlGenerator generator = SqlGeneratorFactory.getInstance().getBestGenerator(row, database);
+                if (generator == null || !generator.getClass().equals(InsertGenerator.class)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits the rows of the statement into the groups written as one insert.
+     */
+    public List<List<InsertStatement>> getRowGroups(InsertSetStatement statement, Database database) {
+        List<List<InsertStatement>> groups = new ArrayList<List<InsertStatement>>();
+        List<InsertStatement> group = null;
+        List<String> groupColumns = null;
+        int maxRows = 0;
+        for (InsertStatement row : statement.getInsertStatements()) {
+            List<String> columns = new ArrayList<String>(row.getColumnValues().keySet());
+            if (group == null || group.size() >= maxRows || !columns.equals(groupColumns)) {
+                group = new ArrayList<InsertStatement>();
+                groups.add(group);
+                groupColumns = columns;
+                maxRows = getMaxRows(database, columns.size());
+            }
+            group.add(row);
+        }
+        return groups;
+    }
+
+    /**
+     * Returns true if inserts should be combined into {@link InsertSetStatement}s: the {@value #SYSTEM_PROPERTY} system
+     * property is true, the database supports multi-row inserts and there are no sql visitors, which expect the sql of
+     * the individual inserts.
+     */
+    public static boolean isEnabled(Database database, List<SqlVisitor> sqlVisitors) {
+        return Boolean.valueOf(System.getProperty(SYSTEM_PROPERTY, "false"))
+                && (sqlVisitors == null || sqlVisitors.isEmpty())
+                && new InsertSetGenerator().supportsMultiRowInsert(database);
+    }
+
+    /**
+     * Returns true if the database accepts more than one row in the VALUES clause of an insert.
+     */
+    public boolean supportsMultiRowInsert(Database database) {
+        if (database instanceof MSSQLDatabase) {
+            try {
+                return database.getDatabaseMajorVersion() >= 10;
+            } catch (DatabaseException e) {
+                return false;
+            }
+        }
+        return database instanceof PostgresDatabase
+                || database instanceof MySQLDatabase
+                || database instanceof H2Database
+                || database instanceof DB2Database;
+    }
+
+    /**
+     * Returns the number of rows of the given number of columns that can be written as one insert.
+     */
+    protected int getMaxRows(Database database, int columns) {
+        if (!supportsMultiRowInsert(database)) {
+            return 1;
+        }
+        int maxRows = MAX_ROWS;
+        if (database instanceof MSSQLDatabase) {
+            maxRows = Math.min(maxRows, 2000 / Math.max(columns, 1)); //below the limit of 2100 parameters
+        } else if (database instanceof PostgresDatabase || database instanceof DB2Database) {
+            maxRows = Math.min(maxRows, Short.MAX_VALUE / Math.max(columns, 1));
+        } else if (database instanceof MySQLDatabase) {
+            maxRows = Math.min(maxRows, 65535 / Math.max(columns, 1));
+        }
+        return Math.max(maxRows, 1);
+    }
+}
@@ -0,0 +1,150 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.structure.Table;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.MergeRowsStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges with an update of the existing rows through correlated subqueries followed by an INSERT ... SELECT of the
+ * missing rows, which works on any database.  Databases with a MERGE or upsert statement have their own generator.
+ */
+public class MergeRowsGenerator extends AbstractSqlGenerator<MergeRowsStatement> {
+
+    protected static final String SOURCE_ALIAS = "src";
+    protected static final String TARGET_ALIAS = "tgt";
+
+    public ValidationErrors validate(MergeRowsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("sourceTableName", statement.getSourceTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        validationErrors.checkRequiredField("primaryKey", statement.getPrimaryKey());
+        return validationErrors;
+    }
+
+    public Sql[] generateSql(MergeRowsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String table = database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+        String tableQualifier = database.escapeDatabaseObject(statement.getTableName(), Table.class);
+        String keyCondition = getKeyCondition(statement, database, SOURCE_ALIAS, tableQualifier);
+
+        List<Sql> sql = new ArrayList<Sql>();
+        List<String> updateColumns = getUpdateColumns(statement);
+        if (updateColumns.size() > 0) {
+            StringBuffer update = new StringBuffer("UPDATE ").append(table).append(" SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    update.append(", ");
+                }
+                String column = escapeColumn(statement, database, updateColumns.get(i));
+                update.append(column).append(" = (SELECT ").append(SOURCE_ALIAS).append(".").append(column)
+                        .append(" FROM ").append(getSourceTable(statement, database)).append(" ").append(SOURCE_ALIAS)
+                        .append(" WHERE ").append(keyCondition).append(")");
+            }
+            update.append(" WHERE EXISTS (SELECT 1 FROM ").append(getSourceTable(statement, database)).append(" ").append(SOURCE_ALIAS)
+                    .append(" WHERE ").append(keyCondition).append(")");
+            sql.add(new UnparsedSql(update.toString()));
+        }
+
+        sql.add(new UnparsedSql("INSERT INTO " + table + " (" + getColumnList(statement, database, null) + ") SELECT "
+                + getColumnList(statement, database, SOURCE_ALIAS) + " FROM " + getSourceTable(statement, database) + " " + SOURCE_ALIAS
+                + " WHERE NOT EXISTS (SELECT 1 FROM " + table + " WHERE " + keyCondition + ")"));
+        return sql.toArray(new Sql[sql.size()]);
+    }
+
+    /**
+     * Generates a standard MERGE statement, for the databases that support it.
+     */
+    protected String generateMerge(MergeRowsStatement statement, Database database) {
+        StringBuffer merge = new StringBuffer("MERGE INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())).append(" ").append(TARGET_ALIAS)
+                .append(" USING ").append(getSourceTable(statement, database)).append(" ").append(SOURCE_ALIAS)
+                .append(" ON (").append(getKeyCondition(statement, database, TARGET_ALIAS, SOURCE_ALIAS)).append(")");
+
+        List<String> updateColumns = getUpdateColumns(statement);
+        if (updateColumns.size() > 0) {
+            merge.append(" WHEN MATCHED THEN UPDATE SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    merge.append(", ");
+                }
+                String column = escapeColumn(statement, database, updateColumns.get(i));
+                merge.append(column).append(" = ").append(SOURCE_ALIAS).append(".").append(column);
+            }
+        }
+        merge.append(" WHEN NOT MATCHED THEN INSERT (").append(getColumnList(statement, database, null))
+                .append(") VALUES (").append(getColumnList(statement, database, SOURCE_ALIAS)).append(")");
+        return merge.toString();
+    }
+
+    protected String getSourceTable(MergeRowsStatement statement, Database database) {
+        return database.escapeTableName(null, statement.getSourceSchemaName(), statement.getSourceTableName());
+    }
+
+    protected String escapeColumn(MergeRowsStatement statement, Database database, String column) {
+        return database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column);
+    }
+
+    /**
+     * Returns the comma separated columns of the statement, each prefixed with the given qualifier if it is not null.
+     */
+    protected String getColumnList(MergeRowsStatement statement, Database database, String qualifier) {
+        StringBuffer columns = new StringBuffer();
+        for (String column : statement.getColumnNames()) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            if (qualifier != null) {
+                columns.append(qualifier).append(".");
+            }
+            columns.append(escapeColumn(statement, database, column));
+        }
+        return columns.toString();
+    }
+
+    protected String getKeyCondition(MergeRowsStatement statement, Database database, String qualifier, String otherQualifier) {
+        StringBuffer condition = new StringBuffer();
+        for (String column : getPrimaryKeyColumns(statement)) {
+            if (condition.length() > 0) {
+                condition.append(" AND ");
+            }
+            String escapedColumn = escapeColumn(statement, database, column);
+            condition.append(qualifier).append(".").append(escapedColumn).append(" = ").append(otherQualifier).append(".").append(escapedColumn);
+        }
+        return condition.toString();
+    }
+
+    protected List<String> getPrimaryKeyColumns(MergeRowsStatement statement) {
+        List<String> columns = new ArrayList<String>();
+        for (String column : statement.getPrimaryKey().split(",")) {
+            columns.add(column.trim());
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the columns that are not part of the primary key.
+     */
+    protected List<String> getUpdateColumns(MergeRowsStatement statement) {
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(statement);
+        List<String> columns = new ArrayList<String>();
+        for (String column : statement.getColumnNames()) {
+            boolean primaryKeyColumn = false;
+            for (String primaryKey : primaryKeyColumns) {
+                if (primaryKey.equalsIgnoreCase(column)) {
+                    primaryKeyColumn = true;
+                }
+            }
+            if (!primaryKeyColumn) {
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,28 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.DB2Database;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.MergeRowsStatement;
+
+public class MergeRowsGeneratorDB2 extends MergeRowsGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(MergeRowsStatement statement, Database database) {
+        return database instanceof DB2Database;
+    }
+
+    @Override
+    public Sql[] generateSql(MergeRowsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[] {
+                new UnparsedSql(generateMerge(statement, database))
+        };
+    }
+}
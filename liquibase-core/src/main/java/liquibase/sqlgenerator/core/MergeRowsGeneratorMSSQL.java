@@ -0,0 +1,39 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.MergeRowsStatement;
+
+/**
+ * Uses MERGE, available since SQL Server 2008, which must be terminated by a semicolon.
+ */
+public class MergeRowsGeneratorMSSQL extends MergeRowsGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(MergeRowsStatement statement, Database database) {
+        return database instanceof MSSQLDatabase;
+    }
+
+    @Override
+    public Sql[] generateSql(MergeRowsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        try {
+            if (database.getDatabaseMajorVersion() < 10) {
+                return super.generateSql(statement, database, sqlGeneratorChain);
+            }
+        } catch (DatabaseException e) {
+            return super.generateSql(statement, database, sqlGeneratorChain);
+        }
+        return new Sql[] {
+                new UnparsedSql(generateMerge(statement, database) + ";")
+        };
+    }
+}
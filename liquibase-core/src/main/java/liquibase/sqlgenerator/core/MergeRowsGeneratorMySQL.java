@@ -0,0 +1,48 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.MergeRowsStatement;
+
+import java.util.List;
+
+/**
+ * Uses INSERT ... SELECT ... ON DUPLICATE KEY UPDATE, or INSERT IGNORE if all columns are part of the primary key.
+ */
+public class MergeRowsGeneratorMySQL extends MergeRowsGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(MergeRowsStatement statement, Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    @Override
+    public Sql[] generateSql(MergeRowsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<String> updateColumns = getUpdateColumns(statement);
+        StringBuffer sql = new StringBuffer(updateColumns.size() == 0 ? "INSERT IGNORE INTO " : "INSERT INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" (").append(getColumnList(statement, database, null)).append(") SELECT ").append(getColumnList(statement, database, null))
+                .append(" FROM ").append(getSourceTable(statement, database));
+        if (updateColumns.size() > 0) {
+            sql.append(" ON DUPLICATE KEY UPDATE ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                String column = escapeColumn(statement, database, updateColumns.get(i));
+                sql.append(column).append(" = VALUES(").append(column).append(")");
+            }
+        }
+        return new Sql[] {
+                new UnparsedSql(sql.toString())
+        };
+    }
+}
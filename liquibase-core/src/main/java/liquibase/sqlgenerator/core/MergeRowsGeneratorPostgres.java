@@ -0,0 +1,74 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.MergeRowsStatement;
+
+import java.util.List;
+
+/**
+ * Uses INSERT ... ON CONFLICT, available since PostgreSQL 9.5, which needs a unique constraint on the primary key
+ * columns.
+ */
+public class MergeRowsGeneratorPostgres extends MergeRowsGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(MergeRowsStatement statement, Database database) {
+        return database instanceof PostgresDatabase;
+    }
+
+    @Override
+    public Sql[] generateSql(MergeRowsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        if (!supportsOnConflict(database)) {
+            return super.generateSql(statement, database, sqlGeneratorChain);
+        }
+
+        StringBuffer sql = new StringBuffer("INSERT INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" (").append(getColumnList(statement, database, null)).append(") SELECT ").append(getColumnList(statement, database, null))
+                .append(" FROM ").append(getSourceTable(statement, database)).append(" ON CONFLICT (");
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(statement);
+        for (int i = 0; i < primaryKeyColumns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(escapeColumn(statement, database, primaryKeyColumns.get(i)));
+        }
+        sql.append(")");
+
+        List<String> updateColumns = getUpdateColumns(statement);
+        if (updateColumns.size() == 0) {
+            sql.append(" DO NOTHING");
+        } else {
+            sql.append(" DO UPDATE SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                String column = escapeColumn(statement, database, updateColumns.get(i));
+                sql.append(column).append(" = EXCLUDED.").append(column);
+            }
+        }
+        return new Sql[] {
+                new UnparsedSql(sql.toString())
+        };
+    }
+
+    private boolean supportsOnConflict(Database database) {
+        try {
+            int majorVersion = database.getDatabaseMajorVersion();
+            return majorVersion > 9 || (majorVersion == 9 && database.getDatabaseMinorVersion() >= 5);
+        } catch (DatabaseException e) {
+            return false;
+        }
+    }
+}
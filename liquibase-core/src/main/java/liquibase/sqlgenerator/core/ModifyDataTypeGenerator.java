@@ -46,7 +46,7 @@ public class ModifyDataTypeGenerator extends AbstractSqlGenerator<ModifyDataType
         // add column type
         alterTable += DataTypeFactory.getInstance().fromDescription(statement.getNewDataType()).toDatabaseDataType(database);
 
-        return new Sql[]{new UnparsedSql(alterTable)};
+        return new Sql[]{new UnparsedSql(alterTable, getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))};
     }
 
     /**
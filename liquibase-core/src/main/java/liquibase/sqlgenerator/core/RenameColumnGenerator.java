@@ -54,7 +54,7 @@ public class RenameColumnGenerator extends AbstractSqlGenerator<RenameColumnStat
         }
 
         return new Sql[] {
-                new UnparsedSql(sql)
+                new UnparsedSql(sql, getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
         };
     }
 }
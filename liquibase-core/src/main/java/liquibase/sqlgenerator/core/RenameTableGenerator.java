@@ -49,7 +49,9 @@ public class RenameTableGenerator extends AbstractSqlGenerator<RenameTableStatem
         }
 
         return new Sql[] {
-                new UnparsedSql(sql)
+                new UnparsedSql(sql,
+                        getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getOldTableName()),
+                        getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getNewTableName()))
         };  //To change body of implemented methods use File | Settings | File Templates.
     }
 }
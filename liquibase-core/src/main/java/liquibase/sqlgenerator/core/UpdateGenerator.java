@@ -1,6 +1,7 @@
 package liquibase.sqlgenerator.core;
 
 import liquibase.database.Database;
+import liquibase.database.structure.DatabaseObject;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.ValidationErrors;
 import liquibase.sql.Sql;
@@ -9,6 +10,7 @@ import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.statement.core.UpdateStatement;
 
 import java.util.Date;
+import java.util.List;
 
 public class UpdateGenerator extends AbstractSqlGenerator<UpdateStatement> {
 
@@ -20,25 +22,66 @@ public class UpdateGenerator extends AbstractSqlGenerator<UpdateStatement> {
     }
 
     public Sql[] generateSql(UpdateStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[]{
+                new UnparsedSql(generateSql(statement, database, (List<Object>) null), getAffectedDatabaseObjects(statement))
+        };
+    }
+
+    protected DatabaseObject[] getAffectedDatabaseObjects(UpdateStatement statement) {
+        if (mayReadOtherTables(statement.getWhereClause())) {
+            return new DatabaseObject[0];
+        }
+        for (Object value : statement.getNewColumnValues().values()) {
+            if (mayReadOtherTables(value)) {
+                return new DatabaseObject[0];
+            }
+        }
+        return new DatabaseObject[] {
+                getAffectedTable(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+        };
+    }
+
+    /**
+     * Generates the update with a parameter marker for each new value and where parameter that
+     * {@link #isParameterValue(Object, Database)} accepts, adding those values to <code>parameters</code> in marker order.
+     * All values are written as literals if <code>parameters</code> is null.
+     */
+    public String generateSql(UpdateStatement statement, Database database, List<Object> parameters) {
         StringBuffer sql = new StringBuffer("UPDATE " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()) + " SET");
         for (String column : statement.getNewColumnValues().keySet()) {
             sql.append(" ").append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column)).append(" = ");
-            sql.append(convertToString(statement.getNewColumnValues().get(column), database));
+            Object newValue = statement.getNewColumnValues().get(column);
+            if (parameters != null && isParameterValue(newValue, database)) {
+                sql.append("?");
+                parameters.add(newValue);
+            } else {
+                sql.append(convertToString(newValue, database));
+            }
             sql.append(",");
         }
 
         sql.deleteCharAt(sql.lastIndexOf(","));
         if (statement.getWhereClause() != null) {
             String fixedWhereClause = "WHERE " + statement.getWhereClause().trim();
+            int markerSearchStart = 0;
             for (Object param : statement.getWhereParameters()) {
-                fixedWhereClause = fixedWhereClause.replaceFirst("\\?", DataTypeFactory.getInstance().fromObject(param, database).objectToSql(param, database));
+                int marker = fixedWhereClause.indexOf('?', markerSearchStart);
+                if (marker < 0) {
+                    break;
+                }
+                if (parameters != null && isParameterValue(param, database)) {
+                    parameters.add(param);
+                    markerSearchStart = marker + 1;
+                } else {
+                    String literal = DataTypeFactory.getInstance().fromObject(param, database).objectToSql(param, database);
+                    fixedWhereClause = fixedWhereClause.substring(0, marker) + literal + fixedWhereClause.substring(marker + 1);
+                    markerSearchStart = marker + literal.length();
+                }
             }
             sql.append(" ").append(fixedWhereClause);
         }
 
-        return new Sql[]{
-                new UnparsedSql(sql.toString())
-        };
+        return sql.toString();
     }
 
     private String convertToString(Object newValue, Database database) {
@@ -0,0 +1,18 @@
+package liquibase.statement;
+
+import liquibase.database.Database;
+
+import java.util.List;
+
+/**
+ * An {@link ExecutablePreparedStatement} whose sql can be generated separately from its parameter values, so executors
+ * can add consecutive statements with the same sql to one JDBC batch.
+ */
+public interface BatchablePreparedStatement extends ExecutablePreparedStatement {
+
+    /**
+     * Generates the sql with parameter markers, adding the values to bind to <code>parameters</code> in marker order.
+     * Returns null if the statement has to be executed from the literal sql of its generator.
+     */
+    String generatePreparedSql(Database database, List<Object> parameters);
+}
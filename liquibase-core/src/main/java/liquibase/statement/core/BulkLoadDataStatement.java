@@ -0,0 +1,132 @@
+package liquibase.statement.core;
+
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.AbstractSqlStatement;
+import liquibase.statement.ExecutablePreparedStatement;
+import liquibase.util.JdbcUtils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Loads a data file into a table with the bulk loader of the database instead of one insert per row.
+ * <p>
+ * The data file is UTF-8 encoded with one row per line, without header.  Values are separated by commas and enclosed in
+ * double quotes, with double quotes in values doubled.  NULL values are written as the unquoted word NULL.
+ * <p>
+ * The sql of the statement is generated by a dialect specific generator.  On PostgreSQL it is a COPY FROM STDIN, which is
+ * fed with the data file through the copy API of the JDBC driver.
+ */
+public class BulkLoadDataStatement extends AbstractSqlStatement implements ExecutablePreparedStatement {
+
+    public static final String ENCODING = "UTF-8";
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private List<String> columnNames;
+    private String dataFile;
+
+    public BulkLoadDataStatement(String catalogName, String schemaName, String tableName, List<String> columnNames, String dataFile) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.columnNames = columnNames;
+        this.dataFile = dataFile;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Absolute path of the data file.
+     */
+    public String getDataFile() {
+        return dataFile;
+    }
+
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        Database database = factory.getDatabase();
+        if (database == null) {
+            throw new DatabaseException("Cannot bulk load data without a database");
+        }
+        Sql[] sql = SqlGeneratorFactory.getInstance().generateSql(this, database);
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+
+        if (database instanceof PostgresDatabase) {
+            copyIn(connection, sql[0].toSql());
+            return;
+        }
+
+        Statement stmt = null;
+        String currentSql = null;
+        try {
+            stmt = connection.createStatement();
+            for (Sql statementSql : sql) {
+                currentSql = statementSql.toSql();
+                stmt.execute(currentSql);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing SQL " + currentSql + ": " + e.getMessage(), e);
+        } finally {
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+
+    /**
+     * Runs the COPY FROM STDIN statement through the CopyManager of the PostgreSQL driver.  The driver is used by
+     * reflection since it is not a dependency of liquibase.
+     */
+    private void copyIn(Connection connection, String sql) throws DatabaseException {
+        Reader reader = null;
+        try {
+            Class<?> pgConnection = Class.forName("org.postgresql.PGConnection", true, connection.getClass().getClassLoader());
+            if (!pgConnection.isInstance(connection)) {
+                throw new DatabaseException("COPY needs a connection of the PostgreSQL JDBC driver, not " + connection.getClass().getName());
+            }
+            Object copyManager = pgConnection.getMethod("getCopyAPI").invoke(connection);
+            reader = new InputStreamReader(new FileInputStream(dataFile), ENCODING);
+            copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager, sql, reader);
+        } catch (InvocationTargetException e) {
+            throw new DatabaseException("Error executing SQL " + sql + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Error executing SQL " + sql + ": " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    //nothing to do
+                }
+            }
+        }
+    }
+}
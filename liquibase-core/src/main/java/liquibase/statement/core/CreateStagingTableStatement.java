@@ -0,0 +1,60 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.List;
+
+/**
+ * Creates an empty temporary table with the given columns of an existing table, with the same types but without
+ * constraints.  The table only exists for the connection and is created without committing the current transaction
+ * (see {@link liquibase.sqlgenerator.core.CreateStagingTableGenerator#supportsStagingTable(liquibase.database.Database)}).
+ */
+public class CreateStagingTableStatement extends AbstractSqlStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private String stagingSchemaName;
+    private String stagingTableName;
+    private List<String> columnNames;
+
+    public CreateStagingTableStatement(String catalogName, String schemaName, String tableName, String stagingSchemaName, String stagingTableName, List<String> columnNames) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.stagingSchemaName = stagingSchemaName;
+        this.stagingTableName = stagingTableName;
+        this.columnNames = columnNames;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    /**
+     * The table the columns are copied from.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * The schema the temporary table has to be referenced with, see
+     * {@link liquibase.sqlgenerator.core.CreateStagingTableGenerator#getStagingSchemaName(liquibase.database.Database)}.
+     */
+    public String getStagingSchemaName() {
+        return stagingSchemaName;
+    }
+
+    public String getStagingTableName() {
+        return stagingTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+}
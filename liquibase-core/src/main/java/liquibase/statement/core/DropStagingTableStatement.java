@@ -0,0 +1,25 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * Drops a temporary table created with a {@link CreateStagingTableStatement} without committing the current transaction.
+ */
+public class DropStagingTableStatement extends AbstractSqlStatement {
+
+    private String stagingSchemaName;
+    private String stagingTableName;
+
+    public DropStagingTableStatement(String stagingSchemaName, String stagingTableName) {
+        this.stagingSchemaName = stagingSchemaName;
+        this.stagingTableName = stagingTableName;
+    }
+
+    public String getStagingSchemaName() {
+        return stagingSchemaName;
+    }
+
+    public String getStagingTableName() {
+        return stagingTableName;
+    }
+}
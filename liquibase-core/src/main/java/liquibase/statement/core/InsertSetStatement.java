@@ -0,0 +1,84 @@
+package liquibase.statement.core;
+
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.InsertSetGenerator;
+import liquibase.statement.AbstractSqlStatement;
+import liquibase.statement.ExecutablePreparedStatement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows to insert into one table, written as multi-row inserts (INSERT ... VALUES (...), (...)) on databases that support
+ * them, within the row and parameter limits of the database.  Executors that work on a JDBC connection execute the
+ * inserts as cached prepared statements, unless generators other than {@link InsertSetGenerator} and
+ * {@link liquibase.sqlgenerator.core.InsertGenerator} are registered for the statement or its rows.
+ */
+public class InsertSetStatement extends AbstractSqlStatement implements ExecutablePreparedStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private List<InsertStatement> insertStatements = new ArrayList<InsertStatement>();
+
+    public InsertSetStatement(String catalogName, String schemaName, String tableName) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public InsertSetStatement addInsertStatement(InsertStatement statement) {
+        insertStatements.add(statement);
+        return this;
+    }
+
+    public List<InsertStatement> getInsertStatements() {
+        return insertStatements;
+    }
+
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        Database database = factory.getDatabase();
+        if (database == null) {
+            throw new DatabaseException("Cannot prepare insert without a database");
+        }
+        SqlGenerator bestGenerator = SqlGeneratorFactory.getInstance().getBestGenerator(this, database);
+        if (bestGenerator == null || !bestGenerator.getClass().equals(InsertSetGenerator.class)
+                || !((InsertSetGenerator) bestGenerator).generatesRows(this, database)) {
+            for (Sql literalSql : SqlGeneratorFactory.getInstance().generateSql(this, database)) {
+                factory.execute(literalSql.toSql());
+            }
+            return;
+        }
+        InsertSetGenerator generator = (InsertSetGenerator) bestGenerator;
+        for (List<InsertStatement> rows : generator.getRowGroups(this, database)) {
+            List<Object> parameters = new ArrayList<Object>();
+            String sql = generator.generateSql(rows, database, parameters);
+            PreparedStatement stmt = factory.prepare(sql);
+            factory.setParameters(stmt, parameters);
+            try {
+                stmt.execute();
+            } catch (SQLException e) {
+                throw new DatabaseException("Error executing SQL " + sql + ": " + e.getMessage(), e);
+            }
+        }
+    }
+}
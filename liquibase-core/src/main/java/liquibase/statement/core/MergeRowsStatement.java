@@ -0,0 +1,64 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.List;
+
+/**
+ * Inserts the rows of a source table into a table, updating the rows that already exist with the same
+ * primary key instead.
+ */
+public class MergeRowsStatement extends AbstractSqlStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private String sourceSchemaName;
+    private String sourceTableName;
+    private List<String> columnNames;
+    private String primaryKey;
+
+    /**
+     * @param primaryKey comma separated list of the columns identifying a row
+     */
+    public MergeRowsStatement(String catalogName, String schemaName, String tableName, String sourceSchemaName, String sourceTableName, List<String> columnNames, String primaryKey) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.sourceSchemaName = sourceSchemaName;
+        this.sourceTableName = sourceTableName;
+        this.columnNames = columnNames;
+        this.primaryKey = primaryKey;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * The schema of the source table, null for the default schema.
+     */
+    public String getSourceSchemaName() {
+        return sourceSchemaName;
+    }
+
+    public String getSourceTableName() {
+        return sourceTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public String getPrimaryKey() {
+        return primaryKey;
+    }
+}
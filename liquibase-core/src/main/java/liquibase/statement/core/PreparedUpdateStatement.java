@@ -0,0 +1,61 @@
+package liquibase.statement.core;
+
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.UpdateGenerator;
+import liquibase.statement.BatchablePreparedStatement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Update that is executed as a cached prepared statement with its new values and where parameters bound as parameters.
+ * Executors that do not work on a JDBC connection, such as the one used for updateSQL, get the literal sql of the
+ * {@link UpdateStatement}.  The where clause must not contain parameter markers other than those of the where parameters.
+ */
+public class PreparedUpdateStatement extends UpdateStatement implements BatchablePreparedStatement {
+
+    public PreparedUpdateStatement(String catalogName, String schemaName, String tableName) {
+        super(catalogName, schemaName, tableName);
+    }
+
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        Database database = factory.getDatabase();
+        if (database == null) {
+            throw new DatabaseException("Cannot prepare update without a database");
+        }
+        List<Object> parameters = new ArrayList<Object>();
+        String sql = generatePreparedSql(database, parameters);
+        if (sql == null) {
+            for (Sql literalSql : SqlGeneratorFactory.getInstance().generateSql(this, database)) {
+                factory.execute(literalSql.toSql());
+            }
+            return;
+        }
+        PreparedStatement stmt = factory.prepare(sql);
+        factory.setParameters(stmt, parameters);
+        try {
+            stmt.execute();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing SQL " + sql + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns null if a generator other than {@link UpdateGenerator} is registered for the statement, since only that one
+     * can bind the values as parameters.
+     */
+    public String generatePreparedSql(Database database, List<Object> parameters) {
+        SqlGenerator generator = SqlGeneratorFactory.getInstance().getBestGenerator(this, database);
+        if (generator == null || !generator.getClass().equals(UpdateGenerator.class)) {
+            return null;
+        }
+        return ((UpdateGenerator) generator).generateSql(this, database, parameters);
+    }
+}
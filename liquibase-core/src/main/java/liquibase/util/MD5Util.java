@@ -2,9 +2,14 @@ package liquibase.util;
 
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
+import liquibase.logging.LogLevel;
+import liquibase.logging.Logger;
 
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.MessageDigest;
 
 /**
@@ -20,33 +25,63 @@ public class MD5Util {
            '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
     };
 
+    /**
+     * Size of the blocks read from streams while computing md5-sums.
+     */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Files with more remaining content than this are memory-mapped rather than read through a buffer.
+     */
+    private static final long MAPPED_FILE_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Largest region of a file mapped at once.
+     */
+    private static final long MAPPED_WINDOW_SIZE = 32 * 1024 * 1024;
+
     public static String computeMD5(String input) {
         if (input == null) {
             return null;
         }
-        MessageDigest digest;
+        MD5Writer writer = new MD5Writer();
         try {
-            digest = MessageDigest.getInstance("MD5");
-            digest.update(input.getBytes("UTF-8"));
-        } catch (Exception e) {
+            writer.write(input);
+        } catch (IOException e) {
             throw new UnexpectedLiquibaseException(e);
         }
-        byte[] digestBytes = digest.digest();
+        String returnString = writer.getMD5();
 
-        String returnString = new String(encodeHex(digestBytes));
-        LogFactory.getLogger().debug("Computed checksum for "+input+" as "+returnString);
+        Logger logger = LogFactory.getLogger();
+        if (isDebugEnabled(logger)) {
+            logger.debug("Computed checksum for "+input+" as "+returnString);
+        }
         return returnString;
 
     }
 
+    /**
+     * Computes the md5-sum of the remaining content of the stream, reading it in blocks.
+     * Streams on local files (as returned by {@link liquibase.resource.FileSystemResourceAccessor}) are memory-mapped
+     * instead of copied through a buffer.  The stream is not closed.
+     */
     public static String computeMD5(InputStream stream) {
         MessageDigest digest;
         try {
             digest = MessageDigest.getInstance("MD5");
 
-            DigestInputStream digestStream = new DigestInputStream(stream, digest);
-            while (digestStream.read() != -1) {
-                ; //digest is updating
+            FileChannel channel = null;
+            if (stream instanceof FileInputStream) {
+                channel = ((FileInputStream) stream).getChannel();
+            }
+            if (channel != null && channel.size() - channel.position() > MAPPED_FILE_THRESHOLD) {
+                updateFromChannel(digest, channel);
+            } else {
+                byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -55,10 +90,31 @@ public class MD5Util {
 
         String returnString = new String(encodeHex(digestBytes));
 
-        LogFactory.getLogger().debug("Computed checksum for "+returnString+" as "+returnString);
+        LogFactory.getLogger().debug("Computed checksum for stream as "+returnString);
         return returnString;
     }
 
+    /**
+     * Updates the digest with the channel content from its current position to the end, mapping it a window at a time so
+     * large files do not need an equally large address range.  The channel is left positioned at the end.
+     */
+    private static void updateFromChannel(MessageDigest digest, FileChannel channel) throws IOException {
+        long position = channel.position();
+        long size = channel.size();
+        while (position < size) {
+            long length = Math.min(MAPPED_WINDOW_SIZE, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            digest.update(window);
+            position += length;
+        }
+        channel.position(position);
+    }
+
+    private static boolean isDebugEnabled(Logger logger) {
+        LogLevel level = logger.getLogLevel();
+        return level == null || level.compareTo(LogLevel.DEBUG) <= 0;
+    }
+
     /**
      * Converts an array of bytes into an array of characters representing the hexadecimal values of each byte in order.
      * The returned array will be double the length of the passed array, as it takes two characters to represent any
@@ -68,7 +124,7 @@ public class MD5Util {
      *            a byte[] to convert to Hex characters
      * @return A char[] containing hexadecimal characters
      */
-    private static char[] encodeHex(byte[] data) {
+    static char[] encodeHex(byte[] data) {
 
         int l = data.length;
 
@@ -0,0 +1,129 @@
+package liquibase.util;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.security.MessageDigest;
+
+/**
+ * Writer that computes the md5-sum of the UTF-8 encoding of everything written to it.
+ * The result is the same as {@link MD5Util#computeMD5(String)} on the concatenated text, without building that String.
+ * Characters are encoded into a reused byte buffer that is passed straight to the digest.
+ */
+public class MD5Writer extends Writer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private MessageDigest digest;
+    private byte[] bytes = new byte[BUFFER_SIZE];
+    private int byteCount;
+    private char[] chunk;
+    private char highSurrogate;
+
+    public MD5Writer() {
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80 && highSurrogate == 0 && byteCount < BUFFER_SIZE) {
+                bytes[byteCount++] = (byte) c;
+            } else {
+                encode(c);
+            }
+        }
+    }
+
+    /**
+     * Copies the string through a reused buffer so a large String is never duplicated as a whole.
+     */
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        if (chunk == null) {
+            chunk = new char[BUFFER_SIZE];
+        }
+        int end = offset + length;
+        while (offset < end) {
+            int chunkLength = Math.min(chunk.length, end - offset);
+            string.getChars(offset, offset + chunkLength, chunk, 0);
+            write(chunk, 0, chunkLength);
+            offset += chunkLength;
+        }
+    }
+
+    /**
+     * Appends the UTF-8 bytes of the character.  Unpaired surrogates are written as '?', as the JDK encoder does.
+     */
+    private void encode(char c) {
+        if (byteCount > BUFFER_SIZE - 4) {
+            flushBytes();
+        }
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                bytes[byteCount++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[byteCount++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[byteCount++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[byteCount++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            bytes[byteCount++] = '?';
+            encode(c);
+            return;
+        }
+        if (c < 0x80) {
+            bytes[byteCount++] = (byte) c;
+        } else if (c < 0x800) {
+            bytes[byteCount++] = (byte) (0xC0 | (c >> 6));
+            bytes[byteCount++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            bytes[byteCount++] = '?';
+        } else {
+            bytes[byteCount++] = (byte) (0xE0 | (c >> 12));
+            bytes[byteCount++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[byteCount++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBytes() {
+        digest.update(bytes, 0, byteCount);
+        byteCount = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    /**
+     * Returns the md5-sum of everything written so far as a lower case hex string.  The writer should not be used afterwards.
+     */
+    public String getMD5() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            bytes[byteCount++] = '?';
+        }
+        flushBytes();
+        return new String(MD5Util.encodeHex(digest.digest()));
+    }
+}
@@ -0,0 +1,80 @@
+package liquibase.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer that converts \r\n and \r to \n as they are written.  Gives the same result as
+ * <code>text.replace("\r\n", "\n").replace("\r", "\n")</code> on the concatenated text.
+ */
+public class NewlineNormalizingWriter extends Writer {
+    private Writer out;
+    private boolean lastWasCarriageReturn;
+    private char[] buffer;
+
+    public NewlineNormalizingWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        int start = offset;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c == '\r') {
+                out.write(chars, start, i - start);
+                out.write('\n');
+                start = i + 1;
+                lastWasCarriageReturn = true;
+            } else {
+                if (c == '\n' && lastWasCarriageReturn) {
+                    out.write(chars, start, i - start);
+                    start = i + 1;
+                }
+                lastWasCarriageReturn = false;
+            }
+        }
+        out.write(chars, start, end - start);
+    }
+
+    /**
+     * Passes text without carriage returns straight through, and converts the rest a block at a time so large
+     * strings are not copied as a whole.
+     */
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        if (string.indexOf('\r', offset) < 0 || string.indexOf('\r', offset) >= offset + length) {
+            if (lastWasCarriageReturn && string.charAt(offset) == '\n') {
+                out.write(string, offset + 1, length - 1);
+            } else {
+                out.write(string, offset, length);
+            }
+            lastWasCarriageReturn = false;
+            return;
+        }
+        if (buffer == null) {
+            buffer = new char[8192];
+        }
+        int end = offset + length;
+        while (offset < end) {
+            int chunkLength = Math.min(buffer.length, end - offset);
+            string.getChars(offset, offset + chunkLength, buffer, 0);
+            write(buffer, 0, chunkLength);
+            offset += chunkLength;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
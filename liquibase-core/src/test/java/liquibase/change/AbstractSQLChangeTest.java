@@ -38,6 +38,16 @@ public class AbstractSQLChangeTest extends AbstractChangeTest {
         assertEquals("Custom SQL executed", refactoring.getConfirmationMessage());
     }
 
+    @Test
+    public void generateCheckSum_normalizesNewlines() throws Exception {
+        refactoring.setSql("SELECT *\r\nFROM x\rWHERE y=1");
+        refactoring.setEndDelimiter("GO");
+        assertEquals(CheckSum.compute("GO:true:false:SELECT *\nFROM x\nWHERE y=1"), refactoring.generateCheckSum());
+
+        refactoring.setSql(null);
+        assertEquals(CheckSum.compute("GO:true:false:"), refactoring.generateCheckSum());
+    }
+
 //    @Test
 //    public void multiLineSQLFileSemiColon() throws Exception {
 //        SQLFileChange change2 = new SQLFileChange();
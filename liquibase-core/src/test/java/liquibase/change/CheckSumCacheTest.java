@@ -0,0 +1,149 @@
+package liquibase.change;
+
+import liquibase.change.core.LoadDataChange;
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.resource.FileSystemResourceAccessor;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+public class CheckSumCacheTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile("checksumcache", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(CheckSumCache.DIRECTORY_PROPERTY);
+        CheckSumCache.reset();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void disabledByDefault() {
+        CheckSumCache cache = new CheckSumCache(null);
+        assertFalse(cache.isEnabled());
+        cache.put("path/changelog.xml", "fingerprint", "key", CheckSum.compute("value"));
+        assertNull(cache.get("path/changelog.xml", "fingerprint", "key"));
+    }
+
+    @Test
+    public void storedAcrossInstances() {
+        CheckSum checkSum = CheckSum.compute("value");
+        new CheckSumCache(directory).put("path/changelog.xml", "fingerprint", "key", checkSum);
+
+        CheckSumCache cache = new CheckSumCache(directory);
+        assertEquals(checkSum, cache.get("path/changelog.xml", "fingerprint", "key"));
+        assertNull(cache.get("path/changelog.xml", "fingerprint", "other key"));
+        assertNull(cache.get("path/other.xml", "fingerprint", "key"));
+    }
+
+    @Test
+    public void changedResourceDiscardsEntries() {
+        new CheckSumCache(directory).put("path/changelog.xml", "fingerprint", "key", CheckSum.compute("value"));
+
+        assertNull(new CheckSumCache(directory).get("path/changelog.xml", "new fingerprint", "key"));
+        assertNull(new CheckSumCache(directory).get("path/changelog.xml", "fingerprint", "key"));
+    }
+
+    @Test
+    public void getResourceFingerprint() throws Exception {
+        File file = new File(directory, "changelog.sql");
+        write(file, "select 1");
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+
+        String fingerprint = CheckSumCache.getResourceFingerprint(resourceAccessor, "changelog.sql");
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, CheckSumCache.getResourceFingerprint(resourceAccessor, "changelog.sql"));
+
+        write(file, "select 12");
+        assertFalse(fingerprint.equals(CheckSumCache.getResourceFingerprint(resourceAccessor, "changelog.sql")));
+
+        assertNull(CheckSumCache.getResourceFingerprint(resourceAccessor, "missing.sql"));
+    }
+
+    @Test
+    public void changeSetUsesCache() {
+        System.setProperty(CheckSumCache.DIRECTORY_PROPERTY, directory.getAbsolutePath());
+        CheckSumCache.reset();
+
+        CheckSum computed = createChangeSet("select 1").generateCheckSum();
+
+        long computedBefore = ChangeSet.getCheckSumComputationCount();
+        assertEquals(computed, createChangeSet("select 1").generateCheckSum());
+        assertEquals(computedBefore, ChangeSet.getCheckSumComputationCount());
+
+        ChangeSet notParsed = createChangeSet("select 1");
+        notParsed.setChangeLog(null);
+        assertEquals(computed, notParsed.generateCheckSum());
+        assertEquals(computedBefore + 1, ChangeSet.getCheckSumComputationCount());
+    }
+
+    @Test
+    public void changeSetKeysDataFilesByFingerprint() throws Exception {
+        System.setProperty(CheckSumCache.DIRECTORY_PROPERTY, directory.getAbsolutePath());
+        CheckSumCache.reset();
+        File dataFile = new File(directory, "data.csv");
+        write(dataFile, "id,name\n1,a\n");
+        FileSystemResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory.getAbsolutePath());
+
+        final int[] dataFileReads = new int[1];
+        ChangeSet changeSet = createChangeSet("select 1");
+        LoadDataChange change = new LoadDataChange() {
+            @Override
+            public CheckSum generateCheckSum() {
+                dataFileReads[0]++;
+                return super.generateCheckSum();
+            }
+        };
+        change.setTableName("test_table");
+        change.setFile("data.csv");
+        change.setResourceAccessor(resourceAccessor);
+        changeSet.addChange(change);
+
+        CheckSum computed = changeSet.generateCheckSum();
+        assertEquals(1, dataFileReads[0]);
+
+        changeSet.clearCheckSumCache();
+        assertEquals(computed, changeSet.generateCheckSum());
+        assertEquals("cache hit does not read the data file", 1, dataFileReads[0]);
+    }
+
+    private ChangeSet createChangeSet(String sql) {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog.xml");
+        changeLog.setResourceFingerprint("fingerprint");
+        changeLog.setChangeLogParameters(new ChangeLogParameters());
+
+        ChangeSet changeSet = new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null);
+        changeSet.setChangeLog(changeLog);
+        RawSQLChange change = new RawSQLChange();
+        change.setSql(sql);
+        changeSet.addChange(change);
+        return changeSet;
+    }
+
+    private void write(File file, String content) throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+    }
+}
@@ -1,14 +1,24 @@
 package liquibase.change.core;
 
 import liquibase.change.AbstractChangeTest;
+import liquibase.change.Change;
 import liquibase.change.ColumnConfig;
 import liquibase.database.core.MockDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.core.InsertSetGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertStatement;
 import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Tests for {@link InsertDataChange}
  */
@@ -66,4 +76,41 @@ public class InsertDataChangeTest extends AbstractChangeTest {
     public void getConfirmationMessage() throws Exception {
         assertEquals("New row inserted into TABLE_NAME", refactoring.getConfirmationMessage());
     }
+
+    @Test
+    public void executeStatements_combinesConsecutiveInserts() throws Exception {
+        PostgresDatabase database = new PostgresDatabase();
+        StringWriter output = new StringWriter();
+        ExecutorService.getInstance().setExecutor(database, new LoggingExecutor(null, output, database));
+        System.setProperty(InsertSetGenerator.SYSTEM_PROPERTY, "true");
+        try {
+            RawSQLChange sqlChange = new RawSQLChange("DELETE FROM loaded");
+            List<Change> changes = new ArrayList<Change>();
+            changes.add(insert("loaded", 1));
+            changes.add(insert("loaded", 2));
+            changes.add(insert("other", 3));
+            changes.add(sqlChange);
+            changes.add(insert("loaded", 4));
+            database.executeStatements(changes, null, new ArrayList<SqlVisitor>(), false, true);
+
+            String sql = output.toString();
+            assertTrue(sql, sql.contains("INSERT INTO loaded (id) VALUES (1),\n(2)"));
+            assertTrue(sql, sql.indexOf("INSERT INTO other (id) VALUES (3)") > sql.indexOf("(2)"));
+            assertTrue(sql, sql.indexOf("DELETE FROM loaded") > sql.indexOf("VALUES (3)"));
+            assertTrue(sql, sql.indexOf("INSERT INTO loaded (id) VALUES (4)") > sql.indexOf("DELETE FROM loaded"));
+        } finally {
+            System.clearProperty(InsertSetGenerator.SYSTEM_PROPERTY);
+            ExecutorService.getInstance().clearExecutor(database);
+        }
+    }
+
+    private InsertDataChange insert(String tableName, int id) {
+        InsertDataChange change = new InsertDataChange();
+        change.setTableName(tableName);
+        ColumnConfig column = new ColumnConfig();
+        column.setName("id");
+        column.setValueNumeric(String.valueOf(id));
+        change.addColumn(column);
+        return change;
+    }
 }
@@ -1,14 +1,41 @@
 package liquibase.change.core;
 
 import liquibase.change.AbstractChangeTest;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
 import liquibase.database.core.MockDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.sql.visitor.SqlVisitor;
 import liquibase.statement.SqlStatement;
+import liquibase.sql.visitor.ReplaceSqlVisitor;
+import liquibase.sqlgenerator.core.InsertSetGenerator;
+import liquibase.statement.core.InsertSetStatement;
 import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.csv.FastCSVReader;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.FilenameFilter;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.zip.GZIPOutputStream;
+
 /**
  * Tests for {@link liquibase.change.core.AlterSequenceChange}
  */
@@ -101,6 +128,34 @@ public class LoadDataChangeTest extends AbstractChangeTest {
         stdAssertOfLoaded(sqlStatements);
     }
 
+    @Test
+    public void generateStatement_multiRowInsert() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setSchemaName("SCHEMA_NAME");
+        refactoring.setTableName("TABLE_NAME");
+        refactoring.setFile("liquibase/change/core/sample.data1.csv");
+        refactoring.setResourceAccessor(new ClassLoaderResourceAccessor());
+
+        assertEquals("off by default", 2, refactoring.generateStatements(new PostgresDatabase()).length);
+
+        System.setProperty(InsertSetGenerator.SYSTEM_PROPERTY, "true");
+        try {
+            SqlStatement[] sqlStatements = refactoring.generateStatements(new PostgresDatabase());
+
+            assertEquals(1, sqlStatements.length);
+            InsertSetStatement insertSet = (InsertSetStatement) sqlStatements[0];
+            assertEquals("TABLE_NAME", insertSet.getTableName());
+            stdAssertOfLoaded(insertSet.getInsertStatements().toArray(new SqlStatement[2]));
+
+            ChangeSet changeSet = new ChangeSet("1", "test", false, false, null, null, null);
+            changeSet.addSqlVisitor(new ReplaceSqlVisitor());
+            refactoring.setChangeSet(changeSet);
+            assertEquals("not combined for sql visitors", 2, refactoring.generateStatements(new PostgresDatabase()).length);
+        } finally {
+            System.clearProperty(InsertSetGenerator.SYSTEM_PROPERTY);
+        }
+    }
+
     @Test
     public void generateStatement_excel() throws Exception {
         LoadDataChange refactoring = new LoadDataChange();
@@ -179,4 +234,165 @@ public class LoadDataChangeTest extends AbstractChangeTest {
     public void validate() throws Exception {
         // todo: test with file opener
     }
-}
\ No newline at end of file
+
+    @Test
+    public void executeStreaming() throws Exception {
+        File directory = File.createTempFile("loadData", "");
+        directory.delete();
+        directory.mkdirs();
+        File dataFile = new File(directory, "data.csv");
+        FileWriter writer = new FileWriter(dataFile);
+        writer.write("id,name,created\n");
+        for (int i = 0; i < 5000; i++) {
+            writer.write(i + ",name " + i + ",2012-03-04\n");
+            if (i % 1000 == 0) {
+                writer.write("\n");
+            }
+        }
+        writer.close();
+
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:loadDataStreaming", "sa", "");
+        System.setProperty(LoadDataPipeline.STREAMING_SYSTEM_PROPERTY, "true");
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.execute(new RawSqlStatement("CREATE TABLE loaded (id INT, name VARCHAR(20), created DATE)"));
+
+            LoadDataChange change = new LoadDataChange();
+            change.setTableName("loaded");
+            change.setFile("data.csv");
+            change.setResourceAccessor(new FileSystemResourceAccessor(directory.getAbsolutePath()));
+            LoadDataColumnConfig created = new LoadDataColumnConfig();
+            created.setName("created");
+            created.setType("DATE");
+            change.addColumn(created);
+
+            assertTrue(change.isStreaming(database));
+            assertFalse(change.validate(database).hasErrors());
+
+            database.executeStatements(change, null, new ArrayList<SqlVisitor>());
+            assertEquals(5000, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM loaded")));
+            assertEquals("name 4321", executor.queryForObject(new RawSqlStatement("SELECT name FROM loaded WHERE id = 4321"), String.class));
+
+            StringWriter output = new StringWriter();
+            ExecutorService.getInstance().setExecutor(database, new LoggingExecutor(executor, output, database));
+            database.executeStatements(change, null, new ArrayList<SqlVisitor>());
+            assertEquals(5000, output.toString().split("INSERT INTO").length - 1);
+            ExecutorService.getInstance().setExecutor(database, executor);
+
+            created.setType("UNKNOWN");
+            try {
+                database.executeStatements(change, null, new ArrayList<SqlVisitor>());
+                fail("Did not report conversion error");
+            } catch (UnexpectedLiquibaseException e) {
+                assertTrue(e.getMessage().contains("UNKNOWN"));
+            }
+        } finally {
+            System.clearProperty(LoadDataPipeline.STREAMING_SYSTEM_PROPERTY);
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+            dataFile.delete();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void executeBulkLoad() throws Exception {
+        File directory = File.createTempFile("loadData", "");
+        directory.delete();
+        directory.mkdirs();
+        File dataFile = new File(directory, "data.csv");
+        FileWriter writer = new FileWriter(dataFile);
+        writer.write("id,name,created,active,ignored\n");
+        writer.write("1,\"Doe, John\",2012-03-04,true,x\n");
+        writer.write("2,\"say \"\"hi\"\"\",NULL,false,x\n");
+        writer.write("\n");
+        writer.write("3,,2012-03-05,NULL,x\n");
+        writer.close();
+
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection memoryConnection = DriverManager.getConnection("jdbc:hsqldb:mem:loadDataBulk", "sa", "");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:file:" + new File(directory, "db").getAbsolutePath(), "sa", "");
+        System.setProperty(LoadDataBulkLoader.BULK_LOAD_SYSTEM_PROPERTY, "true");
+        try {
+            LoadDataChange change = new LoadDataChange();
+            change.setTableName("loaded");
+            change.setFile("data.csv");
+            change.setResourceAccessor(new FileSystemResourceAccessor(directory.getAbsolutePath()));
+            LoadDataColumnConfig active = new LoadDataColumnConfig();
+            active.setName("active");
+            active.setType("BOOLEAN");
+            change.addColumn(active);
+            LoadDataColumnConfig ignored = new LoadDataColumnConfig();
+            ignored.setName("ignored");
+            ignored.setType("SKIP");
+            change.addColumn(ignored);
+
+            assertFalse("text tables need a file database", change.isStreaming(DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(memoryConnection))));
+
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.execute(new RawSqlStatement("CREATE TABLE loaded (id INT, name VARCHAR(20), created DATE, active BOOLEAN)"));
+            assertTrue(change.isStreaming(database));
+
+            database.executeStatements(change, null, new ArrayList<SqlVisitor>());
+            assertEquals(3, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM loaded")));
+            assertEquals("Doe, John", executor.queryForObject(new RawSqlStatement("SELECT name FROM loaded WHERE id = 1"), String.class));
+            assertEquals("say \"hi\"", executor.queryForObject(new RawSqlStatement("SELECT name FROM loaded WHERE id = 2"), String.class));
+            assertEquals("", executor.queryForObject(new RawSqlStatement("SELECT name FROM loaded WHERE id = 3"), String.class));
+            assertEquals(1, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM loaded WHERE created IS NULL")));
+            assertEquals(1, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM loaded WHERE active IS NULL")));
+            assertEquals(1, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM loaded WHERE active = TRUE")));
+            assertEquals(0, directory.listFiles(new FilenameFilter() {
+                public boolean accept(File dir, String name) {
+                    return name.startsWith("liquibase_loadData");
+                }
+            }).length);
+
+            writer = new FileWriter(dataFile);
+            writer.write("id,name,created,active,ignored\n");
+            writer.write("4,today,CURRENT_DATE,true,x\n");
+            writer.close();
+            LoadDataColumnConfig created = new LoadDataColumnConfig();
+            created.setName("created");
+            created.setType("DATE");
+            change.addColumn(created);
+            database.executeStatements(change, null, new ArrayList<SqlVisitor>());
+            assertEquals("functions are loaded with inserts", 1, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM loaded WHERE id = 4 AND created = CURRENT_DATE")));
+        } finally {
+            System.clearProperty(LoadDataBulkLoader.BULK_LOAD_SYSTEM_PROPERTY);
+            memoryConnection.createStatement().execute("SHUTDOWN");
+            memoryConnection.close();
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void loadDataGzipWithFastReader() throws Exception {
+        File dataFile = File.createTempFile("loadData", ".csv.gz");
+        OutputStreamWriter writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(dataFile)), "UTF-8");
+        writer.write("name,username\n\"Bob Johnson\",bjohnson\nJohn Doe,jdoe\n");
+        writer.close();
+
+        System.setProperty(FastCSVReader.SYSTEM_PROPERTY, "true");
+        try {
+            LoadDataChange refactoring = new LoadDataChange();
+            refactoring.setSchemaName("SCHEMA_NAME");
+            refactoring.setTableName("TABLE_NAME");
+            refactoring.setFile(dataFile.getName());
+            refactoring.setEncoding("UTF-8");
+            refactoring.setResourceAccessor(new FileSystemResourceAccessor(dataFile.getParentFile().getAbsolutePath()));
+
+            stdAssertOfLoaded(refactoring.generateStatements(new MockDatabase()));
+        } finally {
+            System.clearProperty(FastCSVReader.SYSTEM_PROPERTY);
+            dataFile.delete();
+        }
+    }
+}
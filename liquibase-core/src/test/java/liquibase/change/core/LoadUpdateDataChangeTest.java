@@ -3,20 +3,33 @@ package liquibase.change.core;
 import junit.framework.Assert;
 import static junit.framework.Assert.fail;
 import liquibase.change.AbstractChangeTest;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
 import liquibase.database.core.MockDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.RollbackImpossibleException;
 import liquibase.exception.UnsupportedChangeException;
 import liquibase.exception.LiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.sql.visitor.SqlVisitor;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.DeleteStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
+import liquibase.statement.core.RawSqlStatement;
 import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
 
 /**
  * Created by IntelliJ IDEA.
@@ -181,6 +194,87 @@ public class LoadUpdateDataChangeTest extends AbstractChangeTest {
 
     }
 
+    @Test
+    public void executeSetBased() throws Exception {
+        File dataFile = File.createTempFile("loadUpdateData", ".csv");
+        FileWriter writer = new FileWriter(dataFile);
+        writer.write("id,name\n");
+        writer.write("1,updated\n");
+        writer.write("3,inserted\n");
+        writer.close();
+
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:loadUpdateDataSetBased", "sa", "");
+        System.setProperty(LoadUpdateDataMerger.SET_BASED_SYSTEM_PROPERTY, "true");
+        try {
+            LoadUpdateDataChange change = new LoadUpdateDataChange();
+            change.setTableName("merged");
+            change.setFile(dataFile.getName());
+            change.setPrimaryKey("id");
+            change.setResourceAccessor(new FileSystemResourceAccessor(dataFile.getParentFile().getAbsolutePath()));
+
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.execute(new RawSqlStatement("CREATE TABLE merged (id INT PRIMARY KEY, name VARCHAR(20))"));
+            executor.execute(new RawSqlStatement("INSERT INTO merged VALUES (1, 'original')"));
+            executor.execute(new RawSqlStatement("INSERT INTO merged VALUES (2, 'untouched')"));
+            assertTrue(change.isStreaming(database));
+            connection.commit();
+
+            database.executeStatements(change, null, new ArrayList<SqlVisitor>());
+            assertEquals(3, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM merged")));
+            assertEquals("updated", executor.queryForObject(new RawSqlStatement("SELECT name FROM merged WHERE id = 1"), String.class));
+            assertEquals("untouched", executor.queryForObject(new RawSqlStatement("SELECT name FROM merged WHERE id = 2"), String.class));
+            assertEquals("inserted", executor.queryForObject(new RawSqlStatement("SELECT name FROM merged WHERE id = 3"), String.class));
+
+            connection.rollback();
+            assertEquals("staging table did not commit", 2, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM merged")));
+            assertEquals("original", executor.queryForObject(new RawSqlStatement("SELECT name FROM merged WHERE id = 1"), String.class));
+        } finally {
+            System.clearProperty(LoadUpdateDataMerger.SET_BASED_SYSTEM_PROPERTY);
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+            dataFile.delete();
+        }
+    }
+
+    @Test
+    public void executeSetBased_duplicateKeys() throws Exception {
+        File dataFile = File.createTempFile("loadUpdateData", ".csv");
+        FileWriter writer = new FileWriter(dataFile);
+        writer.write("id,name\n");
+        writer.write("1,first\n");
+        writer.write("3,inserted\n");
+        writer.write("1,last\n");
+        writer.close();
+
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:loadUpdateDataDuplicateKeys", "sa", "");
+        System.setProperty(LoadUpdateDataMerger.SET_BASED_SYSTEM_PROPERTY, "true");
+        try {
+            LoadUpdateDataChange change = new LoadUpdateDataChange();
+            change.setTableName("merged");
+            change.setFile(dataFile.getName());
+            change.setPrimaryKey("id");
+            change.setResourceAccessor(new FileSystemResourceAccessor(dataFile.getParentFile().getAbsolutePath()));
+
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.execute(new RawSqlStatement("CREATE TABLE merged (id INT PRIMARY KEY, name VARCHAR(20))"));
+            executor.execute(new RawSqlStatement("INSERT INTO merged VALUES (1, 'original')"));
+
+            database.executeStatements(change, null, new ArrayList<SqlVisitor>());
+            assertEquals(2, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM merged")));
+            assertEquals("last row wins", "last", executor.queryForObject(new RawSqlStatement("SELECT name FROM merged WHERE id = 1"), String.class));
+            assertEquals("inserted", executor.queryForObject(new RawSqlStatement("SELECT name FROM merged WHERE id = 3"), String.class));
+        } finally {
+            System.clearProperty(LoadUpdateDataMerger.SET_BASED_SYSTEM_PROPERTY);
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+            dataFile.delete();
+        }
+    }
+
     @Override
     public void generateCheckSum() throws Exception {
         LoadUpdateDataChange refactoring = new LoadUpdateDataChange();
@@ -234,4 +328,4 @@ public class LoadUpdateDataChangeTest extends AbstractChangeTest {
             Assert.fail ("Method '" + methodName +"' not found");
             return null;
           }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package liquibase.changelog;
+
+import liquibase.Liquibase;
+import liquibase.change.core.RawSQLChange;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.ExecutorService;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.statement.core.RawSqlStatement;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+public class ChangeLogFingerprintTest {
+
+    private static final String CHANGE_LOG = "liquibase/parser/core/xml/simpleChangeLog.xml";
+
+    @Test
+    public void compute() {
+        H2Database database = new H2Database();
+        String fingerprint = ChangeLogFingerprint.compute(createChangeLog("select 1"), database, null);
+
+        assertEquals(fingerprint, ChangeLogFingerprint.compute(createChangeLog("select 1"), database, null));
+        assertEquals(ChangeLogFingerprint.compute(createChangeLog("select 1"), database, "a, b"), ChangeLogFingerprint.compute(createChangeLog("select 1"), database, "B,a"));
+        assertFalse(fingerprint.equals(ChangeLogFingerprint.compute(createChangeLog("select 2"), database, null)));
+        assertFalse(fingerprint.equals(ChangeLogFingerprint.compute(createChangeLog("select 1"), database, "test")));
+    }
+
+    @Test
+    public void update_upToDate() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:fingerprint", "sa", "");
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Liquibase liquibase = new Liquibase(CHANGE_LOG, new ClassLoaderResourceAccessor(), database);
+            liquibase.setUseChangeLogFingerprint(true);
+
+            DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(CHANGE_LOG, liquibase.getFileOpener())
+                    .parse(CHANGE_LOG, liquibase.getChangeLogParameters(), liquibase.getFileOpener());
+            String fingerprint = ChangeLogFingerprint.compute(changeLog, database, null);
+            assertFalse(ChangeLogFingerprint.isUpToDate(database, fingerprint));
+
+            liquibase.update(null);
+            assertTrue(ChangeLogFingerprint.isUpToDate(database, fingerprint));
+            assertFalse(ChangeLogFingerprint.isUpToDate(database, ChangeLogFingerprint.compute(changeLog, database, "other")));
+            assertEquals(0, liquibase.listLocks().length);
+            assertEquals("lock table only holds the lock row", 1, ExecutorService.getInstance().getExecutor(database).queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM DATABASECHANGELOGLOCK")));
+            assertEquals(1, ExecutorService.getInstance().getExecutor(database).queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM " + ChangeLogFingerprint.TABLE_NAME)));
+
+            liquibase.update(null);
+            assertTrue(ChangeLogFingerprint.isUpToDate(database, fingerprint));
+
+            ExecutorService.getInstance().getExecutor(database).execute(new RawSqlStatement("DELETE FROM DATABASECHANGELOG"));
+            database.commit();
+            assertFalse(ChangeLogFingerprint.isUpToDate(database, fingerprint));
+        } finally {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+    }
+
+    private DatabaseChangeLog createChangeLog(String sql) {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog.xml");
+        ChangeSet changeSet = new ChangeSet("1", "testAuthor", false, false, "path/changelog.xml", null, null);
+        RawSQLChange change = new RawSQLChange();
+        change.setSql(sql);
+        changeSet.addChange(change);
+        changeLog.addChangeSet(changeSet);
+        return changeLog;
+    }
+}
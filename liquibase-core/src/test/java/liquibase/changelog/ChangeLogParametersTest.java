@@ -64,4 +64,58 @@ public class ChangeLogParametersTest {
 
         assertEquals("originalValue", changeLogParameters.getValue("doubleSet"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getExpandedParametersFingerprint() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+        changeLogParameters.set("param", "value");
+        String initial = changeLogParameters.getExpandedParametersFingerprint();
+
+        changeLogParameters.expandExpressions("no parameters");
+        assertEquals(initial, changeLogParameters.getExpandedParametersFingerprint());
+
+        changeLogParameters.expandExpressions("${param}");
+        String expanded = changeLogParameters.getExpandedParametersFingerprint();
+        assertFalse(initial.equals(expanded));
+
+        ChangeLogParameters otherValue = new ChangeLogParameters();
+        otherValue.set("param", "other value");
+        otherValue.expandExpressions("${param}");
+        assertFalse(expanded.equals(otherValue.getExpandedParametersFingerprint()));
+
+        ChangeLogParameters sameValue = new ChangeLogParameters();
+        sameValue.set("param", "value");
+        sameValue.expandExpressions("again ${param}");
+        assertEquals(expanded, sameValue.getExpandedParametersFingerprint());
+    }
+
+    @Test
+    public void includedParameters_mergedInIncludeOrder() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+        changeLogParameters.set("defined", "before");
+
+        ChangeLogParameters first = changeLogParameters.createIncludedParameters();
+        ChangeLogParameters second = changeLogParameters.createIncludedParameters();
+        changeLogParameters.set("later", "including");
+
+        second.set("later", "second");
+        first.set("later", "first");
+        first.set("defined", "first");
+        assertEquals("before", first.getValue("defined"));
+        assertEquals("second", second.getValue("later"));
+        assertNull("parameters defined by another include are not visible", second.getValue("first"));
+
+        changeLogParameters.mergeIncludedParameters(first);
+        changeLogParameters.mergeIncludedParameters(second);
+        assertEquals("before", changeLogParameters.getValue("defined"));
+        assertEquals("first", changeLogParameters.getValue("later"));
+        assertEquals("merged parameters see the including parameters", "first", second.getValue("later"));
+
+        try {
+            changeLogParameters.mergeIncludedParameters(first);
+            fail("merged twice");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package liquibase.changelog;
+
+import liquibase.change.core.RawSQLChange;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.ExecutorService;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChangeSetCheckSumRepairTest {
+
+    private Connection connection;
+    private Database database;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:checkSumRepair", "sa", "");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+        database.checkDatabaseChangeLogTable(false, null, null);
+        System.setProperty(ChangeSetCheckSumRepair.THREADS_SYSTEM_PROPERTY, "2");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(ChangeSetCheckSumRepair.THREADS_SYSTEM_PROPERTY);
+        ExecutorService.getInstance().clearExecutor(database);
+        connection.createStatement().execute("SHUTDOWN");
+        connection.close();
+    }
+
+    @Test
+    public void repair() throws Exception {
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        for (int i = 0; i < 5; i++) {
+            ChangeSet changeSet = new ChangeSet(String.valueOf(i), "test", false, false, "test.xml", null, null, true);
+            changeSet.addChange(new RawSQLChange("SELECT " + i + " FROM DATABASECHANGELOG"));
+            database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+            changeSets.add(changeSet);
+        }
+        connection.createStatement().execute("UPDATE DATABASECHANGELOG SET MD5SUM=null");
+        connection.commit();
+
+        new ChangeSetCheckSumRepair(database).repair(changeSets.subList(1, 5));
+        database.commit();
+
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT ID, MD5SUM FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED");
+        for (ChangeSet changeSet : changeSets) {
+            assertTrue(resultSet.next());
+            assertEquals(changeSet.getId(), resultSet.getString("ID"));
+            if (changeSet.getId().equals("0")) {
+                assertNull("not repaired", resultSet.getString("MD5SUM"));
+            } else {
+                assertEquals(changeSet.generateCheckSum().toString(), resultSet.getString("MD5SUM"));
+            }
+        }
+        resultSet.close();
+    }
+}
@@ -4,6 +4,7 @@ import liquibase.change.CheckSum;
 import liquibase.change.core.AddDefaultValueChange;
 import liquibase.change.core.CreateTableChange;
 import liquibase.change.core.InsertDataChange;
+import liquibase.sql.visitor.AppendSqlVisitor;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -77,4 +78,33 @@ public class ChangeSetTest {
 
         assertTrue(changeSet.isCheckSumValid(checkSum));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void generateCheckSum_cached() {
+        ChangeSet changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null);
+        AddDefaultValueChange change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        change.setColumnName("COLUMN_NAME");
+        change.setDefaultValue("DEF STRING");
+        changeSet.addChange(change);
+
+        long computedBefore = ChangeSet.getCheckSumComputationCount();
+        CheckSum checkSum = changeSet.generateCheckSum();
+        assertSame(checkSum, changeSet.generateCheckSum());
+        assertEquals(changeSet.toString(false) + "::(Checksum: " + checkSum + ")", changeSet.toString(true));
+        assertEquals(computedBefore + 1, ChangeSet.getCheckSumComputationCount());
+
+        AppendSqlVisitor visitor = new AppendSqlVisitor();
+        visitor.setValue("appended");
+        changeSet.addSqlVisitor(visitor);
+        CheckSum withVisitor = changeSet.generateCheckSum();
+        assertFalse(checkSum.equals(withVisitor));
+
+        changeSet.getSqlVisitors().remove(visitor);
+        assertEquals(checkSum, changeSet.generateCheckSum());
+
+        change.setDefaultValue("OTHER STRING");
+        changeSet.clearCheckSumCache();
+        assertFalse(checkSum.equals(changeSet.generateCheckSum()));
+    }
+}
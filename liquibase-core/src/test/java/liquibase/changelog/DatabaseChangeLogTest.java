@@ -0,0 +1,45 @@
+package liquibase.changelog;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class DatabaseChangeLogTest {
+
+    @Test
+    public void getChangeSet() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("/path/to/changelog");
+        ChangeSet changeSet1 = new ChangeSet("1", "nvoxland", false, false, "/path/to/changelog", null, null);
+        ChangeSet changeSet2 = new ChangeSet("2", "nvoxland", false, false, "/path/to/changelog", null, null);
+        changeLog.addChangeSet(changeSet1);
+        changeLog.addChangeSet(changeSet2);
+
+        assertSame(changeSet1, changeLog.getChangeSet("/path/to/changelog", "nvoxland", "1"));
+        assertSame(changeSet2, changeLog.getChangeSet("/PATH/to/changelog", "NVOXLAND", "2"));
+        assertNull(changeLog.getChangeSet("/path/to/changelog", "nvoxland", "3"));
+        assertNull(changeLog.getChangeSet("/path/to/changelog", "other", "1"));
+        assertSame(changeSet1, changeLog.getChangeSet(new RanChangeSet("/path/to/changelog", "1", "nvoxland", null, null, null, null, null)));
+    }
+
+    @Test
+    public void getChangeSet_listModifiedDirectly() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("/path/to/changelog");
+        changeLog.addChangeSet(new ChangeSet("1", "nvoxland", false, false, "/path/to/changelog", null, null));
+        assertNull(changeLog.getChangeSet("/path/to/changelog", "nvoxland", "2"));
+
+        ChangeSet changeSet2 = new ChangeSet("2", "nvoxland", false, false, "/path/to/changelog", null, null);
+        changeLog.getChangeSets().add(changeSet2);
+
+        assertSame(changeSet2, changeLog.getChangeSet("/path/to/changelog", "nvoxland", "2"));
+
+        ChangeSet changeSet3 = new ChangeSet("3", "nvoxland", false, false, "/path/to/changelog", null, null);
+        changeLog.getChangeSets().set(1, changeSet3);
+        assertNull(changeLog.getChangeSet("/path/to/changelog", "nvoxland", "2"));
+        assertSame(changeSet3, changeLog.getChangeSet("/path/to/changelog", "nvoxland", "3"));
+
+        changeLog.getChangeSets().remove(0);
+        changeLog.getChangeSets().add(changeSet2);
+        assertNull(changeLog.getChangeSet("/path/to/changelog", "nvoxland", "1"));
+        assertSame(changeSet2, changeLog.getChangeSet("/path/to/changelog", "nvoxland", "2"));
+        assertSame(changeSet3, changeLog.getChangeSet("/path/to/changelog", "nvoxland", "3"));
+    }
+}
@@ -0,0 +1,201 @@
+package liquibase.changelog;
+
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.InsertDataChange;
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.visitor.ListVisitor;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.database.jvm.JdbcConnectionFactory;
+import liquibase.exception.LiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.precondition.core.PreconditionContainer;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ParallelChangeLogIteratorTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:parallelChangeLog";
+
+    private Connection connection;
+    private Database database;
+    private Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection(URL, "sa", "");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection, new JdbcConnectionFactory() {
+            public Connection openConnection() throws SQLException {
+                return DriverManager.getConnection(URL, "sa", "");
+            }
+        }));
+        database.checkDatabaseChangeLogTable(false, null, null);
+        System.setProperty(ParallelChangeLogIterator.PARALLEL_SYSTEM_PROPERTY, "4");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(ParallelChangeLogIterator.PARALLEL_SYSTEM_PROPERTY);
+        ExecutorService.getInstance().clearExecutor(database);
+        connection.createStatement().execute("SHUTDOWN");
+        connection.close();
+    }
+
+    @Test
+    public void run() throws Exception {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("test.xml");
+        changeLog.addChangeSet(createChangeSet("1", createTable("first")));
+        changeLog.addChangeSet(createChangeSet("2", createTable("second")));
+        changeLog.addChangeSet(createChangeSet("3", insert("first")));
+        changeLog.addChangeSet(createChangeSet("4", insert("second")));
+        changeLog.addChangeSet(createChangeSet("5", new RawSQLChange("INSERT INTO first (name) VALUES ('raw')")));
+        ChangeSet runAfter = createChangeSet("6", insert("second"));
+        runAfter.setRunAfter(new HashSet<String>(Arrays.asList("3")));
+        changeLog.addChangeSet(runAfter);
+
+        new ParallelChangeLogIterator(changeLog).run(new UpdateVisitor(database) {
+            @Override
+            public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
+                threads.add(Thread.currentThread().getName());
+                super.visit(changeSet, databaseChangeLog, database);
+            }
+        }, database);
+
+        List<String> order = getOrderExecuted();
+        assertEquals(6, order.size());
+        assertTrue(order.indexOf("1") < order.indexOf("3"));
+        assertTrue(order.indexOf("2") < order.indexOf("4"));
+        assertEquals("barrier", "5", order.get(4));
+        assertEquals("6", order.get(5));
+
+        assertTrue(threads.toString(), threads.contains(Thread.currentThread().getName()));
+        boolean parallel = false;
+        for (String thread : threads) {
+            parallel |= thread.startsWith("liquibase-update-");
+        }
+        assertTrue(threads.toString(), parallel);
+
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM second");
+        resultSet.next();
+        assertEquals(2, resultSet.getInt(1));
+    }
+
+    @Test
+    public void run_failureStopsUpdate() throws Exception {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("test.xml");
+        changeLog.addChangeSet(createChangeSet("1", createTable("first")));
+        changeLog.addChangeSet(createChangeSet("2", insert("missing")));
+        changeLog.addChangeSet(createChangeSet("3", new RawSQLChange("INSERT INTO first (name) VALUES ('raw')")));
+
+        try {
+            new ParallelChangeLogIterator(changeLog).run(new UpdateVisitor(database), database);
+            fail("inserting into a missing table did not fail");
+        } catch (LiquibaseException e) {
+            //expected
+        }
+        assertEquals(Arrays.asList("1"), getOrderExecuted());
+    }
+
+    @Test
+    public void run_otherVisitorsRunInOrder() throws Exception {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("test.xml");
+        changeLog.addChangeSet(createChangeSet("1", createTable("first")));
+        changeLog.addChangeSet(createChangeSet("2", createTable("second")));
+
+        final List<String> visited = new ArrayList<String>();
+        new ParallelChangeLogIterator(changeLog).run(new ListVisitor() {
+            @Override
+            public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) {
+                threads.add(Thread.currentThread().getName());
+                assertSame(ParallelChangeLogIteratorTest.this.database, database);
+                visited.add(changeSet.getId());
+            }
+        }, database);
+
+        assertEquals(Arrays.asList("1", "2"), visited);
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    public void getAffectedTables() throws Exception {
+        assertEquals(new HashSet<String>(Arrays.asList("first")), ParallelChangeLogIterator.getAffectedTables(createChangeSet("1", insert("FIRST")), database));
+        assertNull("sql", ParallelChangeLogIterator.getAffectedTables(createChangeSet("1", new RawSQLChange("SELECT 1")), database));
+
+        ChangeSet preconditions = createChangeSet("1", insert("first"));
+        preconditions.setPreconditions(new PreconditionContainer());
+        assertNull("preconditions", ParallelChangeLogIterator.getAffectedTables(preconditions, database));
+    }
+
+    @Test
+    public void groupRelatedTables() throws Exception {
+        connection.createStatement().execute("CREATE TABLE parent (id INT PRIMARY KEY)");
+        connection.createStatement().execute("CREATE TABLE child (id INT, parent_id INT, FOREIGN KEY (parent_id) REFERENCES parent (id))");
+
+        List<Set<String>> affectedTables = new ArrayList<Set<String>>();
+        affectedTables.add(new HashSet<String>(Arrays.asList("parent")));
+        affectedTables.add(new HashSet<String>(Arrays.asList("child")));
+        affectedTables.add(new HashSet<String>(Arrays.asList("other")));
+        affectedTables.add(null);
+        List<Set<String>> groupedTables = ParallelChangeLogIterator.groupRelatedTables(affectedTables, database);
+
+        assertEquals(groupedTables.get(0), groupedTables.get(1));
+        assertEquals(new HashSet<String>(Arrays.asList("other")), groupedTables.get(2));
+        assertNull(groupedTables.get(3));
+    }
+
+    @Test
+    public void run_disabled() throws Exception {
+        System.clearProperty(ParallelChangeLogIterator.PARALLEL_SYSTEM_PROPERTY);
+        assertEquals(0, ParallelChangeLogIterator.getConnections(database));
+    }
+
+    private List<String> getOrderExecuted() throws SQLException {
+        List<String> ids = new ArrayList<String>();
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED");
+        while (resultSet.next()) {
+            ids.add(resultSet.getString(1));
+        }
+        resultSet.close();
+        return ids;
+    }
+
+    private ChangeSet createChangeSet(String id, liquibase.change.Change change) {
+        ChangeSet changeSet = new ChangeSet(id, "test", false, false, "test.xml", null, null, true);
+        changeSet.addChange(change);
+        return changeSet;
+    }
+
+    private CreateTableChange createTable(String tableName) {
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName(tableName);
+        change.addColumn(new ColumnConfig().setName("name").setType("VARCHAR(50)"));
+        return change;
+    }
+
+    private InsertDataChange insert(String tableName) {
+        InsertDataChange change = new InsertDataChange();
+        change.setTableName(tableName);
+        ColumnConfig column = new ColumnConfig().setName("name");
+        column.setValue("value");
+        change.addColumn(column);
+        return change;
+    }
+}
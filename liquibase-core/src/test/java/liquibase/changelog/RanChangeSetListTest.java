@@ -0,0 +1,62 @@
+package liquibase.changelog;
+
+import liquibase.change.CheckSum;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+public class RanChangeSetListTest {
+
+    @Test
+    public void getRanChangeSet() {
+        RanChangeSetList list = new RanChangeSetList();
+        RanChangeSet ran1 = new RanChangeSet("path\\changelog", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null);
+        RanChangeSet ran2 = new RanChangeSet("path/changelog", "2", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null);
+        list.add(ran1);
+        list.add(ran2);
+
+        assertSame(ran1, list.getRanChangeSet(new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, null)));
+        assertSame(ran2, list.getRanChangeSet(new ChangeSet("2", "TESTAUTHOR", false, false, "PATH/changelog", null, null)));
+        assertNull(list.getRanChangeSet(new ChangeSet("3", "testAuthor", false, false, "path/changelog", null, null)));
+        assertNull(list.getRanChangeSet(new ChangeSet("1", "otherAuthor", false, false, "path/changelog", null, null)));
+    }
+
+    @Test
+    public void indexFollowsModifications() {
+        RanChangeSetList list = new RanChangeSetList();
+        RanChangeSet ran1 = new RanChangeSet("path/changelog", "1", "testAuthor", null, new Date(), null, null, null);
+        RanChangeSet ran2 = new RanChangeSet("path/changelog", "2", "testAuthor", null, new Date(), null, null, null);
+        RanChangeSet ran3 = new RanChangeSet("path/changelog", "3", "testAuthor", null, new Date(), null, null, null);
+        list.add(ran1);
+        list.add(ran3);
+        list.add(1, ran2);
+
+        assertEquals(Arrays.asList(ran1, ran2, ran3), list);
+        assertEquals(1, list.getCandidates("path/changelog", "testAuthor", "2").size());
+
+        assertTrue(list.remove(new RanChangeSet("path/changelog", "2", "testAuthor", null, null, null, null, null)));
+        assertEquals(Arrays.asList(ran1, ran3), list);
+        assertEquals(0, list.getCandidates("path/changelog", "testAuthor", "2").size());
+        assertFalse(list.remove(new RanChangeSet("path/changelog", "2", "testAuthor", null, null, null, null, null)));
+
+        list.set(0, ran2);
+        assertEquals(0, list.getCandidates("path/changelog", "testAuthor", "1").size());
+        assertEquals(1, list.getCandidates("path/changelog", "testAuthor", "2").size());
+
+        list.clear();
+        assertEquals(0, list.getCandidates("path/changelog", "testAuthor", "3").size());
+    }
+
+    @Test
+    public void toIndexedList() {
+        RanChangeSetList list = new RanChangeSetList();
+        assertSame(list, RanChangeSetList.toIndexedList(list));
+
+        RanChangeSet ran1 = new RanChangeSet("path/changelog", "1", "testAuthor", null, new Date(), null, null, null);
+        RanChangeSetList copy = RanChangeSetList.toIndexedList(Arrays.asList(ran1));
+        assertEquals(1, copy.size());
+        assertSame(ran1, copy.getCandidates("path/changelog", "testAuthor", "1").get(0));
+    }
+}
@@ -0,0 +1,89 @@
+package liquibase.changelog;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.ExecutorService;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RanChangeSetReaderTest {
+
+    private Connection connection;
+    private Database database;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:ranChangeSetReader", "sa", "");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+        database.checkDatabaseChangeLogTable(false, null, null);
+        System.setProperty(RanChangeSetReader.FETCH_SIZE_SYSTEM_PROPERTY, "2");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(RanChangeSetReader.FETCH_SIZE_SYSTEM_PROPERTY);
+        ExecutorService.getInstance().clearExecutor(database);
+        connection.createStatement().execute("SHUTDOWN");
+        connection.close();
+    }
+
+    @Test
+    public void getRanChangeSetList() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            ChangeSet changeSet = new ChangeSet(String.valueOf(i), "test", false, false, "test.xml", null, null, true);
+            database.markChangeSetExecStatus(changeSet, i == 3 ? ChangeSet.ExecType.MARK_RAN : ChangeSet.ExecType.EXECUTED);
+        }
+        database.resetInternalState();
+
+        List<RanChangeSet> ranChangeSets = database.getRanChangeSetList();
+        assertEquals(5, ranChangeSets.size());
+        for (int i = 0; i < 5; i++) {
+            RanChangeSet ranChangeSet = ranChangeSets.get(i);
+            assertEquals(String.valueOf(i), ranChangeSet.getId());
+            assertEquals("test", ranChangeSet.getAuthor());
+            assertEquals("test.xml", ranChangeSet.getChangeLog());
+            assertNotNull(ranChangeSet.getLastCheckSum());
+            assertNotNull(ranChangeSet.getDateExecuted());
+            assertEquals(i == 3 ? ChangeSet.ExecType.MARK_RAN : ChangeSet.ExecType.EXECUTED, ranChangeSet.getExecType());
+        }
+        assertSame("repeated values are shared", ranChangeSets.get(0).getAuthor(), ranChangeSets.get(4).getAuthor());
+        assertSame(ranChangeSets.get(0).getChangeLog(), ranChangeSets.get(4).getChangeLog());
+    }
+
+    @Test
+    public void mapRow() throws Exception {
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        RanChangeSetReader reader = new RanChangeSetReader(ranChangeSets);
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> row = new HashMap<String, Object>();
+            row.put("FILENAME", new String("test.xml"));
+            row.put("AUTHOR", "test");
+            row.put("ID", i);
+            row.put("DATEEXECUTED", "2012-01-02 03:04:05");
+            row.put("EXECTYPE", "EXECUTED");
+            reader.mapRow(row);
+        }
+
+        assertEquals(2, ranChangeSets.size());
+        RanChangeSet ranChangeSet = ranChangeSets.get(1);
+        assertEquals("1", ranChangeSet.getId());
+        assertEquals("test", ranChangeSet.getAuthor());
+        assertNull(ranChangeSet.getLastCheckSum());
+        assertEquals(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2012-01-02 03:04:05"), ranChangeSet.getDateExecuted());
+        assertEquals(ChangeSet.ExecType.EXECUTED, ranChangeSet.getExecType());
+        assertSame("repeated values are shared", ranChangeSets.get(0).getChangeLog(), ranChangeSet.getChangeLog());
+    }
+}
@@ -0,0 +1,134 @@
+package liquibase.changelog;
+
+import liquibase.Liquibase;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.ValidationFailedException;
+import liquibase.executor.ExecutorService;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.test.JUnitResourceAccessor;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StreamingChangeLogIteratorTest {
+
+    private static final String CHANGE_LOG = "liquibase/parser/core/xml/doubleNestedChangeLog.xml";
+
+    @Test
+    public void run_visitsChangeSetsInOrderBeforeReleasing() throws Exception {
+        DatabaseChangeLog parsed = ChangeLogParserFactory.getInstance().getParser(CHANGE_LOG, new JUnitResourceAccessor())
+                .parse(CHANGE_LOG, new ChangeLogParameters(), new JUnitResourceAccessor());
+
+        final List<String> visited = new ArrayList<String>();
+        DatabaseChangeLog streamed = new StreamingChangeLogIterator(CHANGE_LOG, new ChangeLogParameters(), new JUnitResourceAccessor()).run(new ChangeSetVisitor() {
+            public Direction getDirection() {
+                return Direction.FORWARD;
+            }
+
+            public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) {
+                assertFalse(changeSet.isChangesReleased());
+                assertTrue(changeSet.getChanges().size() > 0);
+                visited.add(changeSet.toString(true));
+            }
+        }, null);
+
+        assertEquals(parsed.getChangeSets().size(), visited.size());
+        assertEquals(parsed.getChangeSets().size(), streamed.getChangeSets().size());
+        for (int i = 0; i < visited.size(); i++) {
+            assertEquals(parsed.getChangeSets().get(i).toString(true), visited.get(i));
+
+            ChangeSet released = streamed.getChangeSets().get(i);
+            assertTrue(released.isChangesReleased());
+            assertEquals(0, released.getChanges().size());
+            assertEquals(parsed.getChangeSets().get(i).toString(true), released.toString(true));
+        }
+        assertEquals(parsed.getPreconditions().getNestedPreconditions().size(), streamed.getPreconditions().getNestedPreconditions().size());
+    }
+
+    @Test
+    public void run_visitorExceptionStopsParsing() throws Exception {
+        final List<String> visited = new ArrayList<String>();
+        try {
+            new StreamingChangeLogIterator(CHANGE_LOG, new ChangeLogParameters(), new JUnitResourceAccessor()).run(new ChangeSetVisitor() {
+                public Direction getDirection() {
+                    return Direction.FORWARD;
+                }
+
+                public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
+                    visited.add(changeSet.getId());
+                    throw new LiquibaseException("stop");
+                }
+            }, null);
+            fail("Did not rethrow visitor exception");
+        } catch (LiquibaseException e) {
+            assertEquals("stop", e.getMessage());
+        }
+        assertEquals(1, visited.size());
+    }
+
+    @Test
+    public void streamingUpdate() throws Exception {
+        File directory = File.createTempFile("streaming", "");
+        directory.delete();
+        directory.mkdirs();
+        StringBuilder changeSets = new StringBuilder("<changeSet id=\"table\" author=\"test\"><createTable tableName=\"streamed\"><column name=\"id\" type=\"int\"/></createTable></changeSet>");
+        for (int i = 0; i < 50; i++) {
+            changeSets.append("<changeSet id=\"row").append(i).append("\" author=\"test\"><insert tableName=\"streamed\"><column name=\"id\" valueNumeric=\"").append(i).append("\"/></insert></changeSet>");
+        }
+        writeChangeLog(new File(directory, "changelog.xml"), changeSets.toString());
+
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:streaming", "sa", "");
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Liquibase liquibase = new Liquibase("changelog.xml", new FileSystemResourceAccessor(directory.getAbsolutePath()), database);
+            liquibase.setStreamingUpdate(true);
+
+            liquibase.update(null);
+            assertEquals(50, ExecutorService.getInstance().getExecutor(database).queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM streamed")));
+            assertEquals(51, ExecutorService.getInstance().getExecutor(database).queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM DATABASECHANGELOG")));
+
+            liquibase.update(null);
+            assertEquals(50, ExecutorService.getInstance().getExecutor(database).queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM streamed")));
+
+            writeChangeLog(new File(directory, "changelog.xml"), changeSets.toString().replace("valueNumeric=\"7\"", "valueNumeric=\"70\"")
+                    + "<changeSet id=\"new\" author=\"test\"><insert tableName=\"streamed\"><column name=\"id\" valueNumeric=\"100\"/></insert></changeSet>");
+            try {
+                liquibase.update(null);
+                fail("Did not validate checksums");
+            } catch (ValidationFailedException e) {
+                assertEquals(1, e.getInvalidMD5Sums().size());
+            }
+            assertEquals(50, ExecutorService.getInstance().getExecutor(database).queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM streamed")));
+        } finally {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+            new File(directory, "changelog.xml").delete();
+            directory.delete();
+        }
+    }
+
+    private void writeChangeLog(File file, String changeSets) throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+                    + "  xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.0.xsd\">\n"
+                    + changeSets + "\n</databaseChangeLog>").getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package liquibase.changelog.visitor;
+
+import liquibase.changelog.ChangeLogIterator;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.ExecutorService;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ChangeLogSyncVisitorTest {
+
+    private Connection connection;
+    private Database database;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:changeLogSync", "sa", "");
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+        database.checkDatabaseChangeLogTable(false, null, null);
+        System.setProperty(ChangeLogSyncVisitor.COMMIT_SIZE_SYSTEM_PROPERTY, "2");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(ChangeLogSyncVisitor.COMMIT_SIZE_SYSTEM_PROPERTY);
+        ExecutorService.getInstance().clearExecutor(database);
+        connection.createStatement().execute("SHUTDOWN");
+        connection.close();
+    }
+
+    @Test
+    public void visit() throws Exception {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("test.xml");
+        ChangeLogSyncVisitor visitor = new ChangeLogSyncVisitor(database);
+        visitor.visit(createChangeSet("1"), changeLog, database);
+        assertEquals("not written before the commit size is reached", 0, getOrderExecuted().size());
+
+        visitor.visit(createChangeSet("2"), changeLog, database);
+        visitor.visit(createChangeSet("3"), changeLog, database);
+        connection.rollback();
+        assertEquals(Arrays.asList("1", "2"), getOrderExecuted());
+
+        visitor.flush();
+        assertEquals(Arrays.asList("1", "2", "3"), getOrderExecuted());
+        assertEquals(3, database.getRanChangeSetList().size());
+        assertEquals(ChangeSet.RunStatus.ALREADY_RAN, database.getRunStatus(createChangeSet("3")));
+    }
+
+    @Test
+    public void run_writesRemainingRows() throws Exception {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("test.xml");
+        changeLog.addChangeSet(createChangeSet("1"));
+        changeLog.addChangeSet(createChangeSet("2"));
+        changeLog.addChangeSet(createChangeSet("3"));
+
+        new ChangeLogIterator(changeLog).run(new ChangeLogSyncVisitor(database), database);
+        connection.rollback();
+        assertEquals(Arrays.asList("1", "2", "3"), getOrderExecuted());
+    }
+
+    private ChangeSet createChangeSet(String id) {
+        return new ChangeSet(id, "test", false, false, "test.xml", null, null, true);
+    }
+
+    private List<String> getOrderExecuted() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED");
+        while (resultSet.next()) {
+            ids.add(resultSet.getString(1));
+        }
+        resultSet.close();
+        return ids;
+    }
+}
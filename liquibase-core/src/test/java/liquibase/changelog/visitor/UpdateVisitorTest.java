@@ -1,11 +1,22 @@
 package liquibase.changelog.visitor;
 
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.InsertDataChange;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.MigrationFailedException;
+import liquibase.executor.ExecutorService;
 import static org.easymock.classextension.EasyMock.*;
+import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+
 public class UpdateVisitorTest {
 
     @Test
@@ -36,4 +47,73 @@ public class UpdateVisitorTest {
         verify(changeSet);
     }
 
+    @Test
+    public void visit_groupedCommit() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:groupedCommit", "sa", "");
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+        System.setProperty(UpdateVisitor.COMMIT_GROUP_SIZE_SYSTEM_PROPERTY, "2");
+        try {
+            database.checkDatabaseChangeLogTable(false, null, null);
+            connection.createStatement().execute("CREATE TABLE grouped (name VARCHAR(50))");
+            connection.commit();
+
+            DatabaseChangeLog changeLog = new DatabaseChangeLog("test.xml");
+            UpdateVisitor visitor = new UpdateVisitor(database);
+            visitor.visit(createChangeSet("1", "grouped"), changeLog, database);
+            connection.rollback();
+            assertEquals("first change set of the group is not committed", 0, count(connection, "DATABASECHANGELOG"));
+            assertEquals(0, count(connection, "grouped"));
+
+            database.resetInternalState();
+            visitor = new UpdateVisitor(database);
+            visitor.visit(createChangeSet("1", "grouped"), changeLog, database);
+            visitor.visit(createChangeSet("2", "grouped"), changeLog, database);
+            connection.rollback();
+            assertEquals(2, count(connection, "DATABASECHANGELOG"));
+            assertEquals(2, count(connection, "grouped"));
+
+            visitor.visit(createChangeSet("3", "grouped"), changeLog, database);
+            try {
+                visitor.visit(createChangeSet("4", "missing"), changeLog, database);
+                fail("inserting into a missing table did not fail");
+            } catch (MigrationFailedException e) {
+                //expected
+            }
+            assertEquals("failure rolls back the group", 2, count(connection, "DATABASECHANGELOG"));
+
+            visitor.visit(createChangeSet("3", "grouped"), changeLog, database);
+            visitor.commitGroup();
+            connection.rollback();
+            assertEquals(3, count(connection, "DATABASECHANGELOG"));
+            assertEquals(3, count(connection, "grouped"));
+        } finally {
+            System.clearProperty(UpdateVisitor.COMMIT_GROUP_SIZE_SYSTEM_PROPERTY);
+            ExecutorService.getInstance().clearExecutor(database);
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+    }
+
+    private ChangeSet createChangeSet(String id, String tableName) {
+        InsertDataChange change = new InsertDataChange();
+        change.setTableName(tableName);
+        ColumnConfig column = new ColumnConfig().setName("name");
+        column.setValue(id);
+        change.addColumn(column);
+
+        ChangeSet changeSet = new ChangeSet(id, "test", false, false, "test.xml", null, null, true);
+        changeSet.addChange(change);
+        return changeSet;
+    }
+
+    private int count(Connection connection, String tableName) throws Exception {
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM " + tableName);
+        resultSet.next();
+        int count = resultSet.getInt(1);
+        resultSet.close();
+        return count;
+    }
+
 }
@@ -0,0 +1,64 @@
+package liquibase.database;
+
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import static org.easymock.EasyMock.*;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PreparedStatementFactoryTest {
+
+    private JdbcConnection connection = new JdbcConnection(createMock(Connection.class));
+
+    @Test
+    public void setParameters_postgresBindsStringsWithoutType() throws Exception {
+        PreparedStatement stmt = createMock(PreparedStatement.class);
+        stmt.setObject(1, "42", Types.OTHER);
+        stmt.setObject(2, "2012-03-04", Types.OTHER);
+        stmt.setLong(3, 7);
+        stmt.setBigDecimal(4, new BigDecimal("1.5"));
+        replay(stmt);
+
+        new PreparedStatementFactory(new PostgresDatabase() {
+            @Override
+            public DatabaseConnection getConnection() {
+                return connection;
+            }
+        }).setParameters(stmt, createParameters());
+        verify(stmt);
+    }
+
+    @Test
+    public void setParameters_otherDatabasesBindStrings() throws Exception {
+        PreparedStatement stmt = createMock(PreparedStatement.class);
+        stmt.setString(1, "42");
+        stmt.setString(2, "2012-03-04");
+        stmt.setLong(3, 7);
+        stmt.setBigDecimal(4, new BigDecimal("1.5"));
+        replay(stmt);
+
+        new PreparedStatementFactory(new HsqlDatabase() {
+            @Override
+            public DatabaseConnection getConnection() {
+                return connection;
+            }
+        }).setParameters(stmt, createParameters());
+        verify(stmt);
+    }
+
+    private List<Object> createParameters() {
+        List<Object> parameters = new ArrayList<Object>();
+        parameters.add("42");
+        parameters.add("2012-03-04");
+        parameters.add(7);
+        parameters.add(new BigDecimal("1.5"));
+        return parameters;
+    }
+}
@@ -390,6 +390,10 @@ public class MockDatabase implements Database {
         ;
     }
 
+    public void markChangeSetExecStatus(ChangeSet changeSet, ChangeSet.ExecType execType, boolean commit) throws DatabaseException {
+        ;
+    }
+
     public List<RanChangeSet> getRanChangeSetList() throws DatabaseException {
         return null;
     }
@@ -450,6 +454,10 @@ public class MockDatabase implements Database {
         ;
     }
 
+    public void executeStatements(List<Change> changes, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors, boolean runInTransaction, boolean commit) throws LiquibaseException, UnsupportedChangeException {
+        ;
+    }
+
     public void execute(SqlStatement[] statements, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
         ;
     }
@@ -0,0 +1,178 @@
+package liquibase.executor;
+
+import liquibase.change.core.LoadDataChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.database.jvm.JdbcConnectionFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.MigrationFailedException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelLoadDataExecutorTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:parallelLoadData";
+
+    private Connection connection;
+    private Database database;
+    private Executor executor;
+    private Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+    private volatile boolean nonDaemonThread;
+    private CountDownLatch secondTableStarted;
+
+    /**
+     * Hsql cannot disable foreign key checks, which parallel loading needs.
+     */
+    public static class ForeignKeyDisablingHsqlDatabase extends HsqlDatabase {
+        @Override
+        public boolean supportsForeignKeyDisable() {
+            return true;
+        }
+
+        @Override
+        public boolean disableForeignKeyChecks() throws DatabaseException {
+            return false;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection(URL, "sa", "");
+        database = new ForeignKeyDisablingHsqlDatabase();
+        database.setConnection(new JdbcConnection(connection, new JdbcConnectionFactory() {
+            public Connection openConnection() throws SQLException {
+                return DriverManager.getConnection(URL, "sa", "");
+            }
+        }));
+        database.setAutoCommit(false);
+        executor = ExecutorService.getInstance().getExecutor(database);
+        executor.execute(new RawSqlStatement("CREATE TABLE first (name VARCHAR(50), username VARCHAR(50))"));
+        executor.execute(new RawSqlStatement("CREATE TABLE second (name VARCHAR(50), username VARCHAR(50))"));
+        database.commit();
+        System.setProperty(ParallelLoadDataExecutor.PARALLEL_SYSTEM_PROPERTY, "4");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(ParallelLoadDataExecutor.PARALLEL_SYSTEM_PROPERTY);
+        ExecutorService.getInstance().clearExecutor(database);
+        connection.createStatement().execute("SHUTDOWN");
+        connection.close();
+    }
+
+    @Test
+    public void execute() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "test.xml", null, null, true);
+        changeSet.addChange(createChange("first", "liquibase/change/core/sample.data1.csv"));
+        changeSet.addChange(createChange("second", "liquibase/change/core/sample.data1.csv"));
+        changeSet.addChange(createChange("first", "liquibase/change/core/sample.data1.csv"));
+        //keeps the connection loading the first table busy until the other one loads the second table
+        secondTableStarted = new CountDownLatch(1);
+
+        assertEquals(3, ParallelLoadDataExecutor.getParallelChanges(changeSet.getChanges(), true, true));
+        changeSet.execute(new DatabaseChangeLog(), database);
+
+        assertEquals(4, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM first")));
+        assertEquals(2, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM second")));
+        assertEquals(2, threads.size());
+        for (String thread : threads) {
+            assertTrue(thread, thread.startsWith("liquibase-loadData-"));
+        }
+        assertFalse("loaded on a non-daemon thread", nonDaemonThread);
+    }
+
+    @Test
+    public void executeFailureRollsBackAllConnections() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "test.xml", null, null, true);
+        changeSet.addChange(createChange("first", "liquibase/change/core/sample.data1.csv"));
+        changeSet.addChange(createChange("missing", "liquibase/change/core/sample.data1.csv"));
+
+        try {
+            changeSet.execute(new DatabaseChangeLog(), database);
+            fail("loading a missing table did not fail");
+        } catch (MigrationFailedException e) {
+            //expected
+        }
+        assertEquals(0, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM first")));
+    }
+
+    @Test
+    public void getParallelChanges() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "test.xml", null, null, true);
+        changeSet.addChange(createChange("first", "liquibase/change/core/sample.data1.csv"));
+        changeSet.addChange(createChange("first", "liquibase/change/core/sample.data1.csv"));
+        assertEquals("one table", 0, ParallelLoadDataExecutor.getParallelChanges(changeSet.getChanges(), true, true));
+
+        changeSet.addChange(createChange("second", "liquibase/change/core/sample.data1.csv"));
+        changeSet.addChange(new liquibase.change.core.RawSQLChange("SELECT 1 FROM first"));
+        assertEquals("followed by other changes in a transaction", 0, ParallelLoadDataExecutor.getParallelChanges(changeSet.getChanges(), true, true));
+        assertEquals(3, ParallelLoadDataExecutor.getParallelChanges(changeSet.getChanges(), false, true));
+        assertEquals("committed with a group of change sets", 0, ParallelLoadDataExecutor.getParallelChanges(changeSet.getChanges(), false, false));
+    }
+
+    @Test
+    public void getParallelChanges_afterOtherChanges() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "test.xml", null, null, false);
+        changeSet.addChange(new liquibase.change.core.RawSQLChange("INSERT INTO first (name) VALUES ('pending')"));
+        changeSet.addChange(createChange("first", "liquibase/change/core/sample.data1.csv"));
+        changeSet.addChange(createChange("second", "liquibase/change/core/sample.data1.csv"));
+        assertEquals("earlier changes may not be committed", 0, ParallelLoadDataExecutor.getParallelChanges(changeSet.getChanges(), false, true));
+    }
+
+    @Test
+    public void getConnections() throws Exception {
+        assertEquals(4, ParallelLoadDataExecutor.getConnections(database));
+
+        Database hsqlDatabase = new HsqlDatabase();
+        hsqlDatabase.setConnection(database.getConnection());
+        assertEquals("foreign key checks cannot be disabled", 0, ParallelLoadDataExecutor.getConnections(hsqlDatabase));
+        ExecutorService.getInstance().clearExecutor(hsqlDatabase);
+
+        System.clearProperty(ParallelLoadDataExecutor.PARALLEL_SYSTEM_PROPERTY);
+        assertEquals(0, ParallelLoadDataExecutor.getConnections(database));
+    }
+
+    private LoadDataChange createChange(String tableName, String file) {
+        LoadDataChange change = new LoadDataChange() {
+            @Override
+            public SqlStatement[] generateStatements(Database database) {
+                threads.add(Thread.currentThread().getName());
+                nonDaemonThread |= !Thread.currentThread().isDaemon();
+                if (secondTableStarted != null) {
+                    if (getTableName().equals("second")) {
+                        secondTableStarted.countDown();
+                    } else {
+                        try {
+                            secondTableStarted.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }
+                return super.generateStatements(database);
+            }
+        };
+        change.setTableName(tableName);
+        change.setFile(file);
+        change.setResourceAccessor(new ClassLoaderResourceAccessor());
+        return change;
+    }
+}
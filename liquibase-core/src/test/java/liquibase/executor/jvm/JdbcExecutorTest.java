@@ -1,13 +1,29 @@
 package liquibase.executor.jvm;
 
 import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.database.core.OracleDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.statement.core.UpdateStatement;
 import static org.junit.Assert.*;
 
 import liquibase.executor.ExecutorService;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
 public class JdbcExecutorTest {
 
     @Test
@@ -43,4 +59,83 @@ public class JdbcExecutorTest {
         assertTrue(ExecutorService.getInstance().getExecutor(oracle1) != ExecutorService.getInstance().getExecutor(oracle2));
         assertTrue(ExecutorService.getInstance().getExecutor(oracle1) != ExecutorService.getInstance().getExecutor(mysql));
     }
+
+    @Test
+    public void executeBatch() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:executeBatch", "sa", "");
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            JdbcExecutor executor = new JdbcExecutor();
+            executor.setDatabase(database);
+            executor.setBatchSize(7);
+
+            List<SqlStatement> statements = new ArrayList<SqlStatement>();
+            statements.add(new RawSqlStatement("CREATE TABLE batched (id INT PRIMARY KEY, name VARCHAR(10))"));
+            for (int i = 0; i < 50; i++) {
+                statements.add(new InsertStatement(null, null, "BATCHED").addColumnValue("ID", i).addColumnValue("NAME", "row"));
+                if (i == 20) {
+                    statements.add(new RawSqlStatement("SELECT COUNT(*) FROM batched"));
+                }
+            }
+            statements.add(new UpdateStatement(null, null, "BATCHED").addNewColumnValue("NAME", "first").setWhereClause("ID = 0"));
+            executor.executeBatch(statements, new ArrayList<SqlVisitor>());
+
+            assertEquals(50, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM batched")));
+            assertEquals("first", executor.queryForObject(new RawSqlStatement("SELECT name FROM batched WHERE id = 0"), String.class));
+
+            statements.clear();
+            statements.add(new InsertStatement(null, null, "BATCHED").addColumnValue("ID", 100).addColumnValue("NAME", "row"));
+            statements.add(new InsertStatement(null, null, "BATCHED").addColumnValue("ID", 3).addColumnValue("NAME", "duplicate"));
+            try {
+                executor.executeBatch(statements, new ArrayList<SqlVisitor>());
+                fail("Did not report failing statement");
+            } catch (DatabaseException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("'duplicate'"));
+            }
+        } finally {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+    }
+
+    @Test
+    public void getBatchSize_invalid() {
+        System.setProperty(JdbcExecutor.BATCH_SIZE_PROPERTY, "many");
+        try {
+            new JdbcExecutor().getBatchSize();
+            fail("Did not report invalid batch size");
+        } catch (UnexpectedLiquibaseException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(JdbcExecutor.BATCH_SIZE_PROPERTY));
+        } finally {
+            System.clearProperty(JdbcExecutor.BATCH_SIZE_PROPERTY);
+        }
+    }
+
+    @Test
+    public void clearExecutor_closesPreparedStatements() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:closePreparedStatements", "sa", "");
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            JdbcExecutor executor = new JdbcExecutor();
+            executor.setDatabase(database);
+            ExecutorService.getInstance().setExecutor(database, executor);
+
+            PreparedStatement stmt = executor.getPreparedStatementFactory().prepare("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SYSTEM_TABLES");
+            assertSame(stmt, executor.getPreparedStatementFactory().prepare("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SYSTEM_TABLES"));
+            stmt.executeQuery().close();
+
+            ExecutorService.getInstance().clearExecutor(database);
+            try {
+                stmt.executeQuery();
+                fail("Statement was not closed");
+            } catch (SQLException e) {
+                //expected
+            }
+        } finally {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+    }
 }
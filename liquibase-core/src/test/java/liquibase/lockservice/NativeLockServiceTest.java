@@ -0,0 +1,130 @@
+package liquibase.lockservice;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LockException;
+import liquibase.executor.ExecutorService;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class NativeLockServiceTest {
+
+    private Connection connection1;
+    private Connection connection2;
+    private Database database1;
+    private Database database2;
+    private SemaphoreLockStrategy strategy = new SemaphoreLockStrategy();
+
+    /**
+     * Stands in for a database lock shared by the two connections.
+     */
+    private static class SemaphoreLockStrategy implements LockStrategy {
+        private Semaphore semaphore = new Semaphore(1);
+
+        public int getPriority() {
+            return Integer.MAX_VALUE;
+        }
+
+        public boolean supports(Database database) {
+            return database instanceof HsqlDatabase;
+        }
+
+        public boolean acquireLock(Database database, long timeout) throws LockException {
+            try {
+                return semaphore.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw new LockException(e);
+            }
+        }
+
+        public void releaseLock(Database database) throws LockException {
+            semaphore.release();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection1 = DriverManager.getConnection("jdbc:hsqldb:mem:nativeLockService", "sa", "");
+        connection2 = DriverManager.getConnection("jdbc:hsqldb:mem:nativeLockService", "sa", "");
+        database1 = new HsqlDatabase();
+        database1.setConnection(new JdbcConnection(connection1));
+        database2 = new HsqlDatabase();
+        database2.setConnection(new JdbcConnection(connection2));
+        LockStrategyFactory.getInstance().register(strategy);
+        System.setProperty(LockStrategyFactory.NATIVE_LOCK_SYSTEM_PROPERTY, "true");
+        LockService.resetAll();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(LockStrategyFactory.NATIVE_LOCK_SYSTEM_PROPERTY);
+        LockStrategyFactory.getInstance().unregister(strategy);
+        LockService.getInstance(database1).releaseLock();
+        LockService.getInstance(database2).releaseLock();
+        ExecutorService.getInstance().clearExecutor(database1);
+        ExecutorService.getInstance().clearExecutor(database2);
+        connection1.createStatement().execute("SHUTDOWN");
+        connection1.close();
+        connection2.close();
+    }
+
+    @Test
+    public void waitForLock_wakesOnRelease() throws Exception {
+        LockService.getInstance(database1).waitForLock();
+        assertTrue(LockService.getInstance(database1).hasChangeLogLock());
+        assertFalse(LockService.getInstance(database2).acquireLock());
+
+        LockService.getInstance(database2).setChangeLogLockWaitTime(60 * 1000);
+        java.util.concurrent.ExecutorService threadPool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waiting = threadPool.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    LockService.getInstance(database2).waitForLock();
+                    return LockService.getInstance(database2).hasChangeLogLock();
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());
+
+            long released = System.currentTimeMillis();
+            LockService.getInstance(database1).releaseLock();
+            assertTrue(waiting.get(10, TimeUnit.SECONDS));
+            assertTrue("did not poll", System.currentTimeMillis() - released < 5000);
+        } finally {
+            threadPool.shutdownNow();
+        }
+
+        assertFalse(LockService.getInstance(database1).acquireLock());
+    }
+
+    @Test
+    public void nativeLockTakesLockTable() throws Exception {
+        LockService.getInstance(database1).waitForLock();
+        assertEquals(1, LockService.getInstance(database1).listLocks().length);
+
+        System.clearProperty(LockStrategyFactory.NATIVE_LOCK_SYSTEM_PROPERTY);
+        assertFalse("lock table only", LockService.getInstance(database2).acquireLock());
+    }
+
+    @Test
+    public void lockTableKeepsOutNativeLock() throws Exception {
+        System.clearProperty(LockStrategyFactory.NATIVE_LOCK_SYSTEM_PROPERTY);
+        assertTrue(LockService.getInstance(database2).acquireLock());
+
+        System.setProperty(LockStrategyFactory.NATIVE_LOCK_SYSTEM_PROPERTY, "true");
+        assertFalse(LockService.getInstance(database1).acquireLock());
+        assertEquals("native lock is released again", 1, strategy.semaphore.availablePermits());
+    }
+}
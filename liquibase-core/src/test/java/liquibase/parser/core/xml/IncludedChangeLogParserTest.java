@@ -0,0 +1,135 @@
+package liquibase.parser.core.xml;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.resource.FileSystemResourceAccessor;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class IncludedChangeLogParserTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile("includes", "");
+        directory.delete();
+        new File(directory, "all").mkdirs();
+
+        write("master.xml", "<changeSet id=\"1\" author=\"test\"><sql>select 1</sql></changeSet>"
+                + "<include file=\"first.xml\"/>"
+                + "<changeSet id=\"2\" author=\"test\"><sql>select 2</sql></changeSet>"
+                + "<includeAll path=\"all\"/>"
+                + "<include file=\"nested.xml\"/>"
+                + "<changeSet id=\"3\" author=\"test\"><sql>select 3</sql></changeSet>");
+        write("first.xml", "<changeSet id=\"first\" author=\"test\"><sql>select 1</sql></changeSet>");
+        write("nested.xml", "<include file=\"first.xml\"/><changeSet id=\"nested\" author=\"test\"><sql>select 1</sql></changeSet>");
+        for (int i = 0; i < 10; i++) {
+            write("all/file" + i + ".xml", "<changeSet id=\"a" + i + "\" author=\"test\"><sql>select 1</sql></changeSet>"
+                    + "<changeSet id=\"b" + i + "\" author=\"test\"><sql>select 1</sql></changeSet>");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(IncludedChangeLogParser.THREADS_PROPERTY);
+        IncludedChangeLogParser.reset();
+        delete(directory);
+    }
+
+    @Test
+    public void sequentialByDefault() {
+        assertFalse(IncludedChangeLogParser.getInstance().isParallel());
+        assertFalse(new IncludedChangeLogParser(1).isParallel());
+        assertTrue(new IncludedChangeLogParser(2).isParallel());
+    }
+
+    @Test
+    public void parallelKeepsDeclarationOrder() throws Exception {
+        List<String> sequential = parseChangeSetIds();
+        assertEquals(26, sequential.size());
+        assertEquals("1", sequential.get(0));
+        assertEquals("first", sequential.get(1));
+        assertEquals("2", sequential.get(2));
+        assertEquals("a0", sequential.get(3));
+        assertEquals("3", sequential.get(25));
+
+        System.setProperty(IncludedChangeLogParser.THREADS_PROPERTY, "4");
+        IncludedChangeLogParser.reset();
+        assertTrue(IncludedChangeLogParser.getInstance().isParallel());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(sequential, parseChangeSetIds());
+        }
+    }
+
+    @Test
+    public void parallelDefinesPropertiesInIncludeOrder() throws Exception {
+        write("properties.xml", "<include file=\"slow.xml\"/><include file=\"fast.xml\"/>");
+        StringBuilder changeSets = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            changeSets.append("<changeSet id=\"s").append(i).append("\" author=\"test\"><sql>select 1</sql></changeSet>");
+        }
+        write("slow.xml", "<property name=\"table\" value=\"slow\"/>" + changeSets);
+        write("fast.xml", "<property name=\"table\" value=\"fast\"/>");
+
+        System.setProperty(IncludedChangeLogParser.THREADS_PROPERTY, "4");
+        IncludedChangeLogParser.reset();
+        for (int i = 0; i < 5; i++) {
+            DatabaseChangeLog changeLog = new XMLChangeLogSAXParser().parse("properties.xml", new ChangeLogParameters(), new FileSystemResourceAccessor(directory.getAbsolutePath()));
+            assertEquals("slow", changeLog.getChangeLogParameters().getValue("table"));
+        }
+    }
+
+    @Test
+    public void parallelReportsErrors() throws Exception {
+        write("all/file5.xml", "<changeSet id=\"broken\" author=\"test\"><unknownTag/></changeSet>");
+        System.setProperty(IncludedChangeLogParser.THREADS_PROPERTY, "4");
+        IncludedChangeLogParser.reset();
+        try {
+            parseChangeSetIds();
+            fail("Did not report invalid included changelog");
+        } catch (ChangeLogParseException e) {
+            // expected
+        }
+    }
+
+    private List<String> parseChangeSetIds() throws Exception {
+        DatabaseChangeLog changeLog = new XMLChangeLogSAXParser().parse("master.xml", new ChangeLogParameters(), new FileSystemResourceAccessor(directory.getAbsolutePath()));
+        List<String> ids = new ArrayList<String>();
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            ids.add(changeSet.getId());
+        }
+        return ids;
+    }
+
+    private void write(String path, String content) throws Exception {
+        FileOutputStream out = new FileOutputStream(new File(directory, path));
+        try {
+            out.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+                    + "  xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.0.xsd\">\n"
+                    + content + "\n</databaseChangeLog>").getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,85 @@
+package liquibase.parser.core.xml;
+
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.test.JUnitResourceAccessor;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class ParsedChangeLogCacheTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile("parsedchangelogcache", "");
+        directory.delete();
+        directory.mkdirs();
+        System.setProperty(ParsedChangeLogCache.DIRECTORY_PROPERTY, directory.getAbsolutePath());
+        ParsedChangeLogCache.reset();
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(ParsedChangeLogCache.DIRECTORY_PROPERTY);
+        ParsedChangeLogCache.reset();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void disabledByDefault() {
+        assertFalse(new ParsedChangeLogCache(null).isEnabled());
+    }
+
+    @Test
+    public void replaysStoredChangeLog() throws Exception {
+        DatabaseChangeLog parsed = new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/multiChangeSetChangeLog.xml", new ChangeLogParameters(), new JUnitResourceAccessor());
+        assertEquals(1, directory.listFiles().length);
+
+        DatabaseChangeLog replayed = new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/multiChangeSetChangeLog.xml", new ChangeLogParameters(), new JUnitResourceAccessor());
+        assertEquals(1, directory.listFiles().length);
+
+        assertEquals(parsed.getChangeSets().size(), replayed.getChangeSets().size());
+        for (int i = 0; i < parsed.getChangeSets().size(); i++) {
+            ChangeSet expected = parsed.getChangeSets().get(i);
+            ChangeSet actual = replayed.getChangeSets().get(i);
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.getComments(), actual.getComments());
+            assertEquals(expected.getRollBackChanges().length, actual.getRollBackChanges().length);
+            assertEquals(expected.generateCheckSum(), actual.generateCheckSum());
+        }
+    }
+
+    @Test
+    public void parametersAppliedOnReplay() throws Exception {
+        ChangeLogParameters params = new ChangeLogParameters();
+        params.set("tablename", "rawsql");
+        new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/rawSqlParameters.xml", params, new JUnitResourceAccessor());
+
+        params = new ChangeLogParameters();
+        params.set("tablename", "other");
+        DatabaseChangeLog changeLog = new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/rawSqlParameters.xml", params, new JUnitResourceAccessor());
+
+        assertEquals("create table other;", ((RawSQLChange) changeLog.getChangeSets().get(0).getChanges().get(0)).getSql());
+    }
+
+    @Test
+    public void unreadableEntryIgnored() throws Exception {
+        ParsedChangeLogCache cache = new ParsedChangeLogCache(directory);
+        assertTrue(new File(directory, "abc.parsed").createNewFile());
+        assertFalse(cache.replay("abc", new XMLChangeLogSAXHandler("path", new JUnitResourceAccessor(), new ChangeLogParameters())));
+        assertFalse(cache.replay("missing", new XMLChangeLogSAXHandler("path", new JUnitResourceAccessor(), new ChangeLogParameters())));
+    }
+}
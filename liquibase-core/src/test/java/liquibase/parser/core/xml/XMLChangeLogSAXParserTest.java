@@ -314,6 +314,18 @@ public class XMLChangeLogSAXParserTest {
         }
     }
 
+    @Test
+    public void malformedChangeLog_compiledSchema() throws Exception {
+        try {
+            new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/malformedChangeLog.xml", new ChangeLogParameters(), new JUnitResourceAccessor());
+            fail("Did not validate change log");
+        } catch (ChangeLogParseException e) {
+            assertTrue(e.getMessage().startsWith("Error parsing line 9"));
+        }
+        assertTrue(XMLChangeLogSAXParser.hasCompiledSchema("http://www.liquibase.org/xml/ns/dbchangelog/1.4\n    http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-1.4.xsd"));
+        assertFalse(XMLChangeLogSAXParser.hasCompiledSchema("http://liquibase.example.com/unknown http://liquibase.example.com/unknown.xsd"));
+    }
+
     @Test
     public void otherNamespaceAttributesChangeLog() throws Exception {
         DatabaseChangeLog changeLog = new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/simpleChangeLog.xml", new ChangeLogParameters(), new JUnitResourceAccessor());
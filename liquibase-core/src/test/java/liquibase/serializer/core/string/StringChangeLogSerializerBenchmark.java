@@ -0,0 +1,109 @@
+package liquibase.serializer.core.string;
+
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.CreateTableChange;
+import liquibase.util.MD5Util;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timing harness for change checksums, run with
+ * <code>java -cp target/classes:target/test-classes liquibase.serializer.core.string.StringChangeLogSerializerBenchmark</code>.
+ * Compares serializing to a String and hashing it with streaming the serialized form into the digest, and measures
+ * how much of a checksum is spent reading field values through reflection.
+ */
+public class StringChangeLogSerializerBenchmark {
+
+    private static final int CHANGES = 2000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        List<CreateTableChange> changes = new ArrayList<CreateTableChange>();
+        for (int i = 0; i < CHANGES; i++) {
+            CreateTableChange change = new CreateTableChange();
+            change.setTableName("table_" + i);
+            change.setSchemaName("schema");
+            change.setRemarks("remarks for table " + i);
+            for (int c = 0; c < 20; c++) {
+                ColumnConfig column = new ColumnConfig();
+                column.setName("column_" + c);
+                column.setType("varchar(" + (c + 10) + ")");
+                column.setDefaultValue("default " + c);
+                ConstraintsConfig constraints = new ConstraintsConfig();
+                constraints.setNullable(c % 2 == 0);
+                column.setConstraints(constraints);
+                change.addColumn(column);
+            }
+            changes.add(change);
+        }
+        final StringChangeLogSerializer serializer = new StringChangeLogSerializer();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (CreateTableChange change : changes) {
+                MD5Util.computeMD5(serializer.serialize(change));
+            }
+            long stringTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (CreateTableChange change : changes) {
+                serializer.generateCheckSum(change);
+            }
+            long streamTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int reads = 0;
+            for (CreateTableChange change : changes) {
+                reads += readAllFields(change);
+            }
+            long reflectionTime = System.nanoTime() - start;
+
+            System.out.println("round " + round
+                    + ": serialize+md5 " + (stringTime / CHANGES) + " ns/change"
+                    + ", streamed " + (streamTime / CHANGES) + " ns/change"
+                    + ", Field.get only " + (reflectionTime / CHANGES) + " ns/change (" + (reads / CHANGES) + " reads)");
+        }
+    }
+
+    /**
+     * Reads every field the serializer reads, the way it reads them.
+     */
+    private static int readAllFields(Object object) throws Exception {
+        int reads = 0;
+        Class type = object.getClass();
+        while (!type.equals(Object.class)) {
+            for (Field field : getFields(type)) {
+                Object value = field.get(object);
+                reads++;
+                if (value instanceof ColumnConfig || value instanceof ConstraintsConfig) {
+                    reads += readAllFields(value);
+                } else if (value instanceof List) {
+                    for (Object element : (List) value) {
+                        if (element instanceof ColumnConfig) {
+                            reads += readAllFields(element);
+                        }
+                    }
+                }
+            }
+            type = type.getSuperclass();
+        }
+        return reads;
+    }
+
+    private static final java.util.Map<Class, Field[]> fields = new java.util.HashMap<Class, Field[]>();
+
+    private static Field[] getFields(Class type) {
+        Field[] declared = fields.get(type);
+        if (declared == null) {
+            declared = type.getDeclaredFields();
+            for (Field field : declared) {
+                field.setAccessible(true);
+            }
+            fields.put(type, declared);
+        }
+        return declared;
+    }
+}
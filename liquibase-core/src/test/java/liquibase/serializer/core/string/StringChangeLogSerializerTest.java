@@ -242,6 +242,22 @@ public class StringChangeLogSerializerTest {
                 "]", new StringChangeLogSerializer().serialize(change));
     }
 
+    @Test
+    public void serialized_standardizesNewlines() {
+        RawSQLChange change = new RawSQLChange();
+        change.setSql("some SQL Here");
+        change.setComments("line1\r\nline2\rline3\r\r\nline4\n");
+
+        String serialized = new StringChangeLogSerializer().serialize(change);
+        assertEquals("sql:[\n" +
+                "    comments=\"line1\nline2\nline3\n\nline4\n\"\n" +
+                "    splitStatements=\"true\"\n" +
+                "    sql=\"some SQL Here\"\n" +
+                "    stripComments=\"false\"\n" +
+                "]", serialized);
+        assertEquals(CheckSum.compute(serialized), new StringChangeLogSerializer().generateCheckSum(change));
+    }
+
     @Test
     public void tryAllChanges() throws Exception {
         for (SortedSet<Class<? extends Change>> changeClassSet : ChangeFactory.getInstance().getRegistry().values()) {
@@ -250,6 +266,7 @@ public class StringChangeLogSerializerTest {
             setFields(change);
 
             String string = new StringChangeLogSerializer().serialize(change);
+            assertEquals(CheckSum.compute(string), new StringChangeLogSerializer().generateCheckSum(change));
 //            System.out.println(string);
 //            System.out.println("-------------");
             assertTrue("@ in string.  Probably poorly serialzed object reference." + string, string.indexOf("@") < 0);
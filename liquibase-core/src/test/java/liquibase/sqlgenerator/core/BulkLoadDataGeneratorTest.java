@@ -0,0 +1,45 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.H2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.statement.core.BulkLoadDataStatement;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class BulkLoadDataGeneratorTest {
+
+    private BulkLoadDataStatement statement = new BulkLoadDataStatement(null, null, "loaded", Arrays.asList("id", "name"), "/tmp/it's.csv");
+
+    @Test
+    public void generateSql_postgres() {
+        Sql[] sql = new BulkLoadDataGeneratorPostgres().generateSql(statement, new PostgresDatabase(), null);
+        assertEquals(1, sql.length);
+        assertEquals("COPY loaded (id, name) FROM STDIN WITH CSV NULL 'NULL'", sql[0].toSql());
+    }
+
+    @Test
+    public void generateSql_mysql() {
+        Sql[] sql = new BulkLoadDataGeneratorMySQL().generateSql(statement, new MySQLDatabase(), null);
+        assertEquals(1, sql.length);
+        assertEquals("LOAD DATA LOCAL INFILE '/tmp/it\\'s.csv' INTO TABLE `loaded` CHARACTER SET utf8 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' LINES TERMINATED BY '\\n' (`id`, `name`)", sql[0].toSql());
+    }
+
+    @Test
+    public void generateSql_h2() {
+        Sql[] sql = new BulkLoadDataGeneratorH2().generateSql(statement, new H2Database(), null);
+        assertEquals(1, sql.length);
+        assertEquals("INSERT INTO loaded (id, name) SELECT * FROM CSVREAD('/tmp/it''s.csv', 'C1,C2', 'charset=UTF-8 fieldSeparator=, null=NULL')", sql[0].toSql());
+    }
+
+    @Test
+    public void supports() {
+        assertTrue(new BulkLoadDataGeneratorPostgres().supports(statement, new PostgresDatabase()));
+        assertFalse(new BulkLoadDataGeneratorPostgres().supports(statement, new MySQLDatabase()));
+        assertFalse("needs a file database", new BulkLoadDataGeneratorHsql().supports(statement, new HsqlDatabase()));
+    }
+}
@@ -0,0 +1,57 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.DB2Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.DropStagingTableStatement;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class CreateStagingTableGeneratorTest {
+
+    @Test
+    public void supportsStagingTable() {
+        assertTrue(CreateStagingTableGenerator.supportsStagingTable(new PostgresDatabase()));
+        assertTrue(CreateStagingTableGenerator.supportsStagingTable(new MySQLDatabase()));
+        assertFalse("creating tables commits", CreateStagingTableGenerator.supportsStagingTable(new OracleDatabase()));
+        assertFalse("creating tables commits", CreateStagingTableGenerator.supportsStagingTable(new H2Database()));
+    }
+
+    @Test
+    public void generateSql_postgres() {
+        PostgresDatabase database = new PostgresDatabase();
+        String schemaName = CreateStagingTableGenerator.getStagingSchemaName(database);
+        String stagingTableName = CreateStagingTableGenerator.getStagingTableName(database, "staging");
+        assertEquals("CREATE TEMPORARY TABLE pg_temp.staging AS SELECT id, name FROM target WHERE 1 = 0",
+                new CreateStagingTableGenerator().generateSql(new CreateStagingTableStatement(null, null, "target", schemaName, stagingTableName, Arrays.asList("id", "name")), database, null)[0].toSql());
+        assertEquals("DROP TABLE pg_temp.staging",
+                new DropStagingTableGenerator().generateSql(new DropStagingTableStatement(schemaName, stagingTableName), database, null)[0].toSql());
+    }
+
+    @Test
+    public void generateSql_mysql() {
+        MySQLDatabase database = new MySQLDatabase();
+        assertEquals("CREATE TEMPORARY TABLE `staging` AS SELECT `id`, `name` FROM `target` WHERE 1 = 0",
+                new CreateStagingTableGenerator().generateSql(new CreateStagingTableStatement(null, null, "target", null, "staging", Arrays.asList("id", "name")), database, null)[0].toSql());
+        assertEquals("DROP TEMPORARY TABLE `staging`",
+                new DropStagingTableGenerator().generateSql(new DropStagingTableStatement(null, "staging"), database, null)[0].toSql());
+    }
+
+    @Test
+    public void generateSql_db2() {
+        DB2Database database = new DB2Database();
+        assertEquals("DECLARE GLOBAL TEMPORARY TABLE SESSION.staging AS (SELECT id, name FROM target) WITH NO DATA ON COMMIT PRESERVE ROWS NOT LOGGED",
+                new CreateStagingTableGenerator().generateSql(new CreateStagingTableStatement(null, null, "target", CreateStagingTableGenerator.getStagingSchemaName(database), "staging", Arrays.asList("id", "name")), database, null)[0].toSql());
+    }
+
+    @Test
+    public void getStagingTableName_mssql() {
+        assertEquals("#staging", CreateStagingTableGenerator.getStagingTableName(new MSSQLDatabase(), "staging"));
+    }
+}
@@ -0,0 +1,62 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.core.InsertStatement;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InsertSetGeneratorTest {
+
+    @Test
+    public void generateSql_multiRow() {
+        InsertSetStatement statement = new InsertSetStatement(null, null, "loaded");
+        statement.addInsertStatement(new InsertStatement(null, null, "loaded").addColumnValue("id", 1).addColumnValue("name", "a"));
+        statement.addInsertStatement(new InsertStatement(null, null, "loaded").addColumnValue("id", 2).addColumnValue("name", "NULL"));
+        statement.addInsertStatement(new InsertStatement(null, null, "loaded").addColumnValue("id", 3));
+
+        Sql[] sql = new InsertSetGenerator().generateSql(statement, new PostgresDatabase(), null);
+        assertEquals(2, sql.length);
+        assertEquals("INSERT INTO loaded (id, name) VALUES (1, 'a'),\n(2, NULL)", sql[0].toSql());
+        assertEquals("INSERT INTO loaded (id) VALUES (3)", sql[1].toSql());
+    }
+
+    @Test
+    public void generateSql_singleRowWithoutMultiRowSupport() {
+        InsertSetStatement statement = new InsertSetStatement(null, null, "loaded");
+        statement.addInsertStatement(new InsertStatement(null, null, "loaded").addColumnValue("id", 1));
+        statement.addInsertStatement(new InsertStatement(null, null, "loaded").addColumnValue("id", 2));
+
+        Sql[] sql = new InsertSetGenerator().generateSql(statement, new OracleDatabase(), null);
+        assertEquals(2, sql.length);
+        assertEquals("INSERT INTO loaded (id) VALUES (1)", sql[0].toSql());
+        assertEquals("INSERT INTO loaded (id) VALUES (2)", sql[1].toSql());
+    }
+
+    @Test
+    public void getRowGroups_respectsLimits() {
+        InsertSetStatement statement = new InsertSetStatement(null, null, "loaded");
+        for (int i = 0; i < 2500; i++) {
+            statement.addInsertStatement(new InsertStatement(null, null, "loaded").addColumnValue("id", i));
+        }
+        List<Integer> sizes = new ArrayList<Integer>();
+        for (List<InsertStatement> group : new InsertSetGenerator().getRowGroups(statement, new PostgresDatabase())) {
+            sizes.add(group.size());
+        }
+        assertEquals("[1000, 1000, 500]", sizes.toString());
+
+        assertEquals(666, new InsertSetGenerator().getMaxRows(new MSSQLDatabase() {
+            @Override
+            public int getDatabaseMajorVersion() {
+                return 10;
+            }
+        }, 3));
+        assertEquals(1, new InsertSetGenerator().getMaxRows(new MSSQLDatabase(), 3));
+    }
+}
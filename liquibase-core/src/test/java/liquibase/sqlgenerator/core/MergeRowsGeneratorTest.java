@@ -0,0 +1,59 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.statement.core.MergeRowsStatement;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class MergeRowsGeneratorTest {
+
+    private MergeRowsStatement statement = new MergeRowsStatement(null, null, "target", null, "staging", Arrays.asList("id", "name"), "id");
+
+    @Test
+    public void generateSql() {
+        Sql[] sql = new MergeRowsGenerator().generateSql(statement, new PostgresDatabase(), null);
+        assertEquals(2, sql.length);
+        assertEquals("UPDATE target SET name = (SELECT src.name FROM staging src WHERE src.id = target.id) WHERE EXISTS (SELECT 1 FROM staging src WHERE src.id = target.id)", sql[0].toSql());
+        assertEquals("INSERT INTO target (id, name) SELECT src.id, src.name FROM staging src WHERE NOT EXISTS (SELECT 1 FROM target WHERE src.id = target.id)", sql[1].toSql());
+    }
+
+    @Test
+    public void generateSql_onlyPrimaryKeyColumns() {
+        MergeRowsStatement statement = new MergeRowsStatement(null, null, "target", null, "staging", Arrays.asList("id"), "ID");
+        Sql[] sql = new MergeRowsGenerator().generateSql(statement, new PostgresDatabase(), null);
+        assertEquals(1, sql.length);
+        assertEquals("INSERT INTO target (id) SELECT src.id FROM staging src WHERE NOT EXISTS (SELECT 1 FROM target WHERE src.ID = target.ID)", sql[0].toSql());
+    }
+
+    @Test
+    public void generateSql_postgres() {
+        PostgresDatabase database = new PostgresDatabase() {
+            @Override
+            public int getDatabaseMajorVersion() throws DatabaseException {
+                return 9;
+            }
+
+            @Override
+            public int getDatabaseMinorVersion() throws DatabaseException {
+                return 5;
+            }
+        };
+        Sql[] sql = new MergeRowsGeneratorPostgres().generateSql(statement, database, null);
+        assertEquals(1, sql.length);
+        assertEquals("INSERT INTO target (id, name) SELECT id, name FROM staging ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name", sql[0].toSql());
+
+        assertEquals("no ON CONFLICT before 9.5", 2, new MergeRowsGeneratorPostgres().generateSql(statement, new PostgresDatabase(), null).length);
+    }
+
+    @Test
+    public void generateSql_mysql() {
+        Sql[] sql = new MergeRowsGeneratorMySQL().generateSql(statement, new MySQLDatabase(), null);
+        assertEquals(1, sql.length);
+        assertEquals("INSERT INTO `target` (`id`, `name`) SELECT `id`, `name` FROM `staging` ON DUPLICATE KEY UPDATE `name` = VALUES(`name`)", sql[0].toSql());
+    }
+}
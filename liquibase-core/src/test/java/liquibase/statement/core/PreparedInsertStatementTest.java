@@ -0,0 +1,129 @@
+package liquibase.statement.core;
+
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.InsertDataChange;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.InsertGenerator;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class PreparedInsertStatementTest extends AbstractSqStatementTest<PreparedInsertStatement> {
+
+    @Override
+    protected PreparedInsertStatement createStatementUnderTest() {
+        return new PreparedInsertStatement(null, null, null);
+    }
+
+    @Test
+    public void executeAsPreparedStatement() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:preparedInsert", "sa", "");
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.execute(new RawSqlStatement("CREATE TABLE prepared (id INT, name VARCHAR(20), amount DECIMAL(10,2), created DATE, flag BOOLEAN)"));
+
+            List<Object> parameters = new ArrayList<Object>();
+            String sql = new InsertGenerator().generateSql(createInsert(1, "it's"), database, parameters);
+            assertEquals("INSERT INTO PREPARED (AMOUNT, CREATED, FLAG, ID, NAME) VALUES (?, ?, TRUE, ?, ?)", sql.toUpperCase());
+            assertEquals(4, parameters.size());
+
+            PreparedStatementFactory factory = new PreparedStatementFactory(database);
+            PreparedStatement first = factory.prepare(sql);
+            assertSame(first, factory.prepare(sql));
+
+            for (int i = 0; i < 3; i++) {
+                database.execute(new InsertStatement[] {createInsert(i, "it's")}, new ArrayList<SqlVisitor>());
+            }
+            database.execute(new InsertStatement[] {createInsert(3, "NULL")}, new ArrayList<SqlVisitor>());
+
+            List<Map> rows = executor.queryForList(new RawSqlStatement("SELECT * FROM prepared ORDER BY id"));
+            assertEquals(4, rows.size());
+            assertEquals("it's", rows.get(2).get("NAME"));
+            assertEquals(0, new BigDecimal("12.50").compareTo((BigDecimal) rows.get(2).get("AMOUNT")));
+            assertEquals(java.sql.Date.valueOf("2012-03-04"), rows.get(2).get("CREATED"));
+            assertNull(rows.get(3).get("NAME"));
+
+            StringWriter output = new StringWriter();
+            new LoggingExecutor(executor, output, database).execute(createInsert(4, "it's"));
+            assertTrue(output.toString(), output.toString().toUpperCase().contains("VALUES (12.50, '2012-03-04', TRUE, 4, 'IT''S')"));
+        } finally {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+    }
+
+    @Test
+    public void customGeneratorGetsLiteralSql() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:customInsert", "sa", "");
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        SqlGenerator customGenerator = new InsertGenerator() {
+            @Override
+            public int getPriority() {
+                return PRIORITY_DATABASE;
+            }
+
+            @Override
+            public Sql[] generateSql(InsertStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+                return new Sql[] {new UnparsedSql("INSERT INTO custom (id, name) VALUES (" + statement.getColumnValue("id") + ", 'custom')")};
+            }
+        };
+        SqlGeneratorFactory.getInstance().register(customGenerator);
+        try {
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.execute(new RawSqlStatement("CREATE TABLE custom (id INT, name VARCHAR(20))"));
+
+            assertNull(((PreparedInsertStatement) createInsert(1, "it's")).generatePreparedSql(database, new ArrayList<Object>()));
+            database.execute(new InsertStatement[] {createInsert(1, "it's"), createInsert(2, "it's")}, new ArrayList<SqlVisitor>());
+            executor.execute(createInsert(3, "it's"));
+
+            assertEquals(3, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM custom WHERE name = 'custom'")));
+        } finally {
+            SqlGeneratorFactory.getInstance().unregister(customGenerator);
+            ExecutorService.getInstance().clearExecutor(database);
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+    }
+
+    @Test
+    public void insertDataChangeUsesPreparedStatement() throws Exception {
+        InsertDataChange change = new InsertDataChange();
+        change.setTableName("prepared");
+        change.addColumn(new ColumnConfig().setName("id").setValueNumeric(1));
+        Database database = new HsqlDatabase();
+        assertTrue(change.generateStatements(database)[0] instanceof PreparedInsertStatement);
+    }
+
+    private InsertStatement createInsert(int id, String name) {
+        return new PreparedInsertStatement(null, null, "prepared")
+                .addColumnValue("id", id)
+                .addColumnValue("name", name)
+                .addColumnValue("amount", new BigDecimal("12.50"))
+                .addColumnValue("created", java.sql.Date.valueOf("2012-03-04"))
+                .addColumnValue("flag", Boolean.TRUE);
+    }
+}
@@ -0,0 +1,54 @@
+package liquibase.statement.core;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.core.UpdateGenerator;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PreparedUpdateStatementTest extends AbstractSqStatementTest<PreparedUpdateStatement> {
+
+    @Override
+    protected PreparedUpdateStatement createStatementUnderTest() {
+        return new PreparedUpdateStatement(null, null, null);
+    }
+
+    @Test
+    public void executeAsPreparedStatement() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:preparedUpdate", "sa", "");
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            executor.execute(new RawSqlStatement("CREATE TABLE prepared (id INT, name VARCHAR(20))"));
+            executor.execute(new RawSqlStatement("INSERT INTO prepared (id, name) VALUES (1, 'a')"));
+            executor.execute(new RawSqlStatement("INSERT INTO prepared (id, name) VALUES (2, 'b')"));
+
+            UpdateStatement update = new PreparedUpdateStatement(null, null, "prepared")
+                    .addNewColumnValue("name", "it's $1 ?")
+                    .setWhereClause("id = ? AND name = ?")
+                    .addWhereParameters(2, "b");
+
+            List<Object> parameters = new ArrayList<Object>();
+            assertEquals("UPDATE PREPARED SET NAME = ? WHERE ID = ? AND NAME = ?", new UpdateGenerator().generateSql(update, database, parameters).toUpperCase());
+            assertEquals(3, parameters.size());
+            assertEquals("UPDATE PREPARED SET NAME = 'IT''S $1 ?' WHERE ID = 2 AND NAME = 'B'", new UpdateGenerator().generateSql(update, database, (List<Object>) null).toUpperCase());
+
+            database.execute(new UpdateStatement[] {update}, new ArrayList<SqlVisitor>());
+            assertEquals("it's $1 ?", executor.queryForObject(new RawSqlStatement("SELECT name FROM prepared WHERE id = 2"), String.class));
+            assertEquals("a", executor.queryForObject(new RawSqlStatement("SELECT name FROM prepared WHERE id = 1"), String.class));
+        } finally {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package liquibase.util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+
+/**
+ * Timing harness for md5-sums of files and strings, run with
+ * <code>java -cp target/classes:target/test-classes liquibase.util.MD5UtilBenchmark</code>.
+ * Compares {@link MD5Util} with the implementation it replaced, which read streams a byte at a time through a
+ * DigestInputStream and hashed strings through String.getBytes().
+ */
+public class MD5UtilBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int PREVIOUS_MAX_SIZE = 4 * 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        for (int size : new int[] {64 * 1024, 4 * 1024 * 1024, 64 * 1024 * 1024}) {
+            File file = createFile(size);
+            try {
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    InputStream in = new FileInputStream(file);
+                    String previous = null;
+                    if (size <= PREVIOUS_MAX_SIZE) { //about 1MB/s, too slow for the large file
+                        previous = previousComputeMD5(in);
+                    }
+                    in.close();
+                    long previousTime = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    in = new FileInputStream(file);
+                    String mapped = MD5Util.computeMD5(in);
+                    in.close();
+                    long mappedTime = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    in = new BufferedInputStream(new FileInputStream(file));
+                    String buffered = MD5Util.computeMD5(in);
+                    in.close();
+                    long bufferedTime = System.nanoTime() - start;
+
+                    if (!mapped.equals(buffered) || (previous != null && !previous.equals(mapped))) {
+                        throw new IllegalStateException("md5 mismatch");
+                    }
+                    System.out.println((size / 1024) + "KB file, round " + round
+                            + ": previous " + (previous == null ? "-" : String.valueOf(mbPerSecond(size, previousTime))) + " MB/s"
+                            + ", file stream " + mbPerSecond(size, mappedTime) + " MB/s"
+                            + ", other stream " + mbPerSecond(size, bufferedTime) + " MB/s");
+                }
+            } finally {
+                file.delete();
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 1024 * 1024) {
+            text.append("insert into table_name (id, name) values (1, 'n\u00e4me');\n");
+        }
+        String string = text.toString();
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            String previous = null;
+            for (int i = 0; i < 20; i++) {
+                previous = previousComputeMD5(string);
+            }
+            long previousTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            String current = null;
+            for (int i = 0; i < 20; i++) {
+                current = MD5Util.computeMD5(string);
+            }
+            long currentTime = System.nanoTime() - start;
+
+            if (!previous.equals(current)) {
+                throw new IllegalStateException("md5 mismatch");
+            }
+            System.out.println("1MB string, round " + round
+                    + ": previous " + mbPerSecond(20L * string.length(), previousTime) + " Mchars/s"
+                    + ", current " + mbPerSecond(20L * string.length(), currentTime) + " Mchars/s");
+        }
+    }
+
+    private static File createFile(int size) throws Exception {
+        File file = File.createTempFile("md5benchmark", ".sql");
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(bytes);
+        out.close();
+        return file;
+    }
+
+    private static long mbPerSecond(long bytes, long nanos) {
+        return bytes * 1000L / Math.max(1, nanos);
+    }
+
+    private static String previousComputeMD5(InputStream stream) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("MD5");
+        DigestInputStream digestStream = new DigestInputStream(stream, digest);
+        while (digestStream.read() != -1) {
+            ; //digest is updating
+        }
+        return new String(MD5Util.encodeHex(digest.digest()));
+    }
+
+    private static String previousComputeMD5(String input) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("MD5");
+        digest.update(input.getBytes("UTF-8"));
+        String returnString = new String(MD5Util.encodeHex(digest.digest()));
+        String message = "Computed checksum for " + input + " as " + returnString; //built even when debug is off
+        return message.length() > 0 ? returnString : null;
+    }
+}
@@ -4,6 +4,9 @@ import static org.junit.Assert.*;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 
 public class MD5UtilTest {
 
@@ -35,4 +38,46 @@ public class MD5UtilTest {
 		assertEquals(TEST_STRING_MD5_HASH, hexString);
 	}
 
+    @Test
+    public void testComputeMD5FileInputStream() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            content.append("line ").append(i).append(" \u00e9\n");
+        }
+        byte[] bytes = content.toString().getBytes("UTF-8");
+        File file = File.createTempFile("md5test", ".txt");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            out.write(bytes);
+            out.close();
+
+            FileInputStream in = new FileInputStream(file);
+            try {
+                assertEquals(MD5Util.computeMD5(content.toString()), MD5Util.computeMD5(in));
+            } finally {
+                in.close();
+            }
+            assertEquals(MD5Util.computeMD5(content.toString()), MD5Util.computeMD5(new ByteArrayInputStream(bytes)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testMD5WriterEncoding() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("a\u00e9\u20ac\ud83d\ude00");
+        }
+        String[] inputs = {"", "plain", "\u00e9\u4e2d\u20ac", "\ud83d\ude00", "lone \ud83d high", "lone \ude00 low", "trailing \ud83d", text.toString()};
+        for (String input : inputs) {
+            MD5Writer writer = new MD5Writer();
+            for (int i = 0; i < input.length(); i++) {
+                writer.write(input.charAt(i)); //surrogate pairs split across writes
+            }
+            byte[] expected = java.security.MessageDigest.getInstance("MD5").digest(input.getBytes("UTF-8"));
+            assertEquals(new String(MD5Util.encodeHex(expected)), writer.getMD5());
+        }
+    }
+
 }
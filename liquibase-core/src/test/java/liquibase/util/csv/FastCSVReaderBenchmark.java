@@ -0,0 +1,101 @@
+package liquibase.util.csv;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Timing harness for reading loadData files, run with
+ * <code>java -cp target/classes:target/test-classes liquibase.util.csv.FastCSVReaderBenchmark</code>.
+ * Compares {@link FastCSVReader} with the opencsv based {@link CSVReader} loadData uses by default, on a generated file
+ * with a mix of plain, quoted and multi-line values.
+ */
+public class FastCSVReaderBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int ROWS = 500000;
+
+    public static void main(String[] args) throws Exception {
+        File file = createFile();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                long openCsvChecksum = read(new CSVReader(open(file), ',', '"'));
+                long openCsvTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long fastChecksum = read(new FastCSVReader(open(file), ',', '"'));
+                long fastTime = System.nanoTime() - start;
+
+                if (openCsvChecksum != fastChecksum) {
+                    throw new IllegalStateException("records differ");
+                }
+                System.out.println((file.length() / (1024 * 1024)) + "MB file, " + ROWS + " rows, round " + round
+                        + ": opencsv " + rowsPerSecond(openCsvTime) + " rows/s"
+                        + ", fast " + rowsPerSecond(fastTime) + " rows/s");
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Reader open(File file) throws Exception {
+        return new InputStreamReader(new FileInputStream(file), "UTF-8");
+    }
+
+    /**
+     * Reads all records, returning a value computed from every field so the two readers can be compared.
+     */
+    private static long read(CSVReader reader) throws Exception {
+        long checksum = 0;
+        String[] record;
+        while ((record = reader.readNext()) != null) {
+            for (String field : record) {
+                checksum = checksum * 31 + field.hashCode();
+            }
+        }
+        reader.close();
+        return checksum;
+    }
+
+    private static File createFile() throws Exception {
+        File file = File.createTempFile("csvbenchmark", ".csv");
+        Random random = new Random(42);
+        Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            out.write("id,name,description,amount,created\n");
+            for (int i = 0; i < ROWS; i++) {
+                out.write(String.valueOf(i));
+                out.write(",name");
+                out.write(String.valueOf(random.nextInt(100000)));
+                switch (random.nextInt(4)) {
+                    case 0:
+                        out.write(",plain description");
+                        break;
+                    case 1:
+                        out.write(",\"quoted, with separator\"");
+                        break;
+                    case 2:
+                        out.write(",\"say \"\"hi\"\" to \u00e4ll\"");
+                        break;
+                    default:
+                        out.write(",\"two\nlines\"");
+                }
+                out.write("," + random.nextInt(10000) + "." + random.nextInt(100));
+                out.write(",2012-03-04 12:34:56\n");
+            }
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static long rowsPerSecond(long nanos) {
+        return ROWS * 1000000000L / Math.max(1, nanos);
+    }
+}
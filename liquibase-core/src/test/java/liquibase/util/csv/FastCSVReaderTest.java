@@ -0,0 +1,57 @@
+package liquibase.util.csv;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+
+public class FastCSVReaderTest {
+
+    @Test
+    public void readNext() throws Exception {
+        FastCSVReader reader = new FastCSVReader(new StringReader("id,name\n1,\"Doe, John\"\r\n\n2,\"say \"\"hi\"\"\"\r3,\"two\nlines\"\n"), ',', '"');
+        assertArrayEquals(new String[]{"id", "name"}, reader.readNext());
+        assertArrayEquals(new String[]{"1", "Doe, John"}, reader.readNext());
+        assertArrayEquals(new String[]{""}, reader.readNext());
+        assertArrayEquals(new String[]{"2", "say \"hi\""}, reader.readNext());
+        assertArrayEquals(new String[]{"3", "two\nlines"}, reader.readNext());
+        assertNull(reader.readNext());
+        assertNull(reader.readNext());
+    }
+
+    @Test
+    public void sameRecordsAsOpenCsvReader() throws Exception {
+        assertSameRecords("a,b,c\n1,2,3", ',', '"', 0);
+        assertSameRecords("  padded , values  \r\n\ufeffbom,\"quoted\ufeff\"\n", ',', '"', 0);
+        assertSameRecords("a,bc\"d\"ef,g\n\"unterminated,\nquote", ',', '"', 0);
+        assertSameRecords("skipped\r\nskipped too\r\nx\ty\n", '\t', '\'', 2);
+        assertSameRecords("a;'b;c';d\n", ';', '\1', 0);
+
+        Random random = new Random(42);
+        char[] alphabet = {'a', 'b', ',', '"', '"', '\n', '\r', ' ', '\ufeff'};
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder data = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int j = 0; j < length; j++) {
+                data.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertSameRecords(data.toString(), ',', '"', random.nextInt(2));
+        }
+    }
+
+    private void assertSameRecords(String data, char separator, char quotechar, int skipLines) throws Exception {
+        for (int bufferSize : new int[]{1, 3, 16, 64 * 1024}) {
+            liquibase.util.csv.opencsv.CSVReader expected = new liquibase.util.csv.opencsv.CSVReader(new StringReader(data), separator, quotechar, skipLines);
+            FastCSVReader actual = new FastCSVReader(new StringReader(data), separator, quotechar, skipLines, bufferSize);
+            String[] expectedRecord;
+            do {
+                expectedRecord = expected.readNext();
+                String[] actualRecord = actual.readNext();
+                assertEquals("Different record for " + Arrays.toString(data.toCharArray()) + " with buffer size " + bufferSize,
+                        expectedRecord == null ? null : Arrays.asList(expectedRecord), actualRecord == null ? null : Arrays.asList(actualRecord));
+            } while (expectedRecord != null);
+        }
+    }
+}